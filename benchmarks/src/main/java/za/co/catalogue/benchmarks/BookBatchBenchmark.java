@@ -0,0 +1,80 @@
+package za.co.catalogue.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.catalogue.management.dto.BookBatchResponse;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.service.BookService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService#createAll} in books per second, for batches of new books and for
+ * the same batch written again (all updates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookBatchBenchmark {
+
+    /** Entries per request; the default {@code app.books.batch.max-size}. */
+    private static final int BATCH = 10_000;
+    private static final LocalDate EPOCH = LocalDate.of(1900, 1, 1);
+
+    @Param("100000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private List<BookCreateRequest> existing;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Catalogue.start(rows);
+        service = context.getBean(BookService.class);
+        existing = batch("Upsert", 0);
+        service.createAll(existing);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BookBatchResponse insert() {
+        List<BookCreateRequest> batch = batch("Insert", inserted);
+        inserted += BATCH;
+        return service.createAll(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BookBatchResponse upsert() {
+        return service.createAll(existing);
+    }
+
+    private static List<BookCreateRequest> batch(String prefix, int from) {
+        List<BookCreateRequest> batch = new ArrayList<>(BATCH);
+        for (int i = from; i < from + BATCH; i++) {
+            BookCreateRequest r = new BookCreateRequest();
+            r.setName(prefix + " Title " + i);
+            r.setAuthor(prefix + " Author " + (i % 5_000));
+            r.setPublishDate(EPOCH.plusDays(i % 40_000));
+            r.setPrice(BigDecimal.valueOf(100 + i % 900, 0));
+            r.setBookType(i % 2 == 0 ? BookType.HARD_COVER : BookType.SOFT_COVER);
+            batch.add(r);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,66 @@
+package za.co.catalogue.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.catalogue.management.dto.BookExportResult;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.service.BookExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full catalogue export per format, plain and gzipped. Output goes to a stream that
+ * only counts bytes, so the time covers the cursor, serialisation and compression. The
+ * output size is printed once per trial; run with {@code -prof gc} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookExportBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    @Param({"CSV", "NDJSON"})
+    public BookFileFormat format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private BookExportService exportService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = Catalogue.start(rows);
+        exportService = context.getBean(BookExportService.class);
+        BookExportResult result = export();
+        System.out.printf("%n%s%s, %,d books: %,.1f MB of output%n",
+                format, gzip ? "+gzip" : "", result.getRows(), result.getBytes() / (double) (1 << 20));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookExportResult export() throws IOException {
+        return exportService.export(format, gzip, new NullOutputStream());
+    }
+
+    private static final class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package za.co.catalogue.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and the create path (dedupe lookup, then insert) on a seeded
+ * {@code book_data} table, migrated either to V1 only (ISBN index) or to the latest
+ * schema with the lookup indexes. Runs over plain JDBC, so only the database is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookIndexBenchmark {
+
+    private static final LocalDate EPOCH = LocalDate.of(1900, 1, 1);
+
+    private static final String BY_NAME = "SELECT id FROM book_data WHERE name = ?";
+    private static final String BY_AUTHOR = "SELECT id FROM book_data WHERE author = ?";
+    private static final String BY_DEDUPE_KEY =
+            "SELECT id FROM book_data WHERE name = ? AND author = ? AND publish_date = ?";
+    private static final String INSERT =
+            "INSERT INTO book_data (name, author, isbn, publish_date, price, book_type) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /** Flyway target: {@code 1} for the table with its ISBN index only. */
+    @Param({"1", "latest"})
+    public String schema;
+
+    @Param("1000000")
+    public int rows;
+
+    private int authors;
+    private Connection con;
+    private PreparedStatement byName;
+    private PreparedStatement byAuthor;
+    private PreparedStatement byDedupeKey;
+    private PreparedStatement insert;
+    /** Next book to create; beyond the seeded range, so the dedupe lookup misses as for a new book. */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        authors = Math.max(1, rows / 20);
+        String url = "jdbc:h2:mem:bench" + schema + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").target(schema)
+                .placeholders(Collections.singletonMap("isbn_prefix", "979"))
+                .load().migrate();
+        con = DriverManager.getConnection(url, "sa", "");
+        byName = con.prepareStatement(BY_NAME);
+        byAuthor = con.prepareStatement(BY_AUTHOR);
+        byDedupeKey = con.prepareStatement(BY_DEDUPE_KEY);
+        insert = con.prepareStatement(INSERT);
+
+        con.setAutoCommit(false);
+        for (int i = 0; i < rows; i++) {
+            bind(insert, i, "S");
+            insert.addBatch();
+            if (i % 10_000 == 9_999) {
+                insert.executeBatch();
+                con.commit();
+            }
+        }
+        insert.executeBatch();
+        con.commit();
+        con.setAutoCommit(true);
+        next = rows;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (PreparedStatement drop = con.prepareStatement("DROP ALL OBJECTS")) {
+            drop.execute();
+        }
+        con.close();
+    }
+
+    @Benchmark
+    public boolean findAllByName() throws SQLException {
+        byName.setString(1, name(random()));
+        return exists(byName);
+    }
+
+    @Benchmark
+    public boolean findAllByAuthor() throws SQLException {
+        byAuthor.setString(1, author(random()));
+        return exists(byAuthor);
+    }
+
+    @Benchmark
+    public boolean findByNameAndAuthorAndDate() throws SQLException {
+        return dedupeLookup(random());
+    }
+
+    @Benchmark
+    public boolean create() throws SQLException {
+        int i = next++;
+        if (dedupeLookup(i)) {
+            return false;
+        }
+        bind(insert, i, "N");
+        return insert.executeUpdate() == 1;
+    }
+
+    private boolean dedupeLookup(int i) throws SQLException {
+        byDedupeKey.setString(1, name(i));
+        byDedupeKey.setString(2, author(i));
+        byDedupeKey.setDate(3, Date.valueOf(publishDate(i)));
+        return exists(byDedupeKey);
+    }
+
+    private int random() {
+        return ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    private static boolean exists(PreparedStatement lookup) throws SQLException {
+        try (ResultSet rs = lookup.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private void bind(PreparedStatement ps, int i, String isbnPrefix) throws SQLException {
+        ps.setString(1, name(i));
+        ps.setString(2, author(i));
+        ps.setString(3, isbnPrefix + i);
+        ps.setDate(4, Date.valueOf(publishDate(i)));
+        ps.setBigDecimal(5, BigDecimal.valueOf(100 + i % 900, 0));
+        ps.setString(6, "HARD_COVER");
+    }
+
+    private static String name(int i) {
+        return "Title " + i;
+    }
+
+    private String author(int i) {
+        return "Author " + (i % authors);
+    }
+
+    private static LocalDate publishDate(int i) {
+        return EPOCH.plusDays(i % 40_000);
+    }
+}
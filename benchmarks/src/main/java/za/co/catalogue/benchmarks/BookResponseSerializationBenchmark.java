@@ -0,0 +1,52 @@
+package za.co.catalogue.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of {@link BookResponse} lists, as written by the list
+ * endpoints, with the mapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookResponseSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<BookResponse> books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        books = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            books.add(new BookResponse(Catalogue.isbn(i), "Title " + i, "Author " + i % Catalogue.AUTHORS,
+                    LocalDate.of(1900, 1, 1).plusDays(i % 40_000), BigDecimal.valueOf(10_000 + i % 90_000, 2),
+                    BookType.values()[i % BookType.values().length]));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(books);
+    }
+}
@@ -0,0 +1,105 @@
+package za.co.catalogue.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookFacetsResponse;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.service.BookService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-book operations of {@link BookService} through the Spring proxy, so
+ * transactions, change events, the search index and the ISBN cache are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    /** ISBNs read by {@link #getByIsbnCached}; far below the cache size. */
+    private static final int HOT_ISBNS = 100;
+
+    @Param("100000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private BookCreateRequest duplicate;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Catalogue.start(rows);
+        service = context.getBean(BookService.class);
+        // same name, author and publish date as seeded book 1
+        duplicate = request("Title 1", "Author 1", LocalDate.of(1900, 1, 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponse createNew() {
+        return service.create(request("Bench Title " + created.incrementAndGet(), "Bench Author", LocalDate.of(2020, 1, 1)));
+    }
+
+    @Benchmark
+    public BookResponse createDuplicate() {
+        return service.create(duplicate);
+    }
+
+    @Benchmark
+    public BookResponse getByIsbnCached() {
+        return service.getByIsbn(Catalogue.isbn(1 + ThreadLocalRandom.current().nextInt(HOT_ISBNS)));
+    }
+
+    @Benchmark
+    public BookResponse getByIsbnRandom() {
+        return service.getByIsbn(Catalogue.isbn(1 + ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public List<BookResponse> searchByName() {
+        return service.searchByName("Title " + (1 + ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    /** Each author has {@code rows / 1000} books. */
+    @Benchmark
+    public List<BookResponse> searchByAuthor() {
+        return service.searchByAuthor("Author " + ThreadLocalRandom.current().nextInt(Catalogue.AUTHORS));
+    }
+
+    /** Ranked prefix search; the number is a prefix of many seeded titles, e.g. 42, 420 and 4200. */
+    @Benchmark
+    public List<BookResponse> search() {
+        return service.search("title " + (1 + ThreadLocalRandom.current().nextInt(99)), 20);
+    }
+
+    @Benchmark
+    public BookFacetsResponse getFacets() {
+        return service.getFacets(20);
+    }
+
+    private static BookCreateRequest request(String name, String author, LocalDate publishDate) {
+        BookCreateRequest r = new BookCreateRequest();
+        r.setName(name);
+        r.setAuthor(author);
+        r.setPublishDate(publishDate);
+        r.setPrice(new BigDecimal("199.99"));
+        r.setBookType(BookType.HARD_COVER);
+        return r;
+    }
+}
@@ -0,0 +1,48 @@
+package za.co.catalogue.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import za.co.catalogue.management.ManagementServiceApplication;
+import za.co.catalogue.management.service.InMemoryIndexes;
+
+/**
+ * An in-process management service without the web layer, over an in-memory H2
+ * database seeded with synthetic books.
+ *
+ * <p>Seeded book {@code n} (1-based) has ISBN {@code B} + {@code n} padded to 12 digits,
+ * name {@code Title n} and author {@code Author (n mod 1000)}. Rows are inserted with
+ * one {@code INSERT ... SELECT} once the service has started, so the search index and
+ * facet summary it built at startup are reloaded afterwards. The ISBN cache is
+ * read-through and starts empty either way.
+ */
+final class Catalogue {
+
+    static final int AUTHORS = 1000;
+
+    private Catalogue() {
+    }
+
+    static ConfigurableApplicationContext start(int rows) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO book_data (isbn, name, author, publish_date, price, book_type)"
+                        + " SELECT 'B' || LPAD(X, 12, '0'), 'Title ' || X, 'Author ' || MOD(X, " + AUTHORS + "),"
+                        + " DATEADD('DAY', MOD(X, 40000), DATE '1900-01-01'), 100 + MOD(X, 900),"
+                        + " CASE MOD(X, 3) WHEN 0 THEN 'HARD_COVER' WHEN 1 THEN 'SOFT_COVER' ELSE 'EBOOK' END"
+                        + " FROM SYSTEM_RANGE(1, ?)", rows);
+        InMemoryIndexes.reload(context);
+        return context;
+    }
+
+    static String isbn(long n) {
+        return String.format("B%012d", n);
+    }
+}
@@ -0,0 +1,137 @@
+package za.co.catalogue.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+import za.co.catalogue.management.ManagementServiceApplication;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+import za.co.catalogue.management.service.BookService;
+import za.co.catalogue.management.service.InMemoryIndexes;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default in-memory database against the {@code file} profile: batched inserts
+ * ({@link #insertBatch}, in rows), single-book commits through {@link BookService#create}
+ * and a restart over a catalogue of {@code rows} books ({@link #restart}: shutdown, then
+ * Flyway, opening the store and loading the search index). The in-memory restart comes
+ * back with only the demo books, the file-backed one with everything written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistenceModeBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final LocalDate EPOCH = LocalDate.of(1900, 1, 1);
+
+    @Param({"memory", "file"})
+    public String mode;
+
+    @Param("500000")
+    public int rows;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private final AtomicLong written = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("catalogue-bench");
+        context = start();
+        BookJdbcRepository jdbcRepo = context.getBean(BookJdbcRepository.class);
+        for (int from = 0; from < rows; from += BATCH) {
+            jdbcRepo.insertAll(batch(Math.min(BATCH, rows - from)), 1_000);
+        }
+        InMemoryIndexes.reload(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        stop();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() {
+        context.getBean(BookJdbcRepository.class).insertAll(batch(BATCH), 1_000);
+    }
+
+    @Benchmark
+    public BookResponse create() {
+        BookCreateRequest r = new BookCreateRequest();
+        long n = written.incrementAndGet();
+        r.setName("Single " + n);
+        r.setAuthor("Single Author");
+        r.setPublishDate(EPOCH.plusDays(n % 40_000));
+        r.setPrice(BigDecimal.TEN);
+        r.setBookType(BookType.EBOOK);
+        return context.getBean(BookService.class).create(r);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public long restart() {
+        stop();
+        context = start();
+        return context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM book_data", Long.class);
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(mode.equals("file") ? "file" : "default")
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "app.books.data-dir=" + dataDir.toAbsolutePath().toString().replace('\\', '/'))
+                .run();
+    }
+
+    private void stop() {
+        if (mode.equals("memory")) {
+            // DB_CLOSE_DELAY=-1 keeps the in-memory database for the life of the JVM; drop it like a restart would
+            context.getBean(JdbcTemplate.class).execute("SHUTDOWN");
+        }
+        context.close();
+    }
+
+    private List<Book> batch(int size) {
+        List<Book> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long n = written.incrementAndGet();
+            Book b = new Book();
+            b.setIsbn(String.format("P%012d", n));
+            b.setName("Title " + n);
+            b.setAuthor("Author " + n % 5_000);
+            b.setPublishDate(EPOCH.plusDays(n % 40_000));
+            b.setPrice(BigDecimal.valueOf(100 + n % 90_000, 2));
+            b.setBookType(BookType.values()[(int) (n % BookType.values().length)]);
+            batch.add(b);
+        }
+        return batch;
+    }
+}
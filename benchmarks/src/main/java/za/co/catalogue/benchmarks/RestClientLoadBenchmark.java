@@ -0,0 +1,100 @@
+package za.co.catalogue.benchmarks;
+
+import com.catalogue.web.config.ManagementWireFormat;
+import com.catalogue.web.config.RestClientConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The web service's management-service client against a stub that answers after a
+ * fixed latency: the default HttpClient (2 connections per route) and the pooled one
+ * built by {@link RestClientConfig}. Runs with 16 threads; pass {@code -t} to see how
+ * each scales with concurrency, e.g. {@code -Djmh.args="RestClientLoadBenchmark -t 32"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RestClientLoadBenchmark {
+
+    private static final byte[] BODY = "{\"isbn\":\"9780000000001\",\"name\":\"Stub\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"default", "pooled"})
+    public String client;
+
+    @Param("20")
+    public int latencyMillis;
+
+    private HttpServer server;
+    private CloseableHttpClient http;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/books", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(128));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/api/books/?isbn=9780000000001";
+
+        if (client.equals("pooled")) {
+            RestClientConfig config = new RestClientConfig();
+            PoolingHttpClientConnectionManager pool = config.managementConnectionManager(100, 50, Duration.ofSeconds(2));
+            http = config.managementHttpClient(pool, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                    Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30), true);
+            restTemplate = config.restTemplate(new RestTemplateBuilder(), http,
+                    new ManagementWireFormat("json", new ObjectMapper(), Jackson2ObjectMapperBuilder.json()),
+                    "admin", "admin123");
+        } else {
+            http = HttpClients.createDefault();
+            restTemplate = new RestTemplateBuilder()
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(http))
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        http.close();
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Benchmark
+    public String get() {
+        return restTemplate.getForObject(url, String.class);
+    }
+}
@@ -0,0 +1,104 @@
+package za.co.catalogue.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.model.BookType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link BookResponse} lists between the services in each wire format: JSON or Smile,
+ * plain or gzipped. {@code write} is the management service's side (serialise, then
+ * compress), {@code read} the web service's (decompress, then parse into its own book
+ * class). The bytes on the wire are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WireFormatBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"json", "json+gzip", "smile", "smile+gzip"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private boolean gzip;
+    private List<BookResponse> books;
+    private JavaType wireBooks;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (format.startsWith("smile")) {
+            // as the management service's Smile converter writes it
+            builder.factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build());
+        }
+        mapper = builder.build();
+        gzip = format.endsWith("+gzip");
+        wireBooks = mapper.getTypeFactory().constructCollectionType(List.class, WireBook.class);
+
+        books = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            books.add(new BookResponse(Catalogue.isbn(i), "Title " + i, "Author " + i % Catalogue.AUTHORS,
+                    LocalDate.of(1900, 1, 1).plusDays(i % 40_000), BigDecimal.valueOf(10_000 + i % 90_000, 2),
+                    BookType.values()[i % BookType.values().length], (long) i % 7));
+        }
+        encoded = write();
+        System.out.printf("%n%s, %d books: %,d bytes on the wire (%.1f per book)%n",
+                format, size, encoded.length, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoded == null ? 1 << 16 : encoded.length);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            mapper.writeValue(out, books);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<WireBook> read() throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        try (InputStream body = gzip ? new GZIPInputStream(in, 8192) : in) {
+            return mapper.readValue(body, wireBooks);
+        }
+    }
+
+    /**
+     * The web service's view of a book: same fields, the type as text.
+     */
+    public static class WireBook {
+        public String isbn;
+        public String name;
+        public String author;
+        public LocalDate publishDate;
+        public BigDecimal price;
+        public String bookType;
+        public Long version;
+    }
+}
@@ -0,0 +1,67 @@
+package za.co.catalogue.management.service;
+
+import org.openjdk.jmh.annotations.*;
+import za.co.catalogue.management.model.Book;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookSearchIndex#search} over a synthetic catalogue of two-word titles and
+ * surname-plus-initial authors, for short prefixes, multi-word and mixed name/author
+ * queries. The index is filled directly, without a database. Lives in the service
+ * package because the index is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BookSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "alchemist", "habit", "power", "clean", "code", "country", "freedom", "crime", "walk", "river",
+            "shadow", "garden", "empire", "winter", "silent", "golden", "secret", "journey", "kingdom", "ocean",
+            "history", "mountain", "stranger", "memory", "island", "thunder", "harvest", "mirror", "forest", "desert"
+    };
+    private static final String[] SURNAMES = {
+            "coelho", "achebe", "paton", "mandela", "noah", "obama", "duhigg", "clear", "martin", "newport",
+            "covey", "manson", "goggins", "herbert", "orwell", "fitzgerald", "morrison", "tolkien", "austen", "dickens"
+    };
+
+    @Param("1000000")
+    public int rows;
+
+    @Param("5000")
+    public int maxCandidates;
+
+    @Param({"alch", "habit power", "gol", "s", "kingdom tolk", "orwell", "mirror for 42"})
+    public String query;
+
+    private BookSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        // the repository is only used by load()
+        index = new BookSearchIndex(null, 500, maxCandidates);
+        for (int i = 1; i <= rows; i++) {
+            Book b = new Book();
+            b.setId((long) i);
+            b.setName(word(random) + " " + word(random) + " " + (i % 997));
+            b.setAuthor(SURNAMES[random.nextInt(SURNAMES.length)] + " " + (char) ('a' + random.nextInt(26)) + (i % 5000));
+            index.add(b);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
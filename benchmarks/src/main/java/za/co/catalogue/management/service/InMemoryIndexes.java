@@ -0,0 +1,20 @@
+package za.co.catalogue.management.service;
+
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Rebuilds the search index and the facet summary of a running management service.
+ * Both are loaded once at startup and then follow changes made through the service, so
+ * rows written directly to the database afterwards are missing until this is called.
+ * Lives in the service package because both are package-private.
+ */
+public final class InMemoryIndexes {
+
+    private InMemoryIndexes() {
+    }
+
+    public static void reload(ApplicationContext context) {
+        context.getBean(BookSearchIndex.class).load();
+        context.getBean(BookFacets.class).load();
+    }
+}
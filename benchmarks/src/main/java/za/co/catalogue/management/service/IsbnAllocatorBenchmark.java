@@ -0,0 +1,50 @@
+package za.co.catalogue.management.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import za.co.catalogue.management.ManagementServiceApplication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IsbnAllocator#next()}, including the serial reservation round trip once per block.
+ * Lives in the service package because the allocator is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsbnAllocatorBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private IsbnAllocator allocator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ManagementServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        allocator = context.getBean(IsbnAllocator.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String next() {
+        return allocator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextContended() {
+        return allocator.next();
+    }
+}
@@ -0,0 +1,43 @@
+package za.co.catalogue.loadtest;
+
+import java.io.IOException;
+
+/**
+ * Drives the management REST API directly, with the requests of the Postman collection.
+ */
+final class ApiTraffic implements Traffic {
+
+    private final ManagementClient api;
+    private final RequestTemplates requests;
+    private final IsbnPool isbns;
+
+    ApiTraffic(ManagementClient api, RequestTemplates requests, IsbnPool isbns) {
+        this.api = api;
+        this.requests = requests;
+        this.isbns = isbns;
+    }
+
+    @Override
+    public void execute(Operation operation) throws IOException {
+        RequestTemplates.Template template = requests.get(operation);
+        switch (operation) {
+            case LIST:
+                api.send(template.method, template.path, null, 200);
+                break;
+            case LOOKUP:
+                api.send(template.method, requests.path(operation, isbns.pick()), null, 200);
+                break;
+            case CREATE:
+                isbns.add(api.isbnOf(api.send(template.method, template.path, requests.newBook(), 201)));
+                break;
+            case UPDATE:
+                api.send(template.method, requests.path(operation, isbns.pick()), requests.body(operation), 200);
+                break;
+            case DELETE:
+                api.send(template.method, requests.path(operation, isbns.take()), null, 204);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package za.co.catalogue.loadtest;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+final class HttpSupport {
+
+    private HttpSupport() {
+    }
+
+    /**
+     * A keep-alive client with one pooled connection per caller thread. Redirects are
+     * not followed (the web service answers form posts with 302) and failed requests
+     * are not retried, so every measured request is exactly one exchange.
+     */
+    static CloseableHttpClient client(int connections) {
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(connections);
+        pool.setDefaultMaxPerRoute(connections);
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(5_000)
+                        .setSocketTimeout(60_000)
+                        .build())
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    /**
+     * Sends the request and reads the whole response body.
+     *
+     * @return the response body
+     * @throws RequestFailedException if the status is not the expected one
+     */
+    static String execute(CloseableHttpClient http, HttpUriRequest request, int expectedStatus) throws IOException {
+        try (CloseableHttpResponse response = http.execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            String body = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (status != expectedStatus) {
+                throw new RequestFailedException("HTTP " + status);
+            }
+            return body;
+        }
+    }
+}
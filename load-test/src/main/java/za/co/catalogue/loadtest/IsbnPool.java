@@ -0,0 +1,55 @@
+package za.co.catalogue.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ISBNs of books that exist in the catalogue under test. Creates add to the pool and
+ * deletes remove from it before the request is sent, so lookups and updates rarely
+ * race with a delete of the same book.
+ */
+final class IsbnPool {
+
+    private final List<String> isbns = new ArrayList<>();
+
+    synchronized void addAll(Collection<String> values) {
+        isbns.addAll(values);
+    }
+
+    synchronized void add(String isbn) {
+        isbns.add(isbn);
+    }
+
+    /**
+     * @return a random ISBN, left in the pool
+     * @throws RequestFailedException if the pool is empty
+     */
+    synchronized String pick() {
+        if (isbns.isEmpty()) {
+            throw new RequestFailedException("no books left");
+        }
+        return isbns.get(ThreadLocalRandom.current().nextInt(isbns.size()));
+    }
+
+    /**
+     * @return a random ISBN, removed from the pool
+     * @throws RequestFailedException if the pool is empty
+     */
+    synchronized String take() {
+        if (isbns.isEmpty()) {
+            throw new RequestFailedException("no books left");
+        }
+        int i = ThreadLocalRandom.current().nextInt(isbns.size());
+        String isbn = isbns.get(i);
+        // swap with the last element so removal is O(1)
+        isbns.set(i, isbns.get(isbns.size() - 1));
+        isbns.remove(isbns.size() - 1);
+        return isbn;
+    }
+
+    synchronized int size() {
+        return isbns.size();
+    }
+}
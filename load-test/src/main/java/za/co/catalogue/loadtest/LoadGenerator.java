@@ -0,0 +1,152 @@
+package za.co.catalogue.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs worker threads that send a weighted random mix of operations and records the
+ * latency of every request, in microseconds, in one HdrHistogram per operation.
+ *
+ * <p>Without a target rate each worker sends its next request as soon as the previous
+ * one completes (closed loop). With a rate, requests are scheduled at fixed intervals
+ * and latency is measured from the scheduled start, so time spent queued behind a slow
+ * request counts against the service instead of being silently omitted.
+ */
+final class LoadGenerator {
+
+    private final Traffic traffic;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int threads;
+    private final double rate;
+
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, LongAdder>> errors = new EnumMap<>(Operation.class);
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    /**
+     * @param mix relative weight per operation; operations with weight 0 are never sent
+     * @param rate total requests per second across all threads, or 0 for a closed loop
+     */
+    LoadGenerator(Traffic traffic, Map<Operation, Integer> mix, int threads, double rate) {
+        this.traffic = traffic;
+        this.threads = threads;
+        this.rate = rate;
+        List<Operation> ops = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                ops.add(entry.getKey());
+                weights.add(total);
+            }
+        }
+        if (ops.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix has no operation with a positive weight");
+        }
+        this.operations = ops.toArray(new Operation[0]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+        for (Operation operation : operations) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Runs the warm-up, discards what it recorded, then measures for the given duration.
+     */
+    LoadReport run(Duration warmup, Duration duration) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        Thread.sleep(warmup.toMillis());
+        for (Recorder recorder : latencies.values()) {
+            recorder.getIntervalHistogram();
+        }
+        measuring = true;
+        long started = System.nanoTime();
+
+        Thread.sleep(duration.toMillis());
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            histograms.put(operation, latencies.get(operation).getIntervalHistogram());
+        }
+        measuring = false;
+        long elapsed = System.nanoTime() - started;
+
+        stopped = true;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        Map<Operation, Map<String, Long>> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            Map<String, Long> counts = new TreeMap<>();
+            errors.get(operation).forEach((reason, count) -> counts.put(reason, count.sum()));
+            errorCounts.put(operation, counts);
+        }
+        return new LoadReport(histograms, errorCounts, elapsed / 1e9);
+    }
+
+    private void work() {
+        long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+        // spread the first requests of the workers over one interval
+        long next = System.nanoTime() + (interval > 0 ? ThreadLocalRandom.current().nextLong(interval) : 0);
+        while (!stopped) {
+            long start;
+            if (interval > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = next;
+                next += interval;
+            } else {
+                start = System.nanoTime();
+            }
+            Operation operation = pick();
+            String error = null;
+            try {
+                traffic.execute(operation);
+            } catch (RequestFailedException e) {
+                error = e.getMessage();
+            } catch (Exception e) {
+                error = e.getClass().getSimpleName();
+            }
+            long micros = (System.nanoTime() - start) / 1_000;
+            latencies.get(operation).recordValue(Math.max(micros, 1));
+            if (error != null && measuring) {
+                errors.get(operation).computeIfAbsent(error, k -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,95 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput, latency percentiles and errors of a measured run, per operation and in
+ * total. Latencies are recorded in microseconds and reported in milliseconds.
+ */
+final class LoadReport {
+
+    static final String TOTAL = "TOTAL";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> errors = new LinkedHashMap<>();
+    private final double seconds;
+
+    LoadReport(Map<Operation, Histogram> byOperation, Map<Operation, Map<String, Long>> errorsByOperation, double seconds) {
+        this.seconds = seconds;
+        Histogram total = new Histogram(3);
+        Map<String, Long> totalErrors = new LinkedHashMap<>();
+        byOperation.forEach((operation, histogram) -> {
+            histograms.put(operation.name(), histogram);
+            errors.put(operation.name(), errorsByOperation.get(operation));
+            total.add(histogram);
+            errorsByOperation.get(operation).forEach((reason, count) -> totalErrors.merge(reason, count, Long::sum));
+        });
+        histograms.put(TOTAL, total);
+        errors.put(TOTAL, totalErrors);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-8s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+                "", "requests", "errors", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((name, h) -> {
+            out.printf(Locale.ROOT, "%-8s %10d %8d %10.1f %9.2f", name, h.getTotalCount(), errorCount(name),
+                    h.getTotalCount() / seconds, h.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                out.printf(Locale.ROOT, " %9.2f", h.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(Locale.ROOT, " %9.2f%n", h.getMaxValue() / 1000.0);
+        });
+        errors.forEach((name, reasons) -> {
+            if (!name.equals(TOTAL) && !reasons.isEmpty()) {
+                out.printf("%s errors: %s%n", name, reasons);
+            }
+        });
+    }
+
+    /**
+     * Writes {@code report.json} with the settings and the summary, and one
+     * {@code <operation>.hgrm} percentile distribution per operation for plotting.
+     */
+    void write(Path dir, Map<String, Object> settings, ObjectMapper mapper) throws IOException {
+        Files.createDirectories(dir);
+        ObjectNode report = mapper.createObjectNode();
+        report.set("settings", mapper.valueToTree(settings));
+        report.put("seconds", seconds);
+        ObjectNode results = report.putObject("results");
+        histograms.forEach((name, h) -> {
+            ObjectNode result = results.putObject(name);
+            result.put("requests", h.getTotalCount());
+            result.put("errors", errorCount(name));
+            result.put("throughput", h.getTotalCount() / seconds);
+            result.put("meanMillis", h.getMean() / 1000.0);
+            ObjectNode percentiles = result.putObject("percentileMillis");
+            for (double percentile : PERCENTILES) {
+                percentiles.put(String.valueOf(percentile), h.getValueAtPercentile(percentile) / 1000.0);
+            }
+            result.put("maxMillis", h.getMaxValue() / 1000.0);
+            result.set("errorReasons", mapper.valueToTree(errors.get(name)));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(name.toLowerCase(Locale.ROOT) + ".hgrm")))) {
+                h.outputPercentileDistribution(out, 1000.0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        mapper.writerWithDefaultPrettyPrinter().writeValue(dir.resolve("report.json").toFile(), report);
+    }
+
+    private long errorCount(String name) {
+        return errors.get(name).values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,139 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the services on localhost, seeds the catalogue, replays a mix of list,
+ * lookup, create, update and delete requests and reports throughput and latency
+ * percentiles. Everything runs on this machine; nothing is downloaded.
+ *
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -pl load-test exec:exec -Dload.args="--mode=stub --threads=32 --duration=PT2M"
+ * </pre>
+ *
+ * <p>See {@link LoadTestOptions#USAGE} for the options.
+ */
+public final class LoadTestMain {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final int SEED_BATCH = 1000;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        run(options);
+    }
+
+    static void run(LoadTestOptions options) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        RequestTemplates requests = RequestTemplates.load(options.collection, mapper);
+        List<AutoCloseable> started = new ArrayList<>();
+        Thread cleanup = new Thread(() -> closeAll(started));
+        Runtime.getRuntime().addShutdownHook(cleanup);
+        try (CloseableHttpClient http = HttpSupport.client(options.threads + 2)) {
+            String backendUrl = startBackend(options, mapper, started);
+            ManagementClient backend = new ManagementClient(http, backendUrl, options.username, options.password, mapper);
+
+            IsbnPool isbns = new IsbnPool();
+            System.out.printf("Seeding %d books%n", options.books);
+            for (int seeded = 0; seeded < options.books; seeded += SEED_BATCH) {
+                List<ObjectNode> batch = new ArrayList<>();
+                for (int i = seeded; i < Math.min(options.books, seeded + SEED_BATCH); i++) {
+                    batch.add(requests.newBook());
+                }
+                isbns.addAll(backend.createAll(batch));
+            }
+
+            Traffic traffic;
+            if (options.target == LoadTestOptions.Target.WEB) {
+                String webUrl = startWeb(options, backendUrl, started);
+                traffic = new WebTraffic(http, webUrl, backend, requests, isbns);
+            } else {
+                traffic = new ApiTraffic(backend, requests, isbns);
+            }
+            started.add(traffic);
+
+            System.out.printf("Running %s traffic against %s, %d threads, %s, warm-up %s, measured %s, requests from %s%n",
+                    options.target, options.mode == LoadTestOptions.Mode.STUB ? "the web service and a stub" : "the services",
+                    options.threads, options.rate > 0 ? options.rate + " req/s" : "closed loop",
+                    options.warmup, options.duration, requests.source());
+            LoadReport report = new LoadGenerator(traffic, options.mix, options.threads, options.rate)
+                    .run(options.warmup, options.duration);
+            report.print(System.out);
+            report.write(options.output, options.describe(requests.source()), mapper);
+            System.out.printf("%nReport written to %s%n", options.output.resolve("report.json"));
+        } finally {
+            closeAll(started);
+            Runtime.getRuntime().removeShutdownHook(cleanup);
+        }
+    }
+
+    /** @return the base URL of the management service or its stub */
+    private static String startBackend(LoadTestOptions options, ObjectMapper mapper, List<AutoCloseable> started) throws Exception {
+        if (options.mode == LoadTestOptions.Mode.STUB) {
+            StubManagementService stub = new StubManagementService(options.managementPort, options.stubLatency, mapper);
+            started.add(stub);
+            return stub.url();
+        }
+        List<String> args = new ArrayList<>(Arrays.asList("--server.port=" + options.managementPort));
+        args.addAll(options.managementArgs);
+        ServiceProcess management = ServiceProcess.start("management-service", options.managementJar,
+                options.output.toAbsolutePath(), options.serviceJvmArgs, args, options.output.resolve("management-service.log"));
+        started.add(management);
+        String url = "http://localhost:" + options.managementPort;
+        System.out.printf("Starting %s%n", management);
+        management.awaitReady(url + "/api/books/all", STARTUP_TIMEOUT);
+        return url;
+    }
+
+    /** @return the base URL of the web service */
+    private static String startWeb(LoadTestOptions options, String backendUrl, List<AutoCloseable> started) throws Exception {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--server.port=" + options.webPort,
+                "--management.service.url=" + backendUrl + "/api/books",
+                "--management.service.username=" + options.username,
+                "--management.service.password=" + options.password));
+        args.addAll(options.webArgs);
+        ServiceProcess web = ServiceProcess.start("web-service", options.webJar, options.webDir,
+                options.serviceJvmArgs, args, options.output.resolve("web-service.log"));
+        started.add(web);
+        String url = "http://localhost:" + options.webPort;
+        System.out.printf("Starting %s%n", web);
+        web.awaitReady(url + "/actuator/health", STARTUP_TIMEOUT);
+        return url;
+    }
+
+    private static synchronized void closeAll(List<AutoCloseable> started) {
+        for (int i = started.size() - 1; i >= 0; i--) {
+            try {
+                started.get(i).close();
+            } catch (Exception e) {
+                System.err.printf("Could not stop %s: %s%n", started.get(i), e);
+            }
+        }
+        started.clear();
+    }
+}
@@ -0,0 +1,159 @@
+package za.co.catalogue.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Durations are ISO-8601
+ * ({@code PT90S}) or plain seconds.
+ */
+final class LoadTestOptions {
+
+    enum Mode {
+        /** management service from its jar, with its in-memory database */
+        FULL,
+        /** {@link StubManagementService} in this JVM instead of the management service */
+        STUB
+    }
+
+    enum Target {
+        /** the web service's pages and forms */
+        WEB,
+        /** the management REST API directly; needs {@link Mode#FULL} */
+        API
+    }
+
+    static final String USAGE = String.join("\n",
+            "Options (--name=value):",
+            "  --mode=full|stub            full starts the management service, stub replaces it (full)",
+            "  --target=web|api            drive the web service or the management API (web)",
+            "  --threads=N                 concurrent clients (16)",
+            "  --rate=N                    total requests/s, 0 for a closed loop (0)",
+            "  --warmup=PT15S              not measured",
+            "  --duration=PT60S            measured",
+            "  --mix=list:10,lookup:50,create:15,update:15,delete:10",
+            "  --books=N                   books created before the run (1000)",
+            "  --stub-latency=PT0S         added to every stub response",
+            "  --management-port=18081 --web-port=18082",
+            "  --management-jar=PATH --web-jar=PATH --web-dir=PATH",
+            "  --collection=PATH           Postman collection with the request templates",
+            "  --username=admin --password=admin123",
+            "  --service-jvm-args=\"-Xmx512m\" --management-args=\"...\" --web-args=\"...\"",
+            "  --output=target/load-test   report.json and one .hgrm file per operation");
+
+    Mode mode = Mode.FULL;
+    Target target = Target.WEB;
+    int threads = 16;
+    double rate;
+    Duration warmup = Duration.ofSeconds(15);
+    Duration duration = Duration.ofSeconds(60);
+    Map<Operation, Integer> mix = parseMix("list:10,lookup:50,create:15,update:15,delete:10");
+    int books = 1000;
+    Duration stubLatency = Duration.ZERO;
+    int managementPort = 18081;
+    int webPort = 18082;
+    Path managementJar = Paths.get("../management-service/target/management-service-1.0-SNAPSHOT-exec.jar");
+    Path webJar = Paths.get("../web-service/target/web-service-1.0-SNAPSHOT-exec.jar");
+    Path webDir = Paths.get("../web-service");
+    Path collection = Paths.get("../Book Catalogue Management Service.postman_collection.json");
+    String username = "admin";
+    String password = "admin123";
+    List<String> serviceJvmArgs = split("-Xmx512m");
+    List<String> managementArgs = new ArrayList<>();
+    List<String> webArgs = new ArrayList<>();
+    Path output = Paths.get("target/load-test");
+    boolean help;
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                options.help = true;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            options.set(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        if (options.mode == Mode.STUB && options.target == Target.API) {
+            throw new IllegalArgumentException("--target=api needs --mode=full; there is nothing to measure behind the stub");
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "mode": mode = Mode.valueOf(value.toUpperCase(Locale.ROOT)); break;
+            case "target": target = Target.valueOf(value.toUpperCase(Locale.ROOT)); break;
+            case "threads": threads = Integer.parseInt(value); break;
+            case "rate": rate = Double.parseDouble(value); break;
+            case "warmup": warmup = duration(value); break;
+            case "duration": duration = duration(value); break;
+            case "mix": mix = parseMix(value); break;
+            case "books": books = Integer.parseInt(value); break;
+            case "stub-latency": stubLatency = duration(value); break;
+            case "management-port": managementPort = Integer.parseInt(value); break;
+            case "web-port": webPort = Integer.parseInt(value); break;
+            case "management-jar": managementJar = Paths.get(value); break;
+            case "web-jar": webJar = Paths.get(value); break;
+            case "web-dir": webDir = Paths.get(value); break;
+            case "collection": collection = Paths.get(value); break;
+            case "username": username = value; break;
+            case "password": password = value; break;
+            case "service-jvm-args": serviceJvmArgs = split(value); break;
+            case "management-args": managementArgs = split(value); break;
+            case "web-args": webArgs = split(value); break;
+            case "output": output = Paths.get(value); break;
+            default: throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    /** Values recorded with the results. */
+    Map<String, Object> describe(String requestSource) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("mode", mode);
+        settings.put("target", target);
+        settings.put("threads", threads);
+        settings.put("rate", rate);
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        settings.put("mix", mix);
+        settings.put("books", books);
+        if (mode == Mode.STUB) {
+            settings.put("stubLatency", stubLatency.toString());
+        }
+        settings.put("serviceJvmArgs", serviceJvmArgs);
+        settings.put("requests", requestSource);
+        return settings;
+    }
+
+    private static Duration duration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix but got '" + entry + "'");
+            }
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static List<String> split(String value) {
+        return value.trim().isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(value.trim().split("\\s+")));
+    }
+}
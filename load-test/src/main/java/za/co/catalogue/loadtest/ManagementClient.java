@@ -0,0 +1,82 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * JSON calls to the management API, or to the stub standing in for it.
+ */
+final class ManagementClient {
+
+    private final CloseableHttpClient http;
+    private final String baseUrl;
+    private final String authorization;
+    private final ObjectMapper mapper;
+
+    ManagementClient(CloseableHttpClient http, String baseUrl, String username, String password, ObjectMapper mapper) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param path path and query below the service root, e.g. {@code /api/books/all}
+     * @param body JSON body, or null
+     * @return the response body
+     * @throws RequestFailedException if the status is not the expected one
+     */
+    String send(String method, String path, JsonNode body, int expectedStatus) throws IOException {
+        RequestBuilder request = RequestBuilder.create(method)
+                .setUri(baseUrl + path)
+                .setHeader(HttpHeaders.AUTHORIZATION, authorization)
+                .setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+        if (body != null) {
+            request.setEntity(new StringEntity(mapper.writeValueAsString(body), ContentType.APPLICATION_JSON));
+        }
+        return HttpSupport.execute(http, request.build(), expectedStatus);
+    }
+
+    /**
+     * Creates books through {@code POST /api/books/batch}.
+     *
+     * @return the ISBNs of the created books
+     */
+    List<String> createAll(List<ObjectNode> books) throws IOException {
+        JsonNode response = mapper.readTree(send("POST", "/api/books/batch", mapper.valueToTree(books), 200));
+        List<String> isbns = new ArrayList<>(books.size());
+        for (JsonNode item : response.path("items")) {
+            if (item.path("book").has("isbn")) {
+                isbns.add(item.path("book").path("isbn").asText());
+            }
+        }
+        return isbns;
+    }
+
+    /**
+     * @return the ISBN of the book with this exact name, or null if there is none
+     */
+    String findIsbn(String name) throws IOException {
+        JsonNode books = mapper.readTree(send("GET",
+                "/api/books/search?name=" + URLEncoder.encode(name, "UTF-8"), null, 200));
+        return books.size() == 0 ? null : books.get(0).path("isbn").asText();
+    }
+
+    String isbnOf(String createResponse) throws IOException {
+        return mapper.readTree(createResponse).path("isbn").asText();
+    }
+}
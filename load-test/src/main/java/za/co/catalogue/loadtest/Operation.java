@@ -0,0 +1,13 @@
+package za.co.catalogue.loadtest;
+
+/**
+ * Kinds of request in the traffic mix. Lookups, updates and deletes act on books
+ * known to exist, taken from the {@link IsbnPool}.
+ */
+enum Operation {
+    LIST,
+    LOOKUP,
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,12 @@
+package za.co.catalogue.loadtest;
+
+/**
+ * A request completed but not as expected, e.g. with an unexpected status code.
+ * The message is used as the error category in the report, so keep it free of ids.
+ */
+class RequestFailedException extends RuntimeException {
+
+    RequestFailedException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,157 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Management API request per operation: method, path with an {@code {isbn}} placeholder
+ * and, for creates and updates, a JSON body.
+ *
+ * <p>Read from the repository's Postman collection when it is available, so the load
+ * test sends the same requests as the documented examples; requests that do not map
+ * to an operation (search, batch) are ignored and missing ones fall back to built-in
+ * equivalents of the collection's examples.
+ */
+final class RequestTemplates {
+
+    static final String ISBN = "{isbn}";
+
+    static final class Template {
+        final String method;
+        final String path;
+        final ObjectNode body;
+
+        Template(String method, String path, ObjectNode body) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+    }
+
+    private final Map<Operation, Template> templates;
+    private final String source;
+    private final AtomicLong books = new AtomicLong();
+
+    private RequestTemplates(Map<Operation, Template> templates, String source) {
+        this.templates = templates;
+        this.source = source;
+    }
+
+    /**
+     * @param collection a Postman v2 collection, or a path that does not exist to use the built-in requests
+     */
+    static RequestTemplates load(Path collection, ObjectMapper mapper) {
+        Map<Operation, Template> templates = defaults(mapper);
+        if (collection == null || !Files.isRegularFile(collection)) {
+            return new RequestTemplates(templates, "built-in requests");
+        }
+        try {
+            collect(mapper.readTree(collection.toFile()).path("item"), templates, mapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Postman collection " + collection, e);
+        }
+        return new RequestTemplates(templates, collection.getFileName().toString());
+    }
+
+    Template get(Operation operation) {
+        return templates.get(operation);
+    }
+
+    String path(Operation operation, String isbn) {
+        return templates.get(operation).path.replace(ISBN, isbn);
+    }
+
+    /** @return a copy of the operation's body that the caller may modify */
+    ObjectNode body(Operation operation) {
+        return templates.get(operation).body.deepCopy();
+    }
+
+    /**
+     * @return the create body with a numbered name, so that every create inserts a new
+     *         book instead of updating an existing one
+     */
+    ObjectNode newBook() {
+        ObjectNode body = body(Operation.CREATE);
+        body.put("name", body.path("name").asText() + " #" + books.incrementAndGet());
+        return body;
+    }
+
+    String source() {
+        return source;
+    }
+
+    private static void collect(JsonNode items, Map<Operation, Template> templates, ObjectMapper mapper) throws IOException {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.get("item"), templates, mapper);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            String method = request.path("method").asText();
+            JsonNode url = request.path("url");
+            String raw = url.isObject() ? url.path("raw").asText() : url.asText();
+            // drop scheme and host, or a {{baseUrl}} style variable
+            String target = raw.replaceFirst("^(\\{\\{[^}]*}}|[a-zA-Z]+://[^/]+)", "");
+            String rawBody = request.path("body").path("raw").asText("");
+            ObjectNode body = rawBody.trim().isEmpty() ? null : (ObjectNode) mapper.readTree(rawBody);
+
+            Operation operation = classify(method, target);
+            if (operation == null) {
+                continue;
+            }
+            if (operation == Operation.LOOKUP) {
+                target = target.replaceFirst("isbn=[^&]*", "isbn=" + ISBN);
+            } else if (operation == Operation.UPDATE || operation == Operation.DELETE) {
+                target = target.substring(0, target.lastIndexOf('/') + 1) + ISBN;
+            }
+            templates.put(operation, new Template(method, target, body != null ? body : templates.get(operation).body));
+        }
+    }
+
+    private static Operation classify(String method, String target) {
+        String path = target.contains("?") ? target.substring(0, target.indexOf('?')) : target;
+        switch (method) {
+            case "GET":
+                if (path.endsWith("/all")) return Operation.LIST;
+                if (target.contains("isbn=")) return Operation.LOOKUP;
+                return null;
+            case "POST":
+                return path.endsWith("/batch") ? null : Operation.CREATE;
+            case "PATCH":
+                return Operation.UPDATE;
+            case "DELETE":
+                return Operation.DELETE;
+            default:
+                return null;
+        }
+    }
+
+    private static Map<Operation, Template> defaults(ObjectMapper mapper) {
+        Map<Operation, Template> templates = new EnumMap<>(Operation.class);
+        ObjectNode create = mapper.createObjectNode()
+                .put("name", "Clean Architecture")
+                .put("author", "Robert C. Martin")
+                .put("publishDate", "2017-09-20")
+                .put("price", 599.99)
+                .put("bookType", "EBOOK");
+        ObjectNode update = mapper.createObjectNode()
+                .put("publishDate", "2018-09-20")
+                .put("price", 599.99)
+                .put("bookType", "HARD_COVER");
+        templates.put(Operation.LIST, new Template("GET", "/api/books/all", null));
+        templates.put(Operation.LOOKUP, new Template("GET", "/api/books/?isbn=" + ISBN, null));
+        templates.put(Operation.CREATE, new Template("POST", "/api/books/", create));
+        templates.put(Operation.UPDATE, new Template("PATCH", "/api/books/" + ISBN, update));
+        templates.put(Operation.DELETE, new Template("DELETE", "/api/books/" + ISBN, null));
+        return templates;
+    }
+}
@@ -0,0 +1,252 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for the management service's {@code /api/books} endpoints, with a
+ * fixed added latency, so the web service can be measured without the database behind it.
+ *
+ * <p>Supports the calls the web service and the load test make: list, paged query,
+ * lookup by ISBN, search by name, create, batch create, update, delete and the change
+ * feed. Authentication is not checked and duplicates are not detected. Paged queries
+ * filter by book type only and are always in ISBN order. Changes are kept for the life
+ * of the stub, so a position only expires if it is ahead of the feed.
+ */
+final class StubManagementService implements AutoCloseable {
+
+    private static final String BOOKS = "/api/books";
+
+    private final ObjectMapper mapper;
+    private final long latencyMillis;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final Map<String, ObjectNode> books = new ConcurrentSkipListMap<>();
+    private final Map<String, String> isbnsByName = new ConcurrentHashMap<>();
+    private final AtomicLong nextIsbn = new AtomicLong();
+    /** Every change so far; a change's sequence number is its index plus one. Guarded by itself. */
+    private final List<ObjectNode> changes = new ArrayList<>();
+
+    StubManagementService(int port, Duration latency, ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.latencyMillis = latency.toMillis();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.workers = Executors.newFixedThreadPool(200);
+        server.createContext(BOOKS, this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            route(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, null);
+        } catch (RuntimeException e) {
+            respond(exchange, 500, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, InterruptedException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(BOOKS.length());
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if (method.equals("GET") && path.equals("/all")) {
+            respond(exchange, 200, mapper.valueToTree(books.values()));
+        } else if (method.equals("GET") && path.equals("/query")) {
+            respond(exchange, 200, page(param(query, "bookType"), param(query, "page"), param(query, "size")));
+        } else if (method.equals("GET") && path.equals("/")) {
+            ObjectNode book = books.get(param(query, "isbn"));
+            respond(exchange, book != null ? 200 : 404, book);
+        } else if (method.equals("GET") && path.equals("/changes")) {
+            changes(exchange, query);
+        } else if (method.equals("GET") && path.equals("/search")) {
+            ArrayNode found = mapper.createArrayNode();
+            String isbn = isbnsByName.get(param(query, "name"));
+            if (isbn != null && books.containsKey(isbn)) {
+                found.add(books.get(isbn));
+            }
+            respond(exchange, 200, found);
+        } else if (method.equals("POST") && (path.isEmpty() || path.equals("/"))) {
+            respond(exchange, 201, create((ObjectNode) read(exchange)));
+        } else if (method.equals("POST") && path.equals("/batch")) {
+            ArrayNode items = mapper.createArrayNode();
+            int index = 0;
+            for (JsonNode entry : read(exchange)) {
+                items.addObject().put("index", index++).put("status", "CREATED").set("book", create((ObjectNode) entry));
+            }
+            ObjectNode response = mapper.createObjectNode().put("created", index).put("updated", 0).put("invalid", 0);
+            response.set("items", items);
+            respond(exchange, 200, response);
+        } else if (method.equals("PATCH")) {
+            String isbn = path.substring(1);
+            JsonNode patch = read(exchange);
+            // stored books are never modified in place, so /all can serialise them while they are updated
+            ObjectNode book = books.computeIfPresent(isbn, (key, current) -> {
+                ObjectNode updated = current.deepCopy();
+                patch.fields().forEachRemaining(field -> {
+                    if (!field.getValue().isNull()) {
+                        updated.set(field.getKey(), field.getValue());
+                    }
+                });
+                return updated;
+            });
+            if (book != null) {
+                record("UPDATED", isbn, book);
+            }
+            respond(exchange, book != null ? 200 : 404, book);
+        } else if (method.equals("DELETE")) {
+            String isbn = path.substring(1);
+            boolean deleted = books.remove(isbn) != null;
+            if (deleted) {
+                record("DELETED", isbn, null);
+            }
+            // 200 with a body rather than 204: the JDK server closes the connection after a
+            // response without a body, which would defeat the web service's keep-alive pool
+            respond(exchange, deleted ? 200 : 404, null);
+        } else {
+            respond(exchange, 404, null);
+        }
+    }
+
+    private ObjectNode create(ObjectNode request) {
+        // 13 digits like a real ISBN-13, without a valid check digit
+        String isbn = String.format("979%010d", nextIsbn.incrementAndGet());
+        ObjectNode book = mapper.createObjectNode().put("isbn", isbn);
+        book.setAll(request);
+        books.put(isbn, book);
+        isbnsByName.put(request.path("name").asText(), isbn);
+        record("CREATED", isbn, book);
+        return book;
+    }
+
+    private void record(String type, String isbn, ObjectNode book) {
+        ObjectNode change = mapper.createObjectNode().put("type", type).put("isbn", isbn)
+                .put("version", book != null ? book.path("version").asLong() : 0);
+        change.set("book", book);
+        synchronized (changes) {
+            change.put("seq", changes.size() + 1);
+            changes.add(change);
+            changes.notifyAll();
+        }
+    }
+
+    /**
+     * {@code GET /changes}: without {@code since} the current position and no changes;
+     * otherwise up to {@code limit} changes after it, waiting up to {@code wait} seconds
+     * for one if there are none yet.
+     */
+    private void changes(HttpExchange exchange, String query) throws IOException, InterruptedException {
+        String since = param(query, "since");
+        String limit = param(query, "limit");
+        String wait = param(query, "wait");
+        int max = limit.isEmpty() ? 100 : Integer.parseInt(limit);
+        ObjectNode page = mapper.createObjectNode();
+        ArrayNode items = page.putArray("items");
+        synchronized (changes) {
+            if (since.isEmpty()) {
+                page.put("last", changes.size()).put("more", false);
+            } else {
+                int from = Integer.parseInt(since);
+                if (from < 0 || from > changes.size()) {
+                    page = null;
+                } else {
+                    long deadline = System.currentTimeMillis() + (wait.isEmpty() ? 0 : Long.parseLong(wait) * 1000);
+                    for (long remaining = deadline - System.currentTimeMillis();
+                         changes.size() == from && remaining > 0;
+                         remaining = deadline - System.currentTimeMillis()) {
+                        changes.wait(remaining);
+                    }
+                    int to = Math.min(changes.size(), from + max);
+                    for (ObjectNode change : changes.subList(from, to)) {
+                        items.add(change);
+                    }
+                    page.put("last", to).put("more", to < changes.size());
+                }
+            }
+        }
+        respond(exchange, page != null ? 200 : 410, page);
+    }
+
+    private ObjectNode page(String bookType, String page, String size) {
+        int number = page.isEmpty() ? 0 : Integer.parseInt(page);
+        int limit = size.isEmpty() ? 100 : Integer.parseInt(size);
+        ArrayNode items = mapper.createArrayNode();
+        long total = 0;
+        for (ObjectNode book : books.values()) {
+            if (!bookType.isEmpty() && !bookType.equals(book.path("bookType").asText())) {
+                continue;
+            }
+            if (total++ / limit == number) {
+                items.add(book);
+            }
+        }
+        ObjectNode response = mapper.createObjectNode();
+        response.set("items", items);
+        return response.put("page", number).put("size", limit)
+                .put("totalItems", total).put("totalPages", (total + limit - 1) / limit);
+    }
+
+    private JsonNode read(HttpExchange exchange) throws IOException {
+        return mapper.readTree(exchange.getRequestBody());
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null) {
+            body = mapper.createObjectNode().put("status", status);
+        }
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String param(String query, String name) throws IOException {
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+                }
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,22 @@
+package za.co.catalogue.loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sends one request of a given kind to the service under test.
+ */
+interface Traffic extends Closeable {
+
+    /**
+     * Sends the request and waits for the complete response.
+     *
+     * @throws RequestFailedException if the response is not the expected one
+     * @throws IOException if the request could not be sent or the response read
+     */
+    void execute(Operation operation) throws IOException;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,120 @@
+package za.co.catalogue.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives the web service's pages and forms, the way a browser would, so every request
+ * also exercises the web service's calls to the management service.
+ *
+ * <p>The web service redirects after a create without exposing the new ISBN, so created
+ * books are looked up by name on the management side on a separate thread, outside the
+ * measured request, before they join the {@link IsbnPool}.
+ */
+final class WebTraffic implements Traffic {
+
+    private static final String ERROR_PAGE = "<title>Error - Book Catalogue</title>";
+    private static final DateTimeFormatter FORM_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final CloseableHttpClient http;
+    private final String webUrl;
+    private final ManagementClient backend;
+    private final RequestTemplates requests;
+    private final IsbnPool isbns;
+    private final ExecutorService resolver = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "isbn-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    WebTraffic(CloseableHttpClient http, String webUrl, ManagementClient backend, RequestTemplates requests, IsbnPool isbns) {
+        this.http = http;
+        this.webUrl = webUrl;
+        this.backend = backend;
+        this.requests = requests;
+        this.isbns = isbns;
+    }
+
+    @Override
+    public void execute(Operation operation) throws IOException {
+        switch (operation) {
+            case LIST:
+                page("/books");
+                break;
+            case LOOKUP:
+                page("/books/" + isbns.pick() + "/edit");
+                break;
+            case CREATE:
+                ObjectNode book = requests.newBook();
+                submit("/books", form(book, book.path("name").asText()));
+                String name = book.path("name").asText();
+                resolver.execute(() -> resolve(name));
+                break;
+            case UPDATE:
+                ObjectNode patch = requests.body(Operation.CREATE);
+                patch.setAll(requests.body(Operation.UPDATE));
+                submit("/books/" + isbns.pick(), form(patch, patch.path("name").asText() + " (edited)"));
+                break;
+            case DELETE:
+                submit("/books/" + isbns.take() + "/delete", new ArrayList<>());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    @Override
+    public void close() {
+        resolver.shutdownNow();
+    }
+
+    private void page(String path) throws IOException {
+        String body = HttpSupport.execute(http, new HttpGet(webUrl + path), 200);
+        // the web service renders failures as a 200 error page
+        if (body.contains(ERROR_PAGE)) {
+            throw new RequestFailedException("error page");
+        }
+    }
+
+    private void submit(String path, List<NameValuePair> form) throws IOException {
+        HttpPost post = new HttpPost(webUrl + path);
+        post.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+        HttpSupport.execute(http, post, 302);
+    }
+
+    private static List<NameValuePair> form(JsonNode book, String name) {
+        List<NameValuePair> form = new ArrayList<>();
+        form.add(new BasicNameValuePair("name", name));
+        form.add(new BasicNameValuePair("publishDate",
+                LocalDate.parse(book.path("publishDate").asText()).format(FORM_DATE)));
+        form.add(new BasicNameValuePair("price", book.path("price").asText()));
+        form.add(new BasicNameValuePair("bookType", book.path("bookType").asText()));
+        return form;
+    }
+
+    private void resolve(String name) {
+        try {
+            String isbn = backend.findIsbn(name);
+            if (isbn != null) {
+                isbns.add(isbn);
+            }
+        } catch (IOException | RuntimeException e) {
+            // the book is simply not used for later lookups, updates or deletes
+        }
+    }
+}
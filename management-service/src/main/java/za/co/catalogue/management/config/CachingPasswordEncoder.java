@@ -0,0 +1,104 @@
+package za.co.catalogue.management.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link PasswordEncoder} that remembers recently verified credentials, so stateless
+ * HTTP Basic clients pay for a BCrypt check once per TTL instead of on every request.
+ *
+ * <p>After the delegate confirms a password, an HMAC-SHA256 of it is cached under the
+ * stored hash. A later check against the same hash compares HMACs in constant time
+ * and skips the delegate. The HMAC key is random and only lives in this instance, so
+ * cached entries cannot be reversed or checked offline. Failed checks are never
+ * cached and always go to the delegate, which keeps guessing a password as slow as
+ * before. Changing a password changes the stored hash, so old entries stop matching.
+ *
+ * <p>Size, hits and misses are published as the {@code cache.*} metrics with
+ * {@code cache=credentials}.
+ */
+class CachingPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final Cache<String, byte[]> verified;
+    private final SecretKeySpec key;
+
+    CachingPasswordEncoder(PasswordEncoder delegate, long maxSize, Duration ttl) {
+        this(delegate, maxSize, ttl, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param maintenance runs eviction work; tests pass a same-thread executor
+     */
+    CachingPasswordEncoder(PasswordEncoder delegate, long maxSize, Duration ttl, Executor maintenance) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .executor(maintenance)
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        byte[] digest = hmac(rawPassword);
+        byte[] known = verified.getIfPresent(encodedPassword);
+        if (known != null && MessageDigest.isEqual(known, digest)) {
+            return true;
+        }
+        if (!delegate.matches(rawPassword, encodedPassword)) {
+            return false;
+        }
+        verified.put(encodedPassword, digest);
+        return true;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verified, "credentials");
+    }
+
+    private byte[] hmac(CharSequence rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // HmacSHA256 is a mandatory JCA algorithm
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package za.co.catalogue.management.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Records a timer for every method of a class or method annotated with
+     * {@link io.micrometer.core.annotation.Timed}, tagged with class, method and exception.
+     *
+     * <p>HTTP endpoints are timed by Spring Boot as {@code http.server.requests} and the
+     * Spring Data repositories as {@code spring.data.repository.invocations}; the aspect
+     * covers the service and the JDBC repository in between.
+     *
+     * @param registry the registry to record into
+     * @return the aspect
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -33,16 +35,24 @@ public class SecurityConfig {
     @Value("${app.security.users[1].roles}")
     private String worker_role;
 
+    @Value("${app.security.credential-cache.max-size:1000}")
+    private long credentialCacheSize;
+    @Value("${app.security.credential-cache.ttl:PT5M}")
+    private Duration credentialCacheTtl;
+
     /**
      * Configures the security filter chain for HTTP requests.
      * 
      * <p>Defines the following access rules:
      * <ul>
      *   <li>H2 console: Public access (development only)</li>
+     *   <li>/actuator/health and /actuator/prometheus: Public access (probes and metric scrapes)</li>
+     *   <li>Other /actuator endpoints: Admin role only</li>
      *   <li>GET /api/books: Admin and Worker roles</li>
      *   <li>POST /api/books: Admin and Worker roles</li>
      *   <li>PATCH /api/books: Admin role only</li>
      *   <li>DELETE /api/books: Admin role only</li>
+     *   <li>/api/imports: Admin role only (reads server-side files)</li>
      *   <li>All other requests: Requires authentication</li>
      * </ul>
      * 
@@ -61,7 +71,8 @@ public class SecurityConfig {
                 .authorizeRequests()
                 // ---- public endpoints ----
                 .antMatchers("/h2-console/**").permitAll()
-                //.antMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .antMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .antMatchers("/actuator/prometheus").permitAll()
                 //.antMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
 
                 // ---- books API (role-based) ----
@@ -70,6 +81,12 @@ public class SecurityConfig {
                 .antMatchers(HttpMethod.PATCH, "/api/books/**").hasRole(admin_role)
                 .antMatchers(HttpMethod.DELETE, "/api/books/**").hasRole(admin_role)
 
+                // ---- remaining actuator endpoints (admin only) ----
+                .antMatchers("/actuator/**").hasRole(admin_role)
+
+                // ---- bulk imports (admin only) ----
+                .antMatchers("/api/imports/**").hasRole(admin_role)
+
                 // everything else requires auth
                 .anyRequest().authenticated()
                 .and()
@@ -99,10 +116,14 @@ public class SecurityConfig {
     /**
      * Provides a BCrypt password encoder for hashing user passwords.
      * 
-     * @return BCryptPasswordEncoder instance
+     * <p>Every stateless request re-sends its credentials, so successful checks are
+     * cached for {@code app.security.credential-cache.ttl} and repeat requests skip
+     * BCrypt; see {@link CachingPasswordEncoder}.
+     * 
+     * @return BCrypt password encoder with a verified-credential cache
      */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    CachingPasswordEncoder passwordEncoder() {
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), credentialCacheSize, credentialCacheTtl);
     }
 }
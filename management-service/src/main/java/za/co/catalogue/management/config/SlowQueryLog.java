@@ -0,0 +1,124 @@
+package za.co.catalogue.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs JDBC statements that take at least {@code app.books.slow-query.threshold}, replacing
+ * Hibernate's unconditional {@code show-sql} output.
+ *
+ * <p>Only {@code sample-rate} of the slow statements are logged. For those, the SQL and
+ * the bound parameters (of the first parameter set of a batch, each cut to
+ * {@code max-parameter-length} characters) are copied on the calling thread and written
+ * by a single background thread, so a request never waits for the log. If the queue
+ * behind that thread is full, entries are dropped and the number dropped is reported
+ * with the next entry that is written.
+ *
+ * <p>Statements faster than the threshold cost one comparison.
+ */
+@Slf4j
+@Component
+class SlowQueryLog implements QueryExecutionListener, DisposableBean {
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final boolean logParameters;
+    private final int maxParameterLength;
+    private final ThreadPoolExecutor writer;
+    private final LongAdder dropped = new LongAdder();
+
+    SlowQueryLog(@Value("${app.books.slow-query.threshold:PT0.2S}") Duration threshold,
+                 @Value("${app.books.slow-query.sample-rate:1.0}") double sampleRate,
+                 @Value("${app.books.slow-query.log-parameters:true}") boolean logParameters,
+                 @Value("${app.books.slow-query.max-parameter-length:100}") int maxParameterLength,
+                 @Value("${app.books.slow-query.queue-size:1000}") int queueSize) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.logParameters = logParameters;
+        this.maxParameterLength = maxParameterLength;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-log");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> dropped.increment());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        List<String> queries = new ArrayList<>(queryInfoList.size());
+        List<String> parameters = new ArrayList<>();
+        for (QueryInfo query : queryInfoList) {
+            queries.add(query.getQuery());
+            if (logParameters && !query.getParametersList().isEmpty()) {
+                parameters.add(describe(query.getParametersList().get(0)));
+            }
+        }
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+        boolean success = execInfo.isSuccess();
+        writer.execute(() -> write(elapsed, batchSize, success, queries, parameters));
+    }
+
+    private void write(long elapsed, int batchSize, boolean success, List<String> queries, List<String> parameters) {
+        long lost = dropped.sumThenReset();
+        log.warn("Slow query: {} ms{}{} {}{}{}",
+                elapsed,
+                batchSize > 0 ? ", batch of " + batchSize : "",
+                success ? "" : ", failed",
+                queries.size() == 1 ? queries.get(0) : queries,
+                parameters.isEmpty() ? "" : " params " + (parameters.size() == 1 ? parameters.get(0) : parameters),
+                lost > 0 ? " (" + lost + " earlier slow queries not logged, queue full)" : "");
+    }
+
+    private String describe(List<ParameterSetOperation> operations) {
+        StringBuilder sb = new StringBuilder("[");
+        for (ParameterSetOperation op : operations) {
+            Object[] args = op.getArgs();
+            if (args.length < 2) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            Object value = ParameterSetOperation.isSetNullParameterOperation(op) ? "NULL" : args[1];
+            String text = String.valueOf(value);
+            sb.append(args[0]).append('=')
+                    .append(text.length() > maxParameterLength ? text.substring(0, maxParameterLength) + "..." : text);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
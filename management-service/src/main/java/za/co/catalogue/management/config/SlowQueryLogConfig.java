@@ -0,0 +1,39 @@
+package za.co.catalogue.management.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.books.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    /**
+     * Wraps the application's data source so every JDBC statement is timed and reported
+     * to the {@link SlowQueryLog}. The wrapper unwraps to the Hikari pool, so pool
+     * metrics and health checks are unaffected.
+     *
+     * @param slowQueryLog the listener, resolved when the data source is created
+     * @return the post-processor
+     */
+    @Bean
+    static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(slowQueryLog.getObject())
+                        .build();
+            }
+        };
+    }
+}
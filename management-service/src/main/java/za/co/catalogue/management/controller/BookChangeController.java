@@ -0,0 +1,60 @@
+package za.co.catalogue.management.controller;
+
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import za.co.catalogue.management.dto.BookChangePage;
+import za.co.catalogue.management.service.BookChangeService;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST controller for the incremental feed of catalogue changes.
+ *
+ * <p>Consumers that mirror the catalogue poll this instead of {@code GET /api/books/all}:
+ * each response only carries the books that changed. With {@code wait}, the request is
+ * held open until a change commits, so an idle consumer costs one parked request
+ * rather than a stream of empty polls.
+ */
+@RestController
+@RequestMapping("/api/books/changes")
+@Validated
+public class BookChangeController {
+
+    private final BookChangeService service;
+
+    /**
+     * Constructs a new BookChangeController with the specified service.
+     *
+     * @param service the change feed service to use for business logic
+     */
+    public BookChangeController(BookChangeService service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the changes after a position, optionally waiting for one.
+     *
+     * <p>Pass the {@code last} value of a response back as {@code since}. Without
+     * {@code since}, returns the current position and no changes.
+     *
+     * @param since optional position returned by the previous response
+     * @param limit optional maximum number of changes; defaults and caps are configured server-side
+     * @param wait seconds to wait for a change if there is none yet; 0 (default) answers at once
+     * @return the next changes in commit order
+     * @throws za.co.catalogue.management.exception.BadRequestException if a parameter is invalid
+     * @throws za.co.catalogue.management.exception.GoneException if the changes after {@code since}
+     *         have been purged and the catalogue must be reloaded
+     */
+    @GetMapping
+    public CompletableFuture<BookChangePage> getChanges(
+            @RequestParam Optional<Long> since,
+            @RequestParam Optional<Integer> limit,
+            @RequestParam(defaultValue = "0") int wait
+    ) {
+        return service.awaitChanges(since.orElse(null), limit.orElse(null), wait);
+    }
+}
@@ -1,13 +1,24 @@
 package za.co.catalogue.management.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import za.co.catalogue.management.dto.*;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.service.BookExportService;
 import za.co.catalogue.management.service.BookService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,58 +27,217 @@ import java.util.Optional;
  * 
  * <p>All endpoints require authentication. GET and POST operations are available
  * to both admin and worker roles, while PATCH and DELETE are restricted to admin role only.
+ *
+ * <p>Single books, the full catalogue and its filtered pages carry strong ETags. A GET whose
+ * {@code If-None-Match} still matches is answered with 304 and no body; a PATCH or
+ * DELETE whose {@code If-Match} no longer matches is refused with 412 and changes nothing.
+ * Updates are optimistic: a PATCH that carries a stale {@code version}, or loses a race
+ * with another update, is refused with 409.
  */
 @RestController
 @RequestMapping("/api/books")
 @Validated
 public class BookController {
 
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final BookService service;
+    private final BookExportService exportService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs a new BookController with the specified service.
+     * Constructs a new BookController with the specified services.
      * 
      * @param service the book service to use for business logic
+     * @param exportService the service writing catalogue exports
+     * @param objectMapper the mapper used to write streamed responses
      */
-    public BookController(BookService service) { this.service = service; }
+    public BookController(BookService service, BookExportService exportService, ObjectMapper objectMapper) {
+        this.service = service;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
 
     /**
      * Retrieves all books in the catalogue.
+     *
+     * <p>The catalogue version is read before the books, so a change racing with this
+     * request can only pair an older tag with a newer body; the next revalidation then
+     * fetches the body again instead of keeping a stale one.
      * 
-     * @return list of all books as BookResponse objects
+     * @param request used to evaluate {@code If-None-Match}
+     * @return list of all books as BookResponse objects, or 304 if the caller's copy is current
      */
     @GetMapping("/all")
-    public List<BookResponse> getAll() {
-        return service.getAll();
+    public ResponseEntity<List<BookResponse>> getAll(WebRequest request) {
+        String etag = etag(service.getCatalogueVersion());
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return withEtag(ResponseEntity.ok(), etag).body(service.getAll());
+    }
+
+    /**
+     * Retrieves one page of the catalogue using keyset pagination.
+     *
+     * <p>Pass the {@code next} value of a response back as the {@code next} parameter
+     * to fetch the following page. The last page has no {@code next} value.
+     *
+     * @param next optional opaque cursor returned by the previous page
+     * @param size optional page size; defaults and caps are configured server-side
+     * @return the requested page
+     * @throws za.co.catalogue.management.exception.BadRequestException if the cursor or size is invalid
+     */
+    @GetMapping("/page")
+    public BookPage getPage(
+            @RequestParam Optional<String> next,
+            @RequestParam Optional<Integer> size
+    ) {
+        return service.getPage(next.orElse(null), size.orElse(null));
+    }
+
+    /**
+     * Retrieves one numbered page of the catalogue, filtered and sorted in the database.
+     *
+     * <p>Every parameter is optional: {@code bookType}, {@code minPrice}, {@code maxPrice},
+     * {@code minYear} and {@code maxYear} (inclusive) filter; {@code sort} is
+     * {@code field[,asc|desc]}; {@code page} is zero-based. Unlike {@code /page}, the
+     * response carries the total number of matching books and pages.
+     *
+     * <p>Every page carries the catalogue's ETag, as {@code /all} does, so a cached page
+     * is revalidated without running the query while nothing has changed.
+     *
+     * @param query filters, sort order, page number and size bound from the query string
+     * @param request used to evaluate {@code If-None-Match}
+     * @return the requested page, or 304 if the caller's copy is current
+     * @throws za.co.catalogue.management.exception.BadRequestException if the sort, page, size or a range is invalid
+     */
+    @GetMapping("/query")
+    public ResponseEntity<BookQueryPage> query(BookQuery query, WebRequest request) {
+        String etag = etag(service.getCatalogueVersion());
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return withEtag(ResponseEntity.ok(), etag).body(service.query(query));
+    }
+
+    /**
+     * Streams the whole catalogue as a JSON array.
+     *
+     * <p>Books are written to the response as they are read from the database
+     * cursor, so the full list is never held in memory.
+     *
+     * @return streaming JSON array of all books
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                service.streamAll(book -> {
+                    try {
+                        json.writeObject(book);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Downloads the whole catalogue as a CSV or NDJSON file, optionally gzipped.
+     *
+     * <p>Rows are written as they are read from the database cursor, so memory use
+     * is the same for ten books or ten million.
+     *
+     * @param format CSV or NDJSON (default)
+     * @param gzip whether to gzip the file
+     * @return streaming file attachment
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") BookFileFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        String fileName = "books." + (format == BookFileFormat.CSV ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        MediaType type = gzip ? APPLICATION_GZIP : format == BookFileFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> exportService.export(format, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
     }
 
     /**
      * Retrieves a book by its ISBN.
      * 
      * @param isbn the ISBN of the book to retrieve (required)
-     * @return the book with the specified ISBN
+     * @param request used to evaluate {@code If-None-Match}
+     * @return the book with the specified ISBN, or 304 if the caller's copy is current
      * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
      */
     @GetMapping("/")
-    public BookResponse getByIsbn(@RequestParam String isbn) {
-        return service.getByIsbn(isbn);
+    public ResponseEntity<BookResponse> getByIsbn(@RequestParam String isbn, WebRequest request) {
+        BookResponse book = service.getByIsbn(isbn);
+        String etag = etag(book);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return withEtag(ResponseEntity.ok(), etag).body(book);
     }
 
     /**
-     * Searches for books by name or author.
+     * Returns the counters of the ISBN lookup cache.
+     *
+     * @return cache size, hits, misses, hit rate, evictions and invalidations since startup
+     */
+    @GetMapping("/cache/stats")
+    public CacheStatsResponse getCacheStats() {
+        return service.getCacheStats();
+    }
+
+    /**
+     * Returns book counts by type, publish year and author, and the minimum, maximum
+     * and average price, over the whole catalogue.
+     *
+     * <p>Served from a summary kept current on every change, so reporting screens need
+     * not download {@code /all} to aggregate it.
+     *
+     * @param authorLimit optional number of authors to list, most books first; defaults and caps are configured server-side
+     * @return the facets
+     * @throws za.co.catalogue.management.exception.BadRequestException if the author limit is negative
+     */
+    @GetMapping("/facets")
+    public BookFacetsResponse getFacets(@RequestParam Optional<Integer> authorLimit) {
+        return service.getFacets(authorLimit.orElse(null));
+    }
+
+    /**
+     * Searches for books by free text, name or author.
      * 
-     * <p>If both name and author parameters are provided, name takes precedence.
-     * If neither is provided, returns all books.
+     * <p>{@code q} runs a ranked, case-insensitive prefix search over names and authors
+     * and takes precedence over the exact-match parameters. If both name and author
+     * parameters are provided, name takes precedence. If none is provided, returns all books.
      * 
+     * @param q optional free-text query
+     * @param limit optional maximum number of results for a {@code q} search
      * @param name optional book name to search for
      * @param author optional author name to search for
      * @return list of books matching the search criteria
      */
     @GetMapping("/search")
     public List<BookResponse> search(
+            @RequestParam Optional<String> q,
+            @RequestParam Optional<Integer> limit,
             @RequestParam Optional<String> name,
             @RequestParam Optional<String> author
     ) {
+        if (q.isPresent()) return service.search(q.get(), limit.orElse(null));
         if (name.isPresent()) return service.searchByName(name.get());
         if (author.isPresent()) return service.searchByAuthor(author.get());
         return service.getAll();
@@ -82,7 +252,7 @@ public class BookController {
      * 
      * @param request the book creation request containing book details
      * @return ResponseEntity with status CREATED (201) and the created book
-     * @throws za.co.catalogue.management.exception.ConflictException if unable to generate a unique ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if the ISBN range is exhausted
      */
     @PostMapping
     public ResponseEntity<BookResponse> create(@Valid @RequestBody BookCreateRequest request) {
@@ -90,6 +260,21 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Creates or updates many books in one request.
+     *
+     * <p>Each entry behaves like {@code POST /api/books}. Entries are validated one by one;
+     * invalid entries are reported in the response and the rest are still written.
+     *
+     * @param requests the books to create, at most the configured batch size
+     * @return per-entry results in request order, with created/updated/invalid totals
+     * @throws za.co.catalogue.management.exception.BadRequestException if the batch is empty or too large
+     */
+    @PostMapping("/batch")
+    public BookBatchResponse createAll(@RequestBody List<BookCreateRequest> requests) {
+        return service.createAll(requests);
+    }
+
     /**
      * Updates an existing book by ISBN.
      * 
@@ -98,12 +283,23 @@ public class BookController {
      * 
      * @param isbn the ISBN of the book to update
      * @param patch the update request containing fields to modify
-     * @return the updated book
+     * @param request used to evaluate {@code If-Match}
+     * @return the updated book, or 412 if {@code If-Match} does not match the current book
      * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if the patch carries a stale version
      */
     @PatchMapping("/{isbn}")
-    public BookResponse update(@PathVariable String isbn, @Valid @RequestBody BookUpdateRequest patch) {
-        return service.update(isbn, patch);
+    public ResponseEntity<BookResponse> update(@PathVariable String isbn, @Valid @RequestBody BookUpdateRequest patch,
+                                               WebRequest request) {
+        if (preconditionFailed(isbn, request)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (patch.getVersion() == null) {
+            // keep the If-Match check atomic with the write
+            patch.setVersion(version(request.getHeader(HttpHeaders.IF_MATCH)));
+        }
+        BookResponse updated = service.update(isbn, patch);
+        return withEtag(ResponseEntity.ok(), etag(updated)).body(updated);
     }
 
     /**
@@ -112,11 +308,62 @@ public class BookController {
      * <p>This operation is permanent and restricted to admin role only.
      * 
      * @param isbn the ISBN of the book to delete
+     * @param request used to evaluate {@code If-Match}
+     * @return 204, or 412 if {@code If-Match} does not match the current book
      * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if the book changed after the
+     *         {@code If-Match} check
      */
     @DeleteMapping("/{isbn}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable String isbn) {
-        service.delete(isbn);
+    public ResponseEntity<Void> delete(@PathVariable String isbn, WebRequest request) {
+        if (preconditionFailed(isbn, request)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        // keep the If-Match check atomic with the delete
+        service.delete(isbn, version(request.getHeader(HttpHeaders.IF_MATCH)));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Checks {@code If-Match} against the current book, if the header was sent. Uses the
+     * strong comparison, so weak tags never match; {@code *} matches any existing book.
+     */
+    private boolean preconditionFailed(String isbn, WebRequest request) {
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch == null) {
+            return false;
+        }
+        String etag = etag(service.getByIsbn(isbn));
+        if (etag == null || ifMatch.trim().equals("*")) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(etag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the version named by a single strong ETag, or null
+     */
+    private static Long version(String etag) {
+        if (etag == null || !etag.matches("\\s*\"\\d{1,18}\"\\s*")) {
+            return null;
+        }
+        return Long.valueOf(etag.trim().replace("\"", ""));
+    }
+
+    private static ResponseEntity.BodyBuilder withEtag(ResponseEntity.BodyBuilder builder, String etag) {
+        return etag == null ? builder : builder.eTag(etag);
+    }
+
+    private static String etag(BookResponse book) {
+        return book == null || book.getVersion() == null ? null : etag(book.getVersion().toString());
+    }
+
+    private static String etag(String version) {
+        return version == null ? null : '"' + version + '"';
     }
 }
\ No newline at end of file
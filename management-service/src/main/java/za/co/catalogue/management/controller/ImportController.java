@@ -0,0 +1,107 @@
+package za.co.catalogue.management.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import za.co.catalogue.management.dto.ImportJobResponse;
+import za.co.catalogue.management.dto.ImportRejectResponse;
+import za.co.catalogue.management.dto.ImportRequest;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.service.BookImportService;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * REST controller for bulk imports of CSV and NDJSON book files.
+ *
+ * <p>Imports run in the background: the start endpoints return 202 with the queued
+ * job, whose progress is polled with {@code GET /api/imports/{id}}. Admin role only.
+ */
+@RestController
+@RequestMapping("/api/imports")
+@Validated
+public class ImportController {
+
+    private final BookImportService service;
+
+    /**
+     * Constructs a new ImportController with the specified service.
+     *
+     * @param service the import service to use for business logic
+     */
+    public ImportController(BookImportService service) {
+        this.service = service;
+    }
+
+    /**
+     * Starts importing a file that is already on the server, below {@code app.books.import.base-dir}.
+     *
+     * @param request the file path and optional format
+     * @return ResponseEntity with status ACCEPTED (202) and the queued job
+     * @throws za.co.catalogue.management.exception.BadRequestException if the path or format is invalid
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobResponse> startFromPath(@Valid @RequestBody ImportRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(service.startFromPath(request.getPath(), request.getFormat()));
+    }
+
+    /**
+     * Uploads a file as the {@code file} part of a multipart request and starts importing it.
+     *
+     * @param file the file to import
+     * @param format optional format; derived from the file name when omitted
+     * @return ResponseEntity with status ACCEPTED (202) and the queued job
+     * @throws za.co.catalogue.management.exception.BadRequestException if the file is empty or the format unknown
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> startFromUpload(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) BookFileFormat format) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.startFromUpload(file, format));
+    }
+
+    /**
+     * Retrieves the progress of an import.
+     *
+     * @param id the job id
+     * @return the job with its committed counters
+     * @throws za.co.catalogue.management.exception.NotFoundException if the job does not exist
+     */
+    @GetMapping("/{id}")
+    public ImportJobResponse get(@PathVariable long id) {
+        return service.get(id);
+    }
+
+    /**
+     * Lists rejected records of an import in file order.
+     *
+     * @param id the job id
+     * @param after optional record number to continue after
+     * @param limit optional maximum number of rejects
+     * @return the rejects with their record and line numbers and errors
+     */
+    @GetMapping("/{id}/rejects")
+    public List<ImportRejectResponse> getRejects(
+            @PathVariable long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return service.getRejects(id, after, limit);
+    }
+
+    /**
+     * Resumes a failed import after its last committed batch.
+     *
+     * @param id the job id
+     * @return ResponseEntity with status ACCEPTED (202) and the queued job
+     * @throws za.co.catalogue.management.exception.ConflictException if the job is not failed
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobResponse> resume(@PathVariable long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(service.resume(id));
+    }
+}
@@ -0,0 +1,14 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Number of books in the catalogue by one author.
+ */
+@Data
+@AllArgsConstructor
+public class AuthorCount {
+    private String author;
+    private long count;
+}
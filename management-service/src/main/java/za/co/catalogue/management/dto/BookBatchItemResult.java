@@ -0,0 +1,24 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Outcome of one entry of a batch create request.
+ *
+ * <p>{@code index} is the position of the entry in the request. {@code book} is set
+ * for created and updated entries, {@code errors} (field to message) for invalid ones.
+ */
+@Data
+@AllArgsConstructor
+public class BookBatchItemResult {
+
+    public enum Status { CREATED, UPDATED, INVALID }
+
+    private int index;
+    private Status status;
+    private BookResponse book;
+    private Map<String, String> errors;
+}
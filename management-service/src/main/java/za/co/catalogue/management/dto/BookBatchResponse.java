@@ -0,0 +1,18 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Result of a batch create request: totals plus one result per entry, in request order.
+ */
+@Data
+@AllArgsConstructor
+public class BookBatchResponse {
+    private int created;
+    private int updated;
+    private int invalid;
+    private List<BookBatchItemResult> items;
+}
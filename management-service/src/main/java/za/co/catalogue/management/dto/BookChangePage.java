@@ -0,0 +1,21 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Changes of the catalogue after a sequence number, in sequence order.
+ *
+ * <p>{@code last} is the position to pass back as the {@code since} request
+ * parameter: the sequence number of the last item, or the requested position if
+ * there were none. {@code more} is true if further changes can be fetched right away.
+ */
+@Data
+@AllArgsConstructor
+public class BookChangePage {
+    private List<BookChangeResponse> items;
+    private long last;
+    private boolean more;
+}
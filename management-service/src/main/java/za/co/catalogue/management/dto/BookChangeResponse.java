@@ -0,0 +1,25 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import za.co.catalogue.management.model.BookChangeType;
+
+import java.time.Instant;
+
+/**
+ * One committed change of the catalogue.
+ *
+ * <p>{@code book} is the book after the change, or {@code null} for a delete;
+ * {@code version} is the book's version after the change, or the version it was
+ * deleted at.
+ */
+@Data
+@AllArgsConstructor
+public class BookChangeResponse {
+    private long seq;
+    private BookChangeType type;
+    private String isbn;
+    private long version;
+    private BookResponse book;
+    private Instant changedAt;
+}
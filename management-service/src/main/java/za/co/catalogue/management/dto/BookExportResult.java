@@ -0,0 +1,16 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Summary of a finished export. {@code bytes} counts what was written to the
+ * target, i.e. after compression.
+ */
+@Data
+@AllArgsConstructor
+public class BookExportResult {
+    private long rows;
+    private long bytes;
+    private long millis;
+}
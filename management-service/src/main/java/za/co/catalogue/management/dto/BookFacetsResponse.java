@@ -0,0 +1,30 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts and price statistics over the whole catalogue.
+ *
+ * <p>{@code byType} has every book type, including those without books; {@code byYear}
+ * is in year order. {@code topAuthors} holds the authors with the most books, most first,
+ * out of {@code authorCount} distinct authors. The prices are null for an empty catalogue;
+ * {@code averagePrice} is rounded to cents.
+ */
+@Data
+@AllArgsConstructor
+public class BookFacetsResponse {
+    private long totalBooks;
+    private Map<BookType, Long> byType;
+    private Map<Integer, Long> byYear;
+    private List<AuthorCount> topAuthors;
+    private long authorCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal averagePrice;
+}
@@ -0,0 +1,19 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A single keyset page of the catalogue.
+ *
+ * <p>{@code next} is an opaque cursor to pass back as the {@code next} request
+ * parameter to fetch the following page; it is {@code null} on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class BookPage {
+    private List<BookResponse> items;
+    private String next;
+}
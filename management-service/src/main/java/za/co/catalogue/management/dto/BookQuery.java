@@ -0,0 +1,26 @@
+package za.co.catalogue.management.dto;
+
+import lombok.Data;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters, sort order and page of a catalogue listing, bound from request parameters.
+ * Every field is optional; bounds are inclusive.
+ *
+ * <p>{@code sort} is a field name, optionally followed by {@code ,asc} or {@code ,desc}:
+ * one of {@code isbn}, {@code name}, {@code author}, {@code publishDate}, {@code price}
+ * or {@code bookType}. {@code page} is zero-based.
+ */
+@Data
+public class BookQuery {
+    private BookType bookType;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minYear;
+    private Integer maxYear;
+    private String sort;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,20 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One numbered page of a filtered, sorted catalogue listing, with the totals needed
+ * to render page links.
+ */
+@Data
+@AllArgsConstructor
+public class BookQueryPage {
+    private List<BookResponse> items;
+    private int page;
+    private int size;
+    private long totalItems;
+    private int totalPages;
+}
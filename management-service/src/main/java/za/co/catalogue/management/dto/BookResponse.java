@@ -16,5 +16,12 @@ public class BookResponse {
     private LocalDate publishDate;
     private BigDecimal price;
     private BookType bookType;
+    /** Row version the response was read at; send it back on an update to detect concurrent changes. */
+    private Long version;
+
+    public BookResponse(String isbn, String name, String author, LocalDate publishDate, BigDecimal price,
+                        BookType bookType) {
+        this(isbn, name, author, publishDate, price, bookType, null);
+    }
 }
 
@@ -13,5 +13,7 @@ public class BookUpdateRequest {
     private LocalDate publishDate;
     private BigDecimal price;
     private BookType bookType;
+    /** Version the client last read; if set, the update fails with 409 when the book has changed since. */
+    private Long version;
 }
 
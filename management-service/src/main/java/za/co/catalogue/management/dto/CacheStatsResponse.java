@@ -0,0 +1,18 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Counters of the in-process book cache since startup.
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long invalidations;
+}
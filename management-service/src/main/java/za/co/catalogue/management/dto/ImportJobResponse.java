@@ -0,0 +1,34 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.model.ImportStatus;
+
+import java.time.Instant;
+
+/**
+ * Progress of an import job.
+ *
+ * <p>All counters cover committed batches only. {@code recordsCommitted} includes
+ * rejected records; {@code bytesCommitted} is the position in the (possibly
+ * compressed) file when the last batch was committed.
+ */
+@Data
+@AllArgsConstructor
+public class ImportJobResponse {
+    private long id;
+    private String source;
+    private BookFileFormat format;
+    private ImportStatus status;
+    private long bytesTotal;
+    private long bytesCommitted;
+    private long recordsCommitted;
+    private long batchesCommitted;
+    private long created;
+    private long updated;
+    private long rejected;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
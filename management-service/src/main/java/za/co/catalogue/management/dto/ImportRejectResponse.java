@@ -0,0 +1,16 @@
+package za.co.catalogue.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A record that an import did not write. {@code errors} lists the reasons as
+ * {@code field: message} pairs separated by {@code ; }.
+ */
+@Data
+@AllArgsConstructor
+public class ImportRejectResponse {
+    private long recordNumber;
+    private long lineNumber;
+    private String errors;
+}
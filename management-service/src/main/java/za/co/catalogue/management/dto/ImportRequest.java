@@ -0,0 +1,20 @@
+package za.co.catalogue.management.dto;
+
+import lombok.Data;
+import za.co.catalogue.management.model.BookFileFormat;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Starts an import of a file that is already on the server.
+ *
+ * <p>{@code path} is resolved against {@code app.books.import.base-dir} and must stay
+ * inside it. {@code format} may be omitted when the file extension gives it away.
+ */
+@Data
+public class ImportRequest {
+    @NotBlank
+    private String path;
+
+    private BookFileFormat format;
+}
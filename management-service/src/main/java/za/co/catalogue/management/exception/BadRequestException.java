@@ -1,5 +1,5 @@
 package za.co.catalogue.management.exception;
 
 public class BadRequestException extends RuntimeException {
-    public BadRequestException(String message, String value) { super(message); }
-}
\ No newline at end of file
+    public BadRequestException(String message, String value) { super(String.format(message, value)); }
+}
@@ -0,0 +1,5 @@
+package za.co.catalogue.management.exception;
+
+public class GoneException extends RuntimeException {
+    public GoneException(String message, String value) { super(String.format(message, value)); }
+}
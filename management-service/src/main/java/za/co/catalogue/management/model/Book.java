@@ -1,6 +1,7 @@
 package za.co.catalogue.management.model;
 
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -8,13 +9,19 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "book_data",
         uniqueConstraints = {
-        @UniqueConstraint(name = "uk_books_isbn", columnNames = "isbn"),
+        @UniqueConstraint(name = "ux_book_data_isbn", columnNames = "isbn"),
         @UniqueConstraint(
-                name = "uk_books_name_author_date",
+                name = "ux_book_data_name_author_date",
                 columnNames = {"name", "author", "publish_date"}
         )
+    },
+        indexes = {
+        @Index(name = "ix_book_data_author", columnList = "author"),
+        @Index(name = "ix_book_data_price", columnList = "price"),
+        @Index(name = "ix_book_data_publish_date", columnList = "publish_date")
     })
 @Data
+@DynamicUpdate
 public class Book {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,4 +45,9 @@ public class Book {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 16)
     private BookType bookType;
+
+    /** Bumped by every update; also the book's entity tag. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
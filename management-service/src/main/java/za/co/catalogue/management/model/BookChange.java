@@ -0,0 +1,52 @@
+package za.co.catalogue.management.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * An entry of the catalogue change outbox.
+ *
+ * <p>Written in the same transaction as the change it describes. {@code seq} increases
+ * in commit order, so it can be used as a resume position by consumers.
+ */
+@Entity
+@Table(name = "book_change", indexes = @Index(name = "ix_book_change_changed_at", columnList = "changed_at"))
+@Data
+public class BookChange {
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private BookChangeType changeType;
+
+    @Column(nullable = false, length = 32)
+    private String isbn;
+
+    @Column(length = 255)
+    private String name;
+
+    @Column(length = 255)
+    private String author;
+
+    @Column(name = "publish_date")
+    private LocalDate publishDate;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private BookType bookType;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
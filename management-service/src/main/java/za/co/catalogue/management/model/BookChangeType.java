@@ -0,0 +1,8 @@
+package za.co.catalogue.management.model;
+
+public enum BookChangeType {
+    CREATED,
+    UPDATED,
+    /** Only the ISBN and the version the book was deleted at are recorded. */
+    DELETED
+}
@@ -0,0 +1,37 @@
+package za.co.catalogue.management.model;
+
+import java.util.Locale;
+
+/**
+ * File formats of bulk imports and exports. Either may be gzip-compressed
+ * ({@code .gz} suffix).
+ */
+public enum BookFileFormat {
+    /** Comma-separated values with a header row naming the book fields. */
+    CSV,
+    /** One JSON book object per line. */
+    NDJSON;
+
+    /**
+     * Guesses the format from a file name.
+     *
+     * @param fileName the file name, may be null
+     * @return the format, or null if the extension is not recognised
+     */
+    public static BookFileFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
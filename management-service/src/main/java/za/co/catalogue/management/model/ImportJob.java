@@ -0,0 +1,62 @@
+package za.co.catalogue.management.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A bulk import of one file into the catalogue.
+ *
+ * <p>{@code recordsCommitted} is the resume checkpoint: it is saved in the same
+ * transaction as the books of each batch, so it never runs ahead of the data.
+ */
+@Entity
+@Table(name = "import_job")
+@Data
+public class ImportJob {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1024)
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BookFileFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportStatus status;
+
+    @Column(name = "bytes_total", nullable = false)
+    private long bytesTotal;
+
+    @Column(name = "bytes_committed", nullable = false)
+    private long bytesCommitted;
+
+    @Column(name = "records_committed", nullable = false)
+    private long recordsCommitted;
+
+    @Column(name = "batches_committed", nullable = false)
+    private long batchesCommitted;
+
+    @Column(nullable = false)
+    private long created;
+
+    @Column(nullable = false)
+    private long updated;
+
+    @Column(nullable = false)
+    private long rejected;
+
+    @Column(length = 2000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,31 @@
+package za.co.catalogue.management.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+
+/**
+ * A record of an import that was not written, with the reasons.
+ */
+@Entity
+@Table(name = "import_reject", indexes = @Index(name = "ix_import_reject_job_record", columnList = "job_id, record_number"))
+@Data
+public class ImportReject {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    /** 1-based position among the data records of the file. */
+    @Column(name = "record_number", nullable = false)
+    private long recordNumber;
+
+    /** 1-based line of the file the record starts on. */
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+
+    @Column(nullable = false, length = 2000)
+    private String errors;
+}
@@ -0,0 +1,9 @@
+package za.co.catalogue.management.model;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    /** Stopped by an error or a restart; can be resumed from the last committed batch. */
+    FAILED
+}
@@ -0,0 +1,25 @@
+package za.co.catalogue.management.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.co.catalogue.management.model.BookChange;
+
+import java.util.List;
+
+/**
+ * Repository for reading the catalogue change outbox. Changes are appended with
+ * {@link BookJdbcRepository#appendChanges}.
+ */
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    /**
+     * Finds the changes after the given sequence number, in sequence order.
+     *
+     * @param seq the last sequence number already seen (exclusive lower bound)
+     * @param pageable page size limit; the page number must be 0
+     * @return the next changes in sequence order
+     */
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(long seq, Pageable pageable);
+}
@@ -0,0 +1,322 @@
+package za.co.catalogue.management.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookChange;
+import za.co.catalogue.management.model.BookType;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to {@code book_data} for operations that must not go through
+ * the JPA persistence context.
+ *
+ * <p>Streaming the whole table through Hibernate would attach every entity to the
+ * session; reading from a forward-only cursor keeps memory use independent of row count.
+ *
+ * <p>Also appends to the {@code book_change} outbox, whose sequence numbers are
+ * assigned here rather than by an identity column.
+ */
+@Repository
+@Timed("books.jdbc")
+public class BookJdbcRepository {
+
+    static final String BOOK_COLUMNS = "id, isbn, name, author, publish_date, price, book_type, version";
+
+    static final RowMapper<Book> BOOK_ROW_MAPPER = (rs, rowNum) -> {
+        Book b = new Book();
+        b.setId(rs.getLong("id"));
+        b.setIsbn(rs.getString("isbn"));
+        b.setName(rs.getString("name"));
+        b.setAuthor(rs.getString("author"));
+        b.setPublishDate(rs.getObject("publish_date", LocalDate.class));
+        b.setPrice(rs.getBigDecimal("price"));
+        b.setBookType(BookType.valueOf(rs.getString("book_type")));
+        b.setVersion(rs.getLong("version"));
+        return b;
+    };
+
+    private static final String INSERT_BOOK =
+            "INSERT INTO book_data (isbn, name, author, publish_date, price, book_type) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_PRICE_AND_TYPE =
+            "UPDATE book_data SET price = ?, book_type = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String INSERT_CHANGE = "INSERT INTO book_change (seq, change_type, isbn, name, author,"
+            + " publish_date, price, book_type, version, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    public BookJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Reads every book in id order from a forward-only, read-only cursor and hands
+     * each row to the consumer as soon as it is read.
+     *
+     * <p>The consumer receives a fresh, detached {@link Book} per row; nothing is
+     * retained by this method once the consumer returns.
+     *
+     * <p>The query runs with H2's lazy query execution, so rows are produced from the
+     * primary key index as the cursor advances. Otherwise H2 builds the complete
+     * result (spilling it to a temporary store) before the first row is returned.
+     *
+     * @param fetchSize number of rows the driver fetches per round trip
+     * @param consumer callback invoked once per row, in id order
+     */
+    public void streamAll(int fetchSize, Consumer<Book> consumer) {
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            setLazyQueryExecution(con, true);
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT " + BOOK_COLUMNS + " FROM book_data ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    int row = 0;
+                    while (rs.next()) {
+                        consumer.accept(BOOK_ROW_MAPPER.mapRow(rs, ++row));
+                    }
+                }
+            } finally {
+                // the connection goes back to the pool
+                setLazyQueryExecution(con, false);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Loads the stored books that share name, author and publish date with any of
+     * the given books, in one query.
+     *
+     * <p>The keys are bound as three arrays and joined against {@code book_data}, so
+     * each key is a lookup on the name/author/publish date unique index. H2 does not
+     * use an index for a row-value {@code IN} list or for an {@code IN} list of
+     * {@code ?} placeholders.
+     *
+     * @param keys books whose name, author and publish date are looked up
+     * @return matching stored books, in no particular order
+     */
+    public List<Book> findByNaturalKeys(Collection<Book> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String[] names = new String[keys.size()];
+        String[] authors = new String[keys.size()];
+        Date[] dates = new Date[keys.size()];
+        int i = 0;
+        for (Book key : keys) {
+            names[i] = key.getName();
+            authors[i] = key.getAuthor();
+            dates[i++] = Date.valueOf(key.getPublishDate());
+        }
+        return jdbc.query("SELECT " + prefixed("b") + " FROM UNNEST(?, ?, ?) AS k(name, author, publish_date)"
+                        + " JOIN book_data b ON b.name = k.name AND b.author = k.author AND b.publish_date = k.publish_date",
+                ps -> {
+                    ps.setObject(1, names);
+                    ps.setObject(2, authors);
+                    ps.setObject(3, dates);
+                }, BOOK_ROW_MAPPER);
+    }
+
+    /**
+     * Returns a value that changes whenever any book is created, updated or deleted,
+     * without reading the books themselves.
+     *
+     * <p>It is the sequence number of the latest change in the outbox: every writing
+     * transaction bumps {@code book_change_head} before it commits, so this reads a
+     * single row however large the catalogue is.
+     *
+     * @return an opaque catalogue version
+     */
+    public String catalogueVersion() {
+        return Long.toString(lastChangeSeq(), 36);
+    }
+
+    /**
+     * Reserves the next block of ISBN serial numbers.
+     *
+     * <p>Reads {@code isbn_serial_seq} on the caller's connection. Sequences are not
+     * transactional, so no lock is taken and a rolled-back caller never hands the block
+     * back to be issued again.
+     *
+     * @return the first serial of the reserved block, starting at 0
+     */
+    public long reserveIsbnBlock() {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR isbn_serial_seq", Long.class);
+    }
+
+    /**
+     * @return serials per block reserved by {@link #reserveIsbnBlock()}, the increment of {@code isbn_serial_seq}
+     */
+    public int isbnBlockSize() {
+        return jdbc.queryForObject(
+                "SELECT increment FROM information_schema.sequences WHERE sequence_name = 'ISBN_SERIAL_SEQ'", Integer.class);
+    }
+
+    /**
+     * Inserts the books with JDBC batching and sets the generated id and the initial
+     * version on each of them.
+     *
+     * @param books books with an ISBN assigned and no id
+     * @param batchSize rows sent to the driver per batch
+     */
+    public void insertAll(List<Book> books, int batchSize) {
+        if (books.isEmpty()) {
+            return;
+        }
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_BOOK, new String[]{"id"})) {
+                int keyed = 0;
+                for (int from = 0; from < books.size(); from += batchSize) {
+                    for (Book b : books.subList(from, Math.min(from + batchSize, books.size()))) {
+                        ps.setString(1, b.getIsbn());
+                        ps.setString(2, b.getName());
+                        ps.setString(3, b.getAuthor());
+                        ps.setDate(4, Date.valueOf(b.getPublishDate()));
+                        ps.setBigDecimal(5, b.getPrice());
+                        ps.setString(6, b.getBookType().name());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            Book b = books.get(keyed++);
+                            b.setId(keys.getLong(1));
+                            b.setVersion(0L);
+                        }
+                    }
+                }
+                if (keyed != books.size()) {
+                    throw new IllegalStateException("Got " + keyed + " generated ids for " + books.size() + " inserted books");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Writes price and book type of existing books, by id, with JDBC batching, and
+     * bumps their version in the database and on the given books.
+     *
+     * <p>Each row is only written if it still has the version it was read at, so a
+     * concurrent update is never overwritten.
+     *
+     * @param books books with an id and the version they were read at
+     * @param batchSize rows sent to the driver per batch
+     * @throws OptimisticLockingFailureException if any of the books was updated or deleted
+     *         since it was read; the caller's transaction must roll back
+     */
+    public void updatePriceAndType(List<Book> books, int batchSize) {
+        int[][] counts = jdbc.batchUpdate(UPDATE_PRICE_AND_TYPE, books, batchSize, (ps, b) -> {
+            ps.setBigDecimal(1, b.getPrice());
+            ps.setString(2, b.getBookType().name());
+            ps.setLong(3, b.getId());
+            ps.setLong(4, b.getVersion());
+        });
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new OptimisticLockingFailureException("Book " + books.get(i).getIsbn()
+                            + " was changed by another transaction since version " + books.get(i).getVersion());
+                }
+                i++;
+            }
+        }
+        for (Book b : books) {
+            b.setVersion(b.getVersion() + 1);
+        }
+    }
+
+    /**
+     * Appends changes to the outbox and sets their sequence numbers and timestamp.
+     *
+     * <p>The sequence numbers are reserved by bumping {@code book_change_head}, which
+     * row-locks it until the caller's transaction ends. Call this as late as possible
+     * before the commit: concurrent writers queue on the lock, which is what makes
+     * sequence numbers become visible in increasing order.
+     *
+     * @param changes changes in the order they were made, without a sequence number
+     * @param batchSize rows sent to the driver per batch
+     */
+    public void appendChanges(List<BookChange> changes, int batchSize) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbc.update("UPDATE book_change_head SET last_seq = last_seq + ? WHERE id = 1", changes.size());
+        long seq = lastChangeSeq() - changes.size();
+        Instant now = Instant.now();
+        for (BookChange c : changes) {
+            c.setSeq(++seq);
+            c.setChangedAt(now);
+        }
+        jdbc.batchUpdate(INSERT_CHANGE, changes, batchSize, (ps, c) -> {
+            ps.setLong(1, c.getSeq());
+            ps.setString(2, c.getChangeType().name());
+            ps.setString(3, c.getIsbn());
+            ps.setString(4, c.getName());
+            ps.setString(5, c.getAuthor());
+            ps.setObject(6, c.getPublishDate() == null ? null : Date.valueOf(c.getPublishDate()), Types.DATE);
+            ps.setBigDecimal(7, c.getPrice());
+            ps.setString(8, c.getBookType() == null ? null : c.getBookType().name());
+            ps.setLong(9, c.getVersion());
+            ps.setTimestamp(10, Timestamp.from(c.getChangedAt()));
+        });
+    }
+
+    /**
+     * @return the sequence number of the latest change appended to the outbox, 0 if none
+     */
+    public long lastChangeSeq() {
+        return jdbc.queryForObject("SELECT last_seq FROM book_change_head WHERE id = 1", Long.class);
+    }
+
+    /**
+     * @return the sequence number up to which changes have been purged, 0 if none
+     */
+    public long purgedChangeSeq() {
+        return jdbc.queryForObject("SELECT purged_seq FROM book_change_head WHERE id = 1", Long.class);
+    }
+
+    /**
+     * Deletes the changes made before the cutoff and records the highest sequence
+     * number deleted, so readers can tell a purged range from an empty one.
+     *
+     * @param cutoff changes older than this are deleted
+     * @return number of changes deleted
+     */
+    public int purgeChanges(Instant cutoff) {
+        jdbc.update("UPDATE book_change_head SET purged_seq = COALESCE("
+                + "(SELECT MAX(seq) FROM book_change WHERE changed_at < ?), purged_seq) WHERE id = 1",
+                Timestamp.from(cutoff));
+        return jdbc.update("DELETE FROM book_change WHERE seq <= (SELECT purged_seq FROM book_change_head WHERE id = 1)");
+    }
+
+    private static void setLazyQueryExecution(Connection con, boolean lazy) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    private static String prefixed(String alias) {
+        return alias + "." + BOOK_COLUMNS.replace(", ", ", " + alias + ".");
+    }
+}
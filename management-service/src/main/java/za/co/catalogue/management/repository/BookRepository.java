@@ -1,6 +1,8 @@
 package za.co.catalogue.management.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 import za.co.catalogue.management.model.Book;
@@ -13,10 +15,11 @@ import java.util.Optional;
  * Repository interface for Book entity operations.
  * 
  * <p>Extends JpaRepository to provide standard CRUD operations.
- * Additional query methods are defined for finding books by various criteria.
+ * Additional query methods are defined for finding books by various criteria;
+ * filtered, sorted listings are built as specifications.
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
     /**
      * Finds a book by its ISBN.
      * 
@@ -78,13 +81,18 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findAllByAuthor(@NonNull String author);
 
     /**
-     * Checks if a book exists with the given ISBN.
-     * 
-     * @param isbn the ISBN to check (must not be null)
-     * @return true if a book exists with this ISBN, false otherwise
+     * Finds the books whose id is greater than the given id, in ascending id order.
+     *
+     * <p>Used for keyset pagination: the caller passes the last id of the previous
+     * page and limits the result size through the pageable, so the query is an index
+     * range scan on the primary key no matter how deep the page is.
+     *
+     * @param id the last id already returned (exclusive lower bound)
+     * @param pageable page size limit; the page number must be 0
+     * @return the next books in id order
      */
-    boolean existsByIsbn(@NonNull String isbn);
-    
+    List<Book> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
     /**
      * Deletes a book by its ISBN.
      * 
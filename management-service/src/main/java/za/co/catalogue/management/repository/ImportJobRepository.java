@@ -0,0 +1,24 @@
+package za.co.catalogue.management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.co.catalogue.management.model.ImportJob;
+import za.co.catalogue.management.model.ImportStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for bulk import jobs.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    /**
+     * Finds the jobs in any of the given states.
+     *
+     * @param statuses the states to match
+     * @return matching jobs
+     */
+    List<ImportJob> findByStatusIn(Collection<ImportStatus> statuses);
+}
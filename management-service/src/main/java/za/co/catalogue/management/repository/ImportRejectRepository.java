@@ -0,0 +1,26 @@
+package za.co.catalogue.management.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.co.catalogue.management.model.ImportReject;
+
+import java.util.List;
+
+/**
+ * Repository for the rejected records of import jobs.
+ */
+@Repository
+public interface ImportRejectRepository extends JpaRepository<ImportReject, Long> {
+
+    /**
+     * Finds the rejects of a job after the given record, in file order.
+     *
+     * @param jobId the import job
+     * @param recordNumber the last record number already returned (exclusive lower bound)
+     * @param pageable page size limit; the page number must be 0
+     * @return the next rejects in record order
+     */
+    List<ImportReject> findByJobIdAndRecordNumberGreaterThanOrderByRecordNumberAsc(
+            long jobId, long recordNumber, Pageable pageable);
+}
@@ -0,0 +1,114 @@
+package za.co.catalogue.management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.dto.CacheStatsResponse;
+import za.co.catalogue.management.model.Book;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link BookResponse}s keyed by ISBN.
+ *
+ * <p>Entries are evicted when the cache is full or when they are older than the
+ * configured TTL. Committed changes update the cache through {@link BookChangedEvent}:
+ * new books are added, updated and deleted books are invalidated.
+ *
+ * <p>Loads run inside the cache's per-key computation, so an invalidation that
+ * arrives while a load is in flight waits for it and then removes the loaded value;
+ * a pre-update row can therefore not outlive the update that replaced it.
+ *
+ * <p>Size, hits, misses and evictions are published as the {@code cache.*} metrics
+ * with {@code cache=books}, invalidations as {@code cache.invalidations}.
+ */
+@Component
+class BookCache implements MeterBinder {
+
+    private final Cache<String, BookResponse> cache;
+    private final BookServiceImpl.Mapper mapper = new BookServiceImpl.Mapper();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    BookCache(@Value("${app.books.cache.max-size:10000}") long maxSize,
+              @Value("${app.books.cache.ttl:PT10M}") Duration ttl) {
+        this(maxSize, ttl, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param maintenance runs eviction work; tests pass a same-thread executor so the
+     *                    size bound holds as soon as a call returns
+     */
+    BookCache(long maxSize, Duration ttl, Executor maintenance) {
+        this.cache = Caffeine.newBuilder()
+                .executor(maintenance)
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached book, loading and caching it on a miss.
+     *
+     * @param isbn the ISBN
+     * @param loader loads the book from the database; may return null, which is not cached
+     * @return the book, or null if the loader found nothing
+     */
+    BookResponse get(String isbn, Function<String, BookResponse> loader) {
+        return cache.get(isbn, loader);
+    }
+
+    /**
+     * Keeps the cache in line with a committed change.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBookChanged(BookChangedEvent event) {
+        Book previous = event.getPrevious();
+        Book current = event.getCurrent();
+        if (previous != null) {
+            invalidate(previous.getIsbn());
+        } else if (current != null) {
+            cache.put(current.getIsbn(), mapper.toDto(current));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books");
+        FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::sum)
+                .tag("cache", "books")
+                .description("Entries removed because the book changed")
+                .register(registry);
+    }
+
+    /**
+     * @return counters since startup
+     */
+    CacheStatsResponse stats() {
+        cache.cleanUp(); // run pending eviction work so size and eviction counts are current
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), invalidations.sum());
+    }
+
+    private void invalidate(String isbn) {
+        cache.invalidate(isbn);
+        invalidations.increment();
+    }
+}
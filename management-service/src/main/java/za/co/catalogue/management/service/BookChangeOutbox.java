@@ -0,0 +1,95 @@
+package za.co.catalogue.management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookChange;
+import za.co.catalogue.management.model.BookChangeType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records every {@link BookChangedEvent} in the {@code book_change} outbox, in the
+ * transaction that made the change.
+ *
+ * <p>Changes are collected while the transaction runs and written with one JDBC
+ * batch just before it commits, so a bulk import appends its changes in a few round
+ * trips and holds the outbox head lock only for the tail of the transaction. A
+ * transaction that rolls back leaves no trace in the outbox.
+ */
+@Component
+class BookChangeOutbox {
+
+    private final BookJdbcRepository jdbcRepo;
+    private final int jdbcBatchSize;
+
+    BookChangeOutbox(BookJdbcRepository jdbcRepo,
+                     @Value("${app.books.batch.jdbc-batch-size:1000}") int jdbcBatchSize) {
+        this.jdbcRepo = jdbcRepo;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Queues the change for the current transaction, or writes it at once if there is none.
+     *
+     * @param event the change
+     */
+    @EventListener
+    void onBookChanged(BookChangedEvent event) {
+        BookChange change = toChange(event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcRepo.appendChanges(Collections.singletonList(change), jdbcBatchSize);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    private static BookChange toChange(BookChangedEvent event) {
+        Book book = event.getCurrent();
+        BookChange change = new BookChange();
+        if (book == null) {
+            change.setChangeType(BookChangeType.DELETED);
+            change.setIsbn(event.getPrevious().getIsbn());
+            change.setVersion(event.getPrevious().getVersion());
+            return change;
+        }
+        change.setChangeType(event.getPrevious() == null ? BookChangeType.CREATED : BookChangeType.UPDATED);
+        change.setIsbn(book.getIsbn());
+        change.setName(book.getName());
+        change.setAuthor(book.getAuthor());
+        change.setPublishDate(book.getPublishDate());
+        change.setPrice(book.getPrice());
+        change.setBookType(book.getBookType());
+        change.setVersion(book.getVersion());
+        return change;
+    }
+
+    /**
+     * The changes of one transaction, written before it commits.
+     */
+    private final class Pending implements TransactionSynchronization {
+        private final List<BookChange> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcRepo.appendChanges(changes, jdbcBatchSize);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeOutbox.this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package za.co.catalogue.management.service;
+
+import za.co.catalogue.management.dto.BookChangePage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Incremental feed of committed catalogue changes.
+ *
+ * <p>Every create, update and delete is appended to an outbox with a sequence number
+ * that increases in commit order. A consumer keeps the {@code last} value of the page
+ * it processed and asks for the changes after it, instead of re-reading the catalogue.
+ * Changes older than the configured retention are purged; a consumer that falls
+ * further behind gets a {@link za.co.catalogue.management.exception.GoneException}
+ * and has to reload the catalogue. So does a consumer whose position is ahead of the
+ * outbox, which happens when an in-memory database restarts and the sequence begins
+ * again at 0.
+ */
+public interface BookChangeService {
+
+    /**
+     * Returns the changes after a sequence number.
+     *
+     * <p>Without a position, returns the current position and no changes: a new
+     * consumer reads this first, then loads the catalogue, then follows the changes
+     * from there. Changes that raced with the load are applied again, which is harmless
+     * since every change carries the full book.
+     *
+     * @param since the {@code last} value of the previous page, or null
+     * @param limit maximum number of changes, or null for the default
+     * @return the next changes in sequence order
+     * @throws za.co.catalogue.management.exception.BadRequestException if the position or limit is invalid
+     * @throws za.co.catalogue.management.exception.GoneException if changes after {@code since} have been purged,
+     *         or {@code since} is beyond the last change
+     */
+    BookChangePage getChanges(Long since, Integer limit);
+
+    /**
+     * Like {@link #getChanges}, but if there are no changes yet, completes as soon as
+     * one is committed on this instance or when the wait is over, whichever comes first.
+     * A wait that runs out completes with an empty page.
+     *
+     * @param since the {@code last} value of the previous page, or null
+     * @param limit maximum number of changes, or null for the default
+     * @param waitSeconds how long to wait for a change; capped server-side, 0 answers at once
+     * @return the next changes in sequence order
+     * @throws za.co.catalogue.management.exception.BadRequestException if the position, limit or wait is invalid
+     * @throws za.co.catalogue.management.exception.GoneException if changes after {@code since} have been purged,
+     *         or {@code since} is beyond the last change
+     */
+    CompletableFuture<BookChangePage> awaitChanges(Long since, Integer limit, int waitSeconds);
+}
@@ -0,0 +1,215 @@
+package za.co.catalogue.management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.catalogue.management.dto.BookChangePage;
+import za.co.catalogue.management.dto.BookChangeResponse;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.exception.GoneException;
+import za.co.catalogue.management.model.BookChange;
+import za.co.catalogue.management.model.BookChangeType;
+import za.co.catalogue.management.repository.BookChangeRepository;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the change outbox and parks long-poll requests until a change commits.
+ *
+ * <p>Waiting requests hold no thread: each is a future in a queue. A commit on this
+ * instance schedules one wake-up, which re-reads the outbox for every waiter; commits
+ * made by other instances are seen when the wait runs out and the consumer polls again.
+ */
+@Service
+class BookChangeServiceImpl implements BookChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeServiceImpl.class);
+
+    private final BookChangeRepository repo;
+    private final BookJdbcRepository jdbcRepo;
+    private final ScheduledExecutorService scheduler;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Duration maxWait;
+
+    BookChangeServiceImpl(BookChangeRepository repo,
+                          BookJdbcRepository jdbcRepo,
+                          @Value("${app.books.changes.default-limit:100}") int defaultLimit,
+                          @Value("${app.books.changes.max-limit:1000}") int maxLimit,
+                          @Value("${app.books.changes.max-wait:PT60S}") Duration maxWait,
+                          @Value("${app.books.changes.retention:P7D}") Duration retention,
+                          @Value("${app.books.changes.purge-interval:PT1H}") Duration purgeInterval) {
+        this.repo = repo;
+        this.jdbcRepo = jdbcRepo;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxWait = maxWait;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("book-changes-"));
+        scheduler.scheduleWithFixedDelay(() -> purge(retention),
+                purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the changes before the purge position, so a purge racing with the read
+     * is reported as 410 rather than returned as a gap. A position past the last
+     * change was handed out by an earlier database (the sequence restarts with an
+     * in-memory one); answering it with an empty page would skip every change up to
+     * it, so it is 410 too.
+     */
+    @Override
+    public BookChangePage getChanges(Long since, Integer limit) {
+        int max = limit == null ? defaultLimit : limit;
+        if (max < 1) {
+            throw new BadRequestException("Change limit must be at least 1, got '%s'", String.valueOf(max));
+        }
+        max = Math.min(max, maxLimit);
+        if (since == null) {
+            return new BookChangePage(Collections.emptyList(), jdbcRepo.lastChangeSeq(), false);
+        }
+        if (since < 0) {
+            throw new BadRequestException("Change position must not be negative, got '%s'", String.valueOf(since));
+        }
+
+        List<BookChange> rows = repo.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, max + 1));
+        if (since < jdbcRepo.purgedChangeSeq()) {
+            throw new GoneException("Changes after '%s' have been purged; reload the catalogue", String.valueOf(since));
+        }
+        if (rows.isEmpty() && since > jdbcRepo.lastChangeSeq()) {
+            throw new GoneException("Change position '%s' is ahead of the catalogue; reload the catalogue", String.valueOf(since));
+        }
+        boolean more = rows.size() > max;
+        if (more) {
+            rows = rows.subList(0, max);
+        }
+        long last = rows.isEmpty() ? since : rows.get(rows.size() - 1).getSeq();
+        return new BookChangePage(rows.stream().map(BookChangeServiceImpl::toDto).collect(Collectors.toList()), last, more);
+    }
+
+    /**
+     * Registers the waiter before the first read, so a change committed in between
+     * wakes it instead of being missed until the wait runs out.
+     */
+    @Override
+    public CompletableFuture<BookChangePage> awaitChanges(Long since, Integer limit, int waitSeconds) {
+        if (waitSeconds < 0) {
+            throw new BadRequestException("Wait must not be negative, got '%s'", String.valueOf(waitSeconds));
+        }
+        if (since == null || waitSeconds == 0) {
+            return CompletableFuture.completedFuture(getChanges(since, limit));
+        }
+
+        Waiter waiter = new Waiter(since, limit);
+        waiters.add(waiter);
+        BookChangePage page;
+        try {
+            page = getChanges(since, limit);
+        } catch (RuntimeException e) {
+            waiters.remove(waiter);
+            throw e;
+        }
+        if (!page.getItems().isEmpty()) {
+            waiters.remove(waiter);
+            return CompletableFuture.completedFuture(page);
+        }
+
+        long waitMillis = Math.min(TimeUnit.SECONDS.toMillis(waitSeconds), maxWait.toMillis());
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> waiter.future.complete(page), waitMillis, TimeUnit.MILLISECONDS);
+        waiter.future.whenComplete((result, error) -> {
+            waiters.remove(waiter);
+            timeout.cancel(false);
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Wakes the waiting requests once the change is committed. A batch publishes many
+     * events per commit; they share one wake-up.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBookChanged(BookChangedEvent event) {
+        if (!waiters.isEmpty() && wakeScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::wakeWaiters);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ---------- helper methods ----------
+
+    private void wakeWaiters() {
+        wakeScheduled.set(false);
+        for (Waiter waiter : waiters) {
+            if (waiter.future.isDone()) {
+                continue;
+            }
+            try {
+                BookChangePage page = getChanges(waiter.since, waiter.limit);
+                if (!page.getItems().isEmpty()) {
+                    waiter.future.complete(page);
+                }
+            } catch (RuntimeException e) {
+                waiter.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void purge(Duration retention) {
+        try {
+            int purged = jdbcRepo.purgeChanges(Instant.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} catalogue changes older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge catalogue changes", e);
+        }
+    }
+
+    private static BookChangeResponse toDto(BookChange c) {
+        BookResponse book = c.getChangeType() == BookChangeType.DELETED ? null : new BookResponse(
+                c.getIsbn(), c.getName(), c.getAuthor(), c.getPublishDate(), c.getPrice(), c.getBookType(), c.getVersion());
+        return new BookChangeResponse(c.getSeq(), c.getChangeType(), c.getIsbn(), c.getVersion(), book, c.getChangedAt());
+    }
+
+    // ---------- inner classes ----------
+
+    /**
+     * A long-poll request waiting for changes after {@code since}.
+     */
+    private static final class Waiter {
+        private final long since;
+        private final Integer limit;
+        private final CompletableFuture<BookChangePage> future = new CompletableFuture<>();
+
+        private Waiter(long since, Integer limit) {
+            this.since = since;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package za.co.catalogue.management.service;
+
+import za.co.catalogue.management.model.Book;
+
+/**
+ * Published by {@link BookService} whenever a book is created, updated or deleted.
+ *
+ * <p>Listeners that keep derived state in sync (such as the search index) should use
+ * {@code @TransactionalEventListener} so they only see changes that were committed.
+ * Both snapshots are detached copies and must not be modified.
+ */
+public final class BookChangedEvent {
+
+    private final Book previous;
+    private final Book current;
+
+    private BookChangedEvent(Book previous, Book current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    static BookChangedEvent created(Book current) {
+        return new BookChangedEvent(null, current);
+    }
+
+    static BookChangedEvent updated(Book previous, Book current) {
+        return new BookChangedEvent(previous, current);
+    }
+
+    static BookChangedEvent deleted(Book previous) {
+        return new BookChangedEvent(previous, null);
+    }
+
+    /**
+     * @return the book as it was before the change, or null if it was just created
+     */
+    public Book getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return the book as it is after the change, or null if it was deleted
+     */
+    public Book getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,72 @@
+package za.co.catalogue.management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import za.co.catalogue.management.dto.BookExportResult;
+import za.co.catalogue.management.model.BookFileFormat;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command-line export: when {@code app.books.export.file} is set, the catalogue is
+ * written to that file and the application exits.
+ *
+ * <pre>
+ * java -jar management-service.jar --spring.main.web-application-type=none \
+ *      --app.books.export.file=/data/books.csv.gz
+ * </pre>
+ *
+ * <p>The format comes from {@code app.books.export.format} or the file extension;
+ * a {@code .gz} suffix gzips the output.
+ */
+@Component
+@ConditionalOnProperty("app.books.export.file")
+class BookExportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookExportRunner.class);
+
+    private final BookExportService exportService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final BookFileFormat format;
+
+    BookExportRunner(BookExportService exportService,
+                     ConfigurableApplicationContext context,
+                     @Value("${app.books.export.file}") String file,
+                     @Value("${app.books.export.format:#{null}}") BookFileFormat format) {
+        this.exportService = exportService;
+        this.context = context;
+        this.file = Paths.get(file);
+        this.format = format != null ? format : BookFileFormat.fromFileName(file);
+        if (this.format == null) {
+            throw new IllegalArgumentException("Cannot tell the export format of '" + file
+                    + "'; set app.books.export.format to CSV or NDJSON");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        boolean gzip = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+        BookExportResult result;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            result = exportService.export(format, gzip, out);
+        }
+        double seconds = Math.max(result.getMillis(), 1) / 1000.0;
+        log.info("Exported {} books to {} ({} bytes) in {} ms: {} rows/s, {} MB/s",
+                result.getRows(), file, result.getBytes(), result.getMillis(),
+                String.format("%.0f", result.getRows() / seconds),
+                String.format("%.1f", result.getBytes() / seconds / (1 << 20)));
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
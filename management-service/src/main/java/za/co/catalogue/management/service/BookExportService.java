@@ -0,0 +1,28 @@
+package za.co.catalogue.management.service;
+
+import za.co.catalogue.management.dto.BookExportResult;
+import za.co.catalogue.management.model.BookFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Dumps the whole catalogue as CSV or NDJSON.
+ *
+ * <p>Rows go from a database cursor straight into the writer, so memory use does
+ * not depend on the size of the catalogue. The CSV columns match what the bulk
+ * import reads, plus the ISBN and the row version, which the import ignores.
+ */
+public interface BookExportService {
+
+    /**
+     * Writes every book, in id order, to the given stream. The stream is not closed.
+     *
+     * @param format CSV or NDJSON
+     * @param gzip whether to gzip the output
+     * @param out the target stream
+     * @return rows and bytes written
+     * @throws IOException if writing to the stream fails
+     */
+    BookExportResult export(BookFileFormat format, boolean gzip, OutputStream out) throws IOException;
+}
@@ -0,0 +1,282 @@
+package za.co.catalogue.management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.catalogue.management.dto.AuthorCount;
+import za.co.catalogue.management.dto.BookFacetsResponse;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory summary of the catalogue: counts by book type, author and publish year,
+ * and price minimum, maximum and average.
+ *
+ * <p>The summary is loaded from the database on startup and kept current from
+ * {@link BookChangedEvent}s after each commit, so reading it never touches the
+ * catalogue. Every change costs a few map updates, logarithmic in the number of
+ * distinct authors or prices. Authors are also kept ordered by count, so the top
+ * authors are read off the front rather than sorted per request.
+ *
+ * <p>After-commit events of concurrent transactions can arrive out of order, and an
+ * event's {@code previous} snapshot need not be what was counted. So each ISBN's
+ * counted state is kept with its version. Changes are applied against that state, and
+ * an event older than it is dropped. A deleted book leaves a tombstone, so that a late
+ * update to it is dropped as well; ISBNs are never reused.
+ *
+ * <p>Reads share a read lock; writes take the write lock.
+ */
+@Component
+class BookFacets {
+
+    private static final Logger log = LoggerFactory.getLogger(BookFacets.class);
+
+    /** Most books first; ties by name, so the order is total. */
+    private static final Comparator<Tally> BY_COUNT = Comparator.comparingLong((Tally t) -> t.count).reversed()
+            .thenComparing(t -> t.author);
+
+    private final BookJdbcRepository jdbcRepo;
+    private final int loadFetchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BookType, Long> byType = new EnumMap<>(BookType.class);
+    private final TreeMap<Integer, Long> byYear = new TreeMap<>();
+    private final Map<String, Tally> byAuthor = new HashMap<>();
+    private final TreeSet<Tally> authorsByCount = new TreeSet<>(BY_COUNT);
+    /** Number of books at each price; its first and last keys are the minimum and maximum. */
+    private final TreeMap<BigDecimal, Long> prices = new TreeMap<>();
+    private BigDecimal priceSum = BigDecimal.ZERO;
+    private long total;
+    /** What is counted for each ISBN, or a tombstone for a deleted book. */
+    private final Map<String, Counted> counted = new HashMap<>();
+
+    BookFacets(BookJdbcRepository jdbcRepo,
+               @Value("${app.books.stream.fetch-size:500}") int loadFetchSize) {
+        this.jdbcRepo = jdbcRepo;
+        this.loadFetchSize = loadFetchSize;
+    }
+
+    /**
+     * Builds the summary from the current contents of the catalogue.
+     */
+    @PostConstruct
+    void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            byType.clear();
+            byYear.clear();
+            byAuthor.clear();
+            authorsByCount.clear();
+            prices.clear();
+            priceSum = BigDecimal.ZERO;
+            total = 0;
+            counted.clear();
+            jdbcRepo.streamAll(loadFetchSize, this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalogue facets loaded {} books ({} authors) in {} ms",
+                total, byAuthor.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed catalogue change to the summary, unless a newer version of
+     * the book is already counted. A delete beats a create or update of the same version.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBookChanged(BookChangedEvent event) {
+        Book book = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+        long version = versionOf(book);
+        lock.writeLock().lock();
+        try {
+            Counted current = counted.get(book.getIsbn());
+            if (current != null && (current.version > version
+                    || current.version == version && current.deleted && event.getCurrent() != null)) {
+                log.debug("Dropped out-of-order change of {} at version {}; version {} is already applied",
+                        book.getIsbn(), version, current.version);
+                return;
+            }
+            if (event.getCurrent() != null) {
+                addUnlocked(event.getCurrent());
+            } else {
+                removeUnlocked(book.getIsbn());
+                counted.put(book.getIsbn(), Counted.deleted(version));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a book to the summary, replacing what was counted for its ISBN.
+     *
+     * @param book the book
+     */
+    void add(Book book) {
+        lock.writeLock().lock();
+        try {
+            addUnlocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes a book out of the summary.
+     *
+     * @param book the book; only its ISBN is used
+     */
+    void remove(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(book.getIsbn());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param authorLimit maximum number of authors to list
+     * @return a copy of the summary
+     */
+    BookFacetsResponse snapshot(int authorLimit) {
+        lock.readLock().lock();
+        try {
+            Map<BookType, Long> types = new LinkedHashMap<>();
+            for (BookType type : BookType.values()) {
+                types.put(type, byType.getOrDefault(type, 0L));
+            }
+            List<AuthorCount> authors = new ArrayList<>(Math.min(authorLimit, authorsByCount.size()));
+            Iterator<Tally> it = authorsByCount.iterator();
+            while (authors.size() < authorLimit && it.hasNext()) {
+                Tally t = it.next();
+                authors.add(new AuthorCount(t.author, t.count));
+            }
+            BigDecimal average = total == 0 ? null
+                    : priceSum.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP);
+            return new BookFacetsResponse(total, types, new LinkedHashMap<>(byYear), authors, byAuthor.size(),
+                    total == 0 ? null : prices.firstKey(), total == 0 ? null : prices.lastKey(), average);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- internals; callers hold the write lock ----------
+
+    private void addUnlocked(Book book) {
+        removeUnlocked(book.getIsbn());
+        Counted c = new Counted(book);
+        counted.put(book.getIsbn(), c);
+
+        total++;
+        byType.merge(c.bookType, 1L, Long::sum);
+        byYear.merge(c.year, 1L, Long::sum);
+        prices.merge(c.price, 1L, Long::sum);
+        priceSum = priceSum.add(c.price);
+
+        Tally tally = byAuthor.get(c.author);
+        if (tally == null) {
+            tally = new Tally(c.author);
+            byAuthor.put(c.author, tally);
+        } else {
+            authorsByCount.remove(tally);
+        }
+        tally.count++;
+        authorsByCount.add(tally);
+    }
+
+    /**
+     * Takes out what is counted for the ISBN, if anything; leaves no tombstone.
+     */
+    private void removeUnlocked(String isbn) {
+        Counted c = counted.remove(isbn);
+        if (c == null || c.deleted) {
+            return;
+        }
+        total--;
+        decrement(byType, c.bookType);
+        decrement(byYear, c.year);
+        decrement(prices, c.price);
+        priceSum = priceSum.subtract(c.price);
+
+        Tally tally = byAuthor.get(c.author);
+        authorsByCount.remove(tally);
+        if (--tally.count == 0) {
+            byAuthor.remove(c.author);
+        } else {
+            authorsByCount.add(tally);
+        }
+    }
+
+    private static <K> void decrement(Map<K, Long> counts, K key) {
+        counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static long versionOf(Book book) {
+        return book.getVersion() == null ? 0 : book.getVersion();
+    }
+
+    /**
+     * The fields of one book that the summary counts, at the version they were read.
+     */
+    private static final class Counted {
+        final long version;
+        final boolean deleted;
+        final String author;
+        final BookType bookType;
+        final int year;
+        final BigDecimal price;
+
+        Counted(Book book) {
+            this(versionOf(book), false, book.getAuthor(), book.getBookType(),
+                    book.getPublishDate().getYear(), book.getPrice());
+        }
+
+        private Counted(long version, boolean deleted, String author, BookType bookType, int year, BigDecimal price) {
+            this.version = version;
+            this.deleted = deleted;
+            this.author = author;
+            this.bookType = bookType;
+            this.year = year;
+            this.price = price;
+        }
+
+        static Counted deleted(long version) {
+            return new Counted(version, true, null, null, 0, null);
+        }
+    }
+
+    /**
+     * Books by one author. Its count must not change while it is in {@code authorsByCount}.
+     */
+    private static final class Tally {
+        final String author;
+        long count;
+
+        Tally(String author) {
+            this.author = author;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package za.co.catalogue.management.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import za.co.catalogue.management.dto.ImportJobResponse;
+import za.co.catalogue.management.dto.ImportRejectResponse;
+import za.co.catalogue.management.model.BookFileFormat;
+
+import java.util.List;
+
+/**
+ * Bulk import of CSV and NDJSON book files.
+ *
+ * <p>Jobs run in the background. Each batch of records is validated and written
+ * in its own transaction together with the job's checkpoint, so a failed or
+ * interrupted job can be resumed from its last committed batch.
+ */
+public interface BookImportService {
+
+    /**
+     * Starts importing a file from the import base directory.
+     *
+     * @param path file path relative to the base directory
+     * @param format the file format, or null to derive it from the file name
+     * @return the queued job
+     * @throws za.co.catalogue.management.exception.BadRequestException if the path is outside
+     *         the base directory, not a file, or the format is unknown
+     */
+    ImportJobResponse startFromPath(String path, BookFileFormat format);
+
+    /**
+     * Stores an uploaded file under the base directory and starts importing it.
+     *
+     * @param file the uploaded file
+     * @param format the file format, or null to derive it from the original file name
+     * @return the queued job
+     * @throws za.co.catalogue.management.exception.BadRequestException if the file is empty
+     *         or the format is unknown
+     */
+    ImportJobResponse startFromUpload(MultipartFile file, BookFileFormat format);
+
+    /**
+     * Restarts a failed job after its last committed batch.
+     *
+     * @param id the job id
+     * @return the queued job
+     * @throws za.co.catalogue.management.exception.NotFoundException if the job does not exist
+     * @throws za.co.catalogue.management.exception.ConflictException if the job is not failed
+     */
+    ImportJobResponse resume(long id);
+
+    /**
+     * Retrieves the progress of a job.
+     *
+     * @param id the job id
+     * @return the job
+     * @throws za.co.catalogue.management.exception.NotFoundException if the job does not exist
+     */
+    ImportJobResponse get(long id);
+
+    /**
+     * Retrieves rejected records of a job in file order.
+     *
+     * @param id the job id
+     * @param after last record number already seen, or null to start at the beginning
+     * @param limit maximum number of rejects, or null for the configured default
+     * @return the rejects
+     * @throws za.co.catalogue.management.exception.NotFoundException if the job does not exist
+     */
+    List<ImportRejectResponse> getRejects(long id, Long after, Integer limit);
+}
@@ -0,0 +1,369 @@
+package za.co.catalogue.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import za.co.catalogue.management.dto.BookBatchItemResult;
+import za.co.catalogue.management.dto.BookBatchResponse;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.ImportJobResponse;
+import za.co.catalogue.management.dto.ImportRejectResponse;
+import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.exception.NotFoundException;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.model.ImportJob;
+import za.co.catalogue.management.model.ImportReject;
+import za.co.catalogue.management.model.ImportStatus;
+import za.co.catalogue.management.repository.ImportJobRepository;
+import za.co.catalogue.management.repository.ImportRejectRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+class BookImportServiceImpl implements BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportServiceImpl.class);
+    private static final int MAX_ERROR_LENGTH = 2000;
+    /** Attempts per batch when it loses a race with a concurrent update of one of its books. */
+    private static final int COMMIT_ATTEMPTS = 3;
+
+    private final BookService books;
+    private final ImportJobRepository jobs;
+    private final ImportRejectRepository rejects;
+    private final TransactionTemplate transactions;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+
+    private final Path baseDir;
+    private final int batchSize;
+    private final long maxStoredRejects;
+    private final int defaultRejectLimit;
+    private final int maxRejectLimit;
+
+    BookImportServiceImpl(BookService books,
+                          ImportJobRepository jobs,
+                          ImportRejectRepository rejects,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          @Value("${app.books.import.base-dir:${java.io.tmpdir}/catalogue-imports}") String baseDir,
+                          @Value("${app.books.import.batch-size:5000}") int batchSize,
+                          @Value("${app.books.import.threads:1}") int threads,
+                          @Value("${app.books.import.max-stored-rejects:10000}") long maxStoredRejects,
+                          @Value("${app.books.import.rejects.default-limit:100}") int defaultRejectLimit,
+                          @Value("${app.books.import.rejects.max-limit:1000}") int maxRejectLimit) throws IOException {
+        this.books = books;
+        this.jobs = jobs;
+        this.rejects = rejects;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("book-import-"));
+        this.baseDir = Files.createDirectories(Paths.get(baseDir)).toRealPath();
+        this.batchSize = batchSize;
+        this.maxStoredRejects = maxStoredRejects;
+        this.defaultRejectLimit = defaultRejectLimit;
+        this.maxRejectLimit = maxRejectLimit;
+    }
+
+    @Override
+    public ImportJobResponse startFromPath(String path, BookFileFormat format) {
+        Path file = resolveSource(path);
+        return start(file, format != null ? format : formatOf(file.getFileName().toString()));
+    }
+
+    /**
+     * Moves the upload into {@code <base-dir>/uploads} first, so the job (and a later
+     * resume) reads a file the service owns rather than the container's temporary copy.
+     */
+    @Override
+    public ImportJobResponse startFromUpload(MultipartFile file, BookFileFormat format) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Upload part '%s' must not be empty", "file");
+        }
+        String name = file.getOriginalFilename() == null ? "upload" : Paths.get(file.getOriginalFilename())
+                .getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        BookFileFormat resolved = format != null ? format : formatOf(name);
+        try {
+            Path target = Files.createDirectories(baseDir.resolve("uploads")).resolve(UUID.randomUUID() + "-" + name);
+            file.transferTo(target);
+            return start(target, resolved);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store upload " + name, e);
+        }
+    }
+
+    @Override
+    public synchronized ImportJobResponse resume(long id) {
+        ImportJob job = find(id);
+        if (job.getStatus() != ImportStatus.FAILED) {
+            throw new ConflictException("Import " + id + " is " + job.getStatus() + "; only FAILED imports can be resumed");
+        }
+        job.setStatus(ImportStatus.QUEUED);
+        job.setError(null);
+        job.setUpdatedAt(Instant.now());
+        ImportJob saved = jobs.save(job);
+        executor.execute(() -> run(saved.getId()));
+        return toDto(saved);
+    }
+
+    @Override
+    public ImportJobResponse get(long id) {
+        return toDto(find(id));
+    }
+
+    @Override
+    public List<ImportRejectResponse> getRejects(long id, Long after, Integer limit) {
+        find(id);
+        int max = limit == null ? defaultRejectLimit : limit;
+        if (max < 1) {
+            throw new BadRequestException("Reject limit must be at least 1, got '%s'", String.valueOf(max));
+        }
+        return rejects.findByJobIdAndRecordNumberGreaterThanOrderByRecordNumberAsc(
+                        id, after == null ? 0 : after, PageRequest.of(0, Math.min(max, maxRejectLimit)))
+                .stream()
+                .map(r -> new ImportRejectResponse(r.getRecordNumber(), r.getLineNumber(), r.getErrors()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Jobs that were queued or running when the service stopped did not finish; mark
+     * them failed so they can be resumed from their checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ImportJob> interrupted = jobs.findByStatusIn(Arrays.asList(ImportStatus.QUEUED, ImportStatus.RUNNING));
+        for (ImportJob job : interrupted) {
+            job.setStatus(ImportStatus.FAILED);
+            job.setError("Interrupted by a restart after " + job.getRecordsCommitted() + " records");
+            job.setUpdatedAt(Instant.now());
+        }
+        jobs.saveAll(interrupted);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // a running job stops after its current batch and is failed at the next start
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // ---------- helper methods ----------
+
+    private ImportJobResponse start(Path file, BookFileFormat format) {
+        ImportJob job = new ImportJob();
+        job.setSource(file.toString());
+        job.setFormat(format);
+        job.setStatus(ImportStatus.QUEUED);
+        try {
+            job.setBytesTotal(Files.size(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        ImportJob saved = jobs.save(job);
+        executor.execute(() -> run(saved.getId()));
+        return toDto(saved);
+    }
+
+    /**
+     * Reads the file after the job's checkpoint and commits it batch by batch.
+     *
+     * <p>On failure the job is reloaded before it is marked failed, so counters of a
+     * batch that rolled back are not saved.
+     */
+    private void run(long jobId) {
+        ImportJob job = find(jobId);
+        job.setStatus(ImportStatus.RUNNING);
+        job.setUpdatedAt(Instant.now());
+        job = jobs.save(job);
+
+        try (ImportRecordReader reader = ImportRecordReader.open(Paths.get(job.getSource()), job.getFormat(), objectMapper)) {
+            long skipped = reader.skip(job.getRecordsCommitted());
+            if (skipped < job.getRecordsCommitted()) {
+                throw new IllegalStateException("File has " + skipped + " records but " + job.getRecordsCommitted()
+                        + " were already committed; was it replaced?");
+            }
+            List<ImportRecord> batch = new ArrayList<>(batchSize);
+            for (ImportRecord record = reader.next(); record != null; record = reader.next()) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    job = commit(job, batch, reader.bytesRead());
+                    batch.clear();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Import stopped by shutdown");
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                job = commit(job, batch, reader.bytesRead());
+            }
+            job.setStatus(ImportStatus.COMPLETED);
+            job.setUpdatedAt(Instant.now());
+            job = jobs.save(job);
+            log.info("Import {} completed: {} records, {} created, {} updated, {} rejected",
+                    jobId, job.getRecordsCommitted(), job.getCreated(), job.getUpdated(), job.getRejected());
+        } catch (Exception e) {
+            log.warn("Import {} failed", jobId, e);
+            try {
+                ImportJob failed = find(jobId);
+                failed.setStatus(ImportStatus.FAILED);
+                failed.setError(truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getName()));
+                failed.setUpdatedAt(Instant.now());
+                jobs.save(failed);
+            } catch (RuntimeException saveFailure) {
+                log.warn("Could not mark import {} as failed", jobId, saveFailure);
+            }
+        }
+    }
+
+    /**
+     * Writes one batch with {@link BookService#createAll} and advances the checkpoint
+     * in the same transaction. Records that failed parsing or validation become rejects;
+     * only the first {@code max-stored-rejects} per job are kept, the rest are counted.
+     *
+     * <p>If a book the batch updates is changed concurrently, the batch rolls back and
+     * is written again against the current rows.
+     */
+    private ImportJob commit(ImportJob job, List<ImportRecord> batch, long bytesRead) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return commitOnce(job, batch, bytesRead);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == COMMIT_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Import {} batch raced with an update, writing it again: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private ImportJob commitOnce(ImportJob job, List<ImportRecord> batch, long bytesRead) {
+        return transactions.execute(status -> {
+            List<ImportRecord> parsed = new ArrayList<>(batch.size());
+            List<BookCreateRequest> requests = new ArrayList<>(batch.size());
+            List<ImportReject> rejected = new ArrayList<>();
+            for (ImportRecord record : batch) {
+                if (record.request != null) {
+                    parsed.add(record);
+                    requests.add(record.request);
+                } else {
+                    rejected.add(reject(job.getId(), record, record.errors));
+                }
+            }
+
+            long created = 0;
+            long updated = 0;
+            if (!requests.isEmpty()) {
+                BookBatchResponse response = books.createAll(requests);
+                created = response.getCreated();
+                updated = response.getUpdated();
+                for (BookBatchItemResult item : response.getItems()) {
+                    if (item.getStatus() == BookBatchItemResult.Status.INVALID) {
+                        rejected.add(reject(job.getId(), parsed.get(item.getIndex()), item.getErrors()));
+                    }
+                }
+            }
+
+            long room = Math.max(0, maxStoredRejects - job.getRejected());
+            if (room > 0 && !rejected.isEmpty()) {
+                rejected.sort((a, b) -> Long.compare(a.getRecordNumber(), b.getRecordNumber()));
+                rejects.saveAll(rejected.subList(0, (int) Math.min(room, rejected.size())));
+            }
+
+            job.setCreated(job.getCreated() + created);
+            job.setUpdated(job.getUpdated() + updated);
+            job.setRejected(job.getRejected() + rejected.size());
+            job.setRecordsCommitted(job.getRecordsCommitted() + batch.size());
+            job.setBatchesCommitted(job.getBatchesCommitted() + 1);
+            job.setBytesCommitted(bytesRead);
+            job.setUpdatedAt(Instant.now());
+            return jobs.save(job);
+        });
+    }
+
+    private static ImportReject reject(long jobId, ImportRecord record, Map<String, String> errors) {
+        ImportReject reject = new ImportReject();
+        reject.setJobId(jobId);
+        reject.setRecordNumber(record.recordNumber);
+        reject.setLineNumber(record.lineNumber);
+        reject.setErrors(truncate(errors.entrySet().stream()
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .collect(Collectors.joining("; "))));
+        return reject;
+    }
+
+    /**
+     * Resolves a client-supplied path against the base directory, following links,
+     * and refuses anything that ends up outside it.
+     */
+    private Path resolveSource(String path) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new BadRequestException("Parameter '%s' must not be blank", "path");
+        }
+        Path file;
+        try {
+            file = baseDir.resolve(path.trim()).normalize().toRealPath();
+        } catch (InvalidPathException | IOException e) {
+            throw new BadRequestException("Import file '%s' not found", path);
+        }
+        if (!file.startsWith(baseDir)) {
+            throw new BadRequestException("Import file '%s' is outside the import directory", path);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new BadRequestException("Import file '%s' is not a regular file", path);
+        }
+        return file;
+    }
+
+    private static BookFileFormat formatOf(String fileName) {
+        BookFileFormat format = BookFileFormat.fromFileName(fileName);
+        if (format == null) {
+            throw new BadRequestException("Cannot tell the format of '%s'; pass format=CSV or format=NDJSON", fileName);
+        }
+        return format;
+    }
+
+    private ImportJob find(long id) {
+        return jobs.findById(id)
+                .orElseThrow(() -> new NotFoundException("Import '%s' not found", String.valueOf(id)));
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ImportJobResponse toDto(ImportJob job) {
+        return new ImportJobResponse(job.getId(), job.getSource(), job.getFormat(), job.getStatus(),
+                job.getBytesTotal(), job.getBytesCommitted(), job.getRecordsCommitted(), job.getBatchesCommitted(),
+                job.getCreated(), job.getUpdated(), job.getRejected(), job.getError(),
+                job.getCreatedAt(), job.getUpdatedAt());
+    }
+}
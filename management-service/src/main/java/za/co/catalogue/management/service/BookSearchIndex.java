@@ -0,0 +1,539 @@
+package za.co.catalogue.management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book names and authors.
+ *
+ * <p>Text is folded to lower case with diacritics removed and split into
+ * alphanumeric tokens. Every query token is matched as a prefix, so partial
+ * words typed by a user still hit. A book matches when every query token
+ * matches one of its name or author tokens; matches are ranked by where and
+ * how well each token matched (whole word in the name scores highest, prefix
+ * of an author word lowest).
+ *
+ * <p>The index is loaded from the database on startup and kept current from
+ * {@link BookChangedEvent}s after each commit. After-commit events of concurrent
+ * transactions can arrive out of order, so each book is indexed with its version and
+ * an event older than it is dropped; a deleted book leaves a tombstone for the same
+ * reason. Reads share a read lock; the rare writes take the write lock.
+ */
+@Component
+class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    static final int NAME_EXACT = 8;
+    static final int NAME_PREFIX = 4;
+    static final int AUTHOR_EXACT = 2;
+    static final int AUTHOR_PREFIX = 1;
+
+    private final BookJdbcRepository jdbcRepo;
+    private final int loadFetchSize;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    /** Version each deleted book was deleted at, by id; ids are never reused. */
+    private final Map<Long, Long> deleted = new HashMap<>();
+
+    BookSearchIndex(BookJdbcRepository jdbcRepo,
+                    @Value("${app.books.stream.fetch-size:500}") int loadFetchSize,
+                    @Value("${app.books.search.max-candidates:5000}") int maxCandidates) {
+        this.jdbcRepo = jdbcRepo;
+        this.loadFetchSize = loadFetchSize;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Builds the index from the current contents of the catalogue.
+     */
+    @PostConstruct
+    void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            docs.clear();
+            deleted.clear();
+            jdbcRepo.streamAll(loadFetchSize, this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded {} books ({} terms) in {} ms",
+                docs.size(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed catalogue change to the index, unless a newer version of the
+     * book is already indexed. A delete beats a create or update of the same version.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBookChanged(BookChangedEvent event) {
+        Book previous = event.getPrevious();
+        Book current = event.getCurrent();
+        if (previous != null && current != null
+                && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getAuthor(), current.getAuthor())) {
+            return; // price or type change; the indexed text is the same
+        }
+        Book book = current != null ? current : previous;
+        long version = versionOf(book);
+        lock.writeLock().lock();
+        try {
+            Doc doc = docs.get(book.getId());
+            Long deletedAt = deleted.get(book.getId());
+            if (doc != null && doc.version > version
+                    || deletedAt != null && (deletedAt > version || deletedAt == version && current != null)) {
+                log.debug("Dropped out-of-order change of book {} at version {}", book.getId(), version);
+                return;
+            }
+            removeUnlocked(book.getId());
+            if (current != null) {
+                addUnlocked(current);
+            } else {
+                deleted.put(book.getId(), version);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a book in the index.
+     *
+     * @param book the book; its id must be set
+     */
+    void add(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(book.getId());
+            addUnlocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book from the index; does nothing if it is not indexed.
+     *
+     * @param id the book id
+     */
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed books
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best matching books for a free-text query.
+     *
+     * @param query free text, e.g. {@code "alch coel"}
+     * @param limit maximum number of ids to return
+     * @return ids of matching books, best match first
+     */
+    List<Long> search(String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            String driver = selectDriver(tokens);
+            if (driver == null) {
+                return Collections.emptyList();
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+            int examined = 0;
+            for (Map.Entry<String, Postings> entry : orderedExpansion(driver)) {
+                if (examined >= maxCandidates) {
+                    break;
+                }
+                String term = entry.getKey();
+                Postings postings = entry.getValue();
+                for (int i = 0; i < postings.size && examined < maxCandidates; i++) {
+                    Doc doc = postings.docs[i];
+                    // a book with several words under the driver prefix is scored only via its first one
+                    if (!doc.firstTermWithPrefix(driver, term)) {
+                        continue;
+                    }
+                    examined++;
+                    int score = 0;
+                    for (String token : tokens) {
+                        int s = doc.score(token);
+                        if (s == 0) {
+                            score = 0;
+                            break;
+                        }
+                        score += s;
+                    }
+                    if (score > 0 && (top.size() < limit || Hit.outranks(score, doc, top.peek()))) {
+                        top.add(new Hit(doc.id, score, doc.nameLength));
+                        if (top.size() > limit) {
+                            top.poll();
+                        }
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                ids.add(hit.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- helper methods ----------
+
+    /**
+     * Splits text into case-folded, accent-free alphanumeric tokens.
+     *
+     * @param text the text, may be null
+     * @return distinct tokens in order of first appearance
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        if (isAscii(text)) {
+            return tokenizeAscii(text);
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_ALPHANUMERIC.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same result as the general path for ASCII-only text, without the Unicode
+     * normalisation and regex passes; most catalogue titles and authors take this path.
+     */
+    private static String[] tokenizeAscii(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean alphanumeric = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            if (alphanumeric && start < 0) {
+                start = i;
+            } else if (!alphanumeric && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Picks the query token whose prefix expansion yields the fewest documents,
+     * so the candidate set is as small as possible.
+     *
+     * @return the most selective token, or null if some token matches nothing
+     */
+    private String selectDriver(String[] tokens) {
+        String best = null;
+        long bestCount = Long.MAX_VALUE;
+        for (String token : tokens) {
+            long count = 0;
+            for (Postings postings : expand(token).values()) {
+                count += postings.size;
+                if (count >= bestCount) {
+                    break;
+                }
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (count < bestCount) {
+                best = token;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Lists the terms starting with the token, exact term first, so whole-word
+     * matches are examined before the candidate cap is reached. The cap keeps very
+     * short prefixes from turning a query into a scan of the whole catalogue.
+     */
+    private List<Map.Entry<String, Postings>> orderedExpansion(String token) {
+        NavigableMap<String, Postings> expansion = expand(token);
+        List<Map.Entry<String, Postings>> ordered = new ArrayList<>();
+        Postings exact = expansion.get(token);
+        if (exact != null) {
+            ordered.add(new AbstractMap.SimpleImmutableEntry<>(token, exact));
+        }
+        for (Map.Entry<String, Postings> entry : expansion.entrySet()) {
+            if (exact == null || !entry.getKey().equals(token)) {
+                ordered.add(entry);
+            }
+        }
+        return ordered;
+    }
+
+    private NavigableMap<String, Postings> expand(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addUnlocked(Book book) {
+        String[] nameTerms = intern(tokenize(book.getName()));
+        String[] authorTerms = intern(tokenize(book.getAuthor()));
+        Doc doc = new Doc(book.getId(), versionOf(book), nameTerms, authorTerms,
+                book.getName() == null ? 0 : book.getName().length());
+        docs.put(doc.id, doc);
+        for (String term : doc.allTerms()) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(doc);
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        if (id == null) {
+            return;
+        }
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.allTerms()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(doc.id) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static long versionOf(Book book) {
+        return book.getVersion() == null ? 0 : book.getVersion();
+    }
+
+    /**
+     * Replaces tokens with the instance already used as a key in the term map so
+     * each distinct word is held in memory once.
+     */
+    private String[] intern(String[] tokens) {
+        for (int i = 0; i < tokens.length; i++) {
+            String existing = terms.ceilingKey(tokens[i]);
+            if (tokens[i].equals(existing)) {
+                tokens[i] = existing;
+            }
+        }
+        return tokens;
+    }
+
+    // ---------- inner classes ----------
+
+    /**
+     * Growable array of the books containing one term, sorted by id.
+     */
+    private static final class Postings {
+        private Doc[] docs = new Doc[2];
+        private int size;
+
+        void add(Doc doc) {
+            int i = indexOf(doc.id);
+            if (i >= 0) {
+                docs[i] = doc;
+                return;
+            }
+            i = -i - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, i, docs, i + 1, size - i);
+            docs[i] = doc;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            docs[--size] = null;
+            return true;
+        }
+
+        /** Binary search by id; same contract as {@link Arrays#binarySearch(long[], long)}. */
+        private int indexOf(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = docs[mid].id;
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    /**
+     * Tokens of one indexed book, kept for scoring and removal.
+     */
+    private static final class Doc {
+        private final long id;
+        private final long version;
+        private final String[] nameTerms;
+        private final String[] authorTerms;
+        private final int nameLength;
+
+        Doc(long id, long version, String[] nameTerms, String[] authorTerms, int nameLength) {
+            this.id = id;
+            this.version = version;
+            this.nameTerms = nameTerms;
+            this.authorTerms = authorTerms;
+            this.nameLength = nameLength;
+        }
+
+        Set<String> allTerms() {
+            Set<String> all = new HashSet<>(Arrays.asList(nameTerms));
+            all.addAll(Arrays.asList(authorTerms));
+            return all;
+        }
+
+        /**
+         * @return true if {@code term} is the smallest of this book's terms starting with {@code prefix},
+         *         where the exact prefix term, when present, counts as the smallest
+         */
+        boolean firstTermWithPrefix(String prefix, String term) {
+            if (term.equals(prefix)) {
+                return true;
+            }
+            return !precedes(nameTerms, prefix, term) && !precedes(authorTerms, prefix, term);
+        }
+
+        private static boolean precedes(String[] field, String prefix, String term) {
+            for (String t : field) {
+                if (t.startsWith(prefix) && (t.equals(prefix) || t.compareTo(term) < 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int score(String token) {
+            int best = 0;
+            for (String term : nameTerms) {
+                if (term.equals(token)) {
+                    return NAME_EXACT;
+                }
+                if (term.startsWith(token)) {
+                    best = NAME_PREFIX;
+                }
+            }
+            for (String term : authorTerms) {
+                if (term.equals(token)) {
+                    best = Math.max(best, AUTHOR_EXACT);
+                } else if (term.startsWith(token)) {
+                    best = Math.max(best, AUTHOR_PREFIX);
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Hit {
+        /** Lowest score first; among equal scores the longer name, then the higher id, is worse. */
+        static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(h -> h.score)
+                .thenComparing(Comparator.<Hit>comparingInt(h -> h.nameLength).reversed())
+                .thenComparing(Comparator.<Hit>comparingLong(h -> h.id).reversed());
+
+        final long id;
+        final int score;
+        final int nameLength;
+
+        /** @return true if the candidate ranks above the hit, by the same rules as {@link #WORST_FIRST} */
+        static boolean outranks(int score, Doc doc, Hit hit) {
+            if (score != hit.score) {
+                return score > hit.score;
+            }
+            if (doc.nameLength != hit.nameLength) {
+                return doc.nameLength < hit.nameLength;
+            }
+            return doc.id < hit.id;
+        }
+
+        Hit(long id, int score, int nameLength) {
+            this.id = id;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+    }
+}
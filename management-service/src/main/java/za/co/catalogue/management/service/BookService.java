@@ -4,6 +4,7 @@ import za.co.catalogue.management.dto.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for book catalogue operations.
@@ -18,6 +19,47 @@ public interface BookService {
      * @return list of all books
      */
     List<BookResponse> getAll();
+
+    /**
+     * Returns a value that changes whenever any book is created, updated or deleted,
+     * computed without loading the catalogue.
+     *
+     * @return an opaque catalogue version, usable as the entity tag of {@link #getAll()}
+     */
+    String getCatalogueVersion();
+
+    /**
+     * Retrieves one keyset page of the catalogue in id order.
+     *
+     * @param next opaque cursor from the previous page, or null for the first page
+     * @param size requested page size, or null for the configured default; capped at the configured maximum
+     * @return the page and the cursor for the following page
+     * @throws za.co.catalogue.management.exception.BadRequestException if the cursor or size is invalid
+     */
+    BookPage getPage(String next, Integer size);
+
+    /**
+     * Retrieves one numbered page of the catalogue, filtered and sorted in the database.
+     *
+     * <p>Only the requested page is loaded, plus a count of all matching books.
+     * Books that sort equal are ordered by id, so pages neither overlap nor skip books.
+     *
+     * @param query filters, sort order, page number and size; all optional
+     * @return the page and the totals across all pages
+     * @throws za.co.catalogue.management.exception.BadRequestException if the sort field,
+     *         page, size or a range is invalid
+     */
+    BookQueryPage query(BookQuery query);
+
+    /**
+     * Streams every book in the catalogue, in id order, to the given consumer.
+     *
+     * <p>Rows are read from a database cursor and handed over one at a time,
+     * so memory use does not grow with the size of the catalogue.
+     *
+     * @param consumer callback invoked once per book
+     */
+    void streamAll(Consumer<BookResponse> consumer);
     
     /**
      * Retrieves a book by its ISBN.
@@ -59,6 +101,20 @@ public interface BookService {
      * @return list of all books with the specified name
      */
     List<BookResponse> searchByName(String name);
+
+    /**
+     * Full-text search over book names and authors.
+     *
+     * <p>Matching is case- and accent-insensitive and every word of the query is
+     * treated as a prefix, so {@code "alch coel"} finds "The Alchemist" by Paulo Coelho.
+     * A book matches only if all query words match; results are ranked best first.
+     *
+     * @param query free-text query
+     * @param limit maximum number of results, or null for the configured default; capped at the configured maximum
+     * @return matching books, best match first
+     * @throws za.co.catalogue.management.exception.BadRequestException if the query is empty or the limit is invalid
+     */
+    List<BookResponse> search(String query, Integer limit);
     
     /**
      * Creates a new book in the catalogue.
@@ -68,20 +124,44 @@ public interface BookService {
      * 
      * @param request the book creation request
      * @return the created book with generated ISBN
-     * @throws za.co.catalogue.management.exception.ConflictException if unable to generate a unique ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if the ISBN range is exhausted
      */
     BookResponse create(BookCreateRequest request);
+
+    /**
+     * Creates or updates many books in one transaction.
+     *
+     * <p>Each entry follows the rules of {@link #create(BookCreateRequest)}: an entry
+     * matching an existing book (or an earlier entry of the same batch) on name,
+     * author and publish date updates its price and book type. Invalid entries are
+     * reported per item and do not stop the rest of the batch. Like {@link #update},
+     * an update only applies to the version of the book the batch read.
+     *
+     * @param requests the entries, at most the configured batch size
+     * @return one result per entry, in request order
+     * @throws za.co.catalogue.management.exception.BadRequestException if the batch is empty or too large
+     * @throws za.co.catalogue.management.exception.ConflictException if the ISBN range is exhausted
+     * @throws org.springframework.dao.OptimisticLockingFailureException if a book the batch updates was
+     *         changed by another transaction after the batch read it; nothing is written
+     */
+    BookBatchResponse createAll(List<BookCreateRequest> requests);
     
     /**
      * Updates an existing book by ISBN.
      * 
      * <p>The ISBN itself is immutable and cannot be changed.
      * Only provided fields in the update request will be modified.
+     * Concurrent updates of the same book never overwrite each other: the one that
+     * commits second fails.
      * 
      * @param isbn the ISBN of the book to update
      * @param patch the update request containing fields to modify
      * @return the updated book
      * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if {@code patch} carries a version
+     *         other than the stored one
+     * @throws org.springframework.dao.OptimisticLockingFailureException if another update of the book
+     *         committed first
      */
     BookResponse update(String isbn, BookUpdateRequest patch);
     
@@ -92,4 +172,41 @@ public interface BookService {
      * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
      */
     void delete(String isbn);
+
+    /**
+     * Deletes a book from the catalogue by ISBN if it is still at the given version.
+     *
+     * <p>The version is checked in the transaction that deletes the book, and the delete
+     * itself is conditional on the version read, so an update that commits in between
+     * is never lost.
+     *
+     * @param isbn the ISBN of the book to delete
+     * @param version the version the caller last saw, or null to delete any version
+     * @throws za.co.catalogue.management.exception.NotFoundException if no book exists with the given ISBN
+     * @throws za.co.catalogue.management.exception.ConflictException if {@code version} is not the stored one
+     * @throws org.springframework.dao.OptimisticLockingFailureException if another update of the book
+     *         committed first
+     */
+    void delete(String isbn, Long version);
+
+    /**
+     * Returns the counters of the ISBN lookup cache.
+     *
+     * @return hit, miss, eviction and invalidation counts since startup
+     */
+    CacheStatsResponse getCacheStats();
+
+    /**
+     * Returns counts by book type, publish year and author, and price statistics, over
+     * the whole catalogue.
+     *
+     * <p>The figures come from a summary kept in memory and updated on every committed
+     * change, so the cost does not grow with the catalogue. A change is reflected once
+     * its transaction has committed.
+     *
+     * @param authorLimit maximum number of authors to list, most books first; null for the default
+     * @return the facets
+     * @throws za.co.catalogue.management.exception.BadRequestException if the author limit is negative
+     */
+    BookFacetsResponse getFacets(Integer authorLimit);
 }
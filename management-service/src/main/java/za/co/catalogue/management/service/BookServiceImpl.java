@@ -1,29 +1,104 @@
 package za.co.catalogue.management.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import za.co.catalogue.management.dto.*;
+import za.co.catalogue.management.dto.BookBatchItemResult.Status;
 import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
 import za.co.catalogue.management.exception.BadRequestException;
 import za.co.catalogue.management.exception.ConflictException;
 import za.co.catalogue.management.exception.NotFoundException;
+import za.co.catalogue.management.repository.BookJdbcRepository;
 import za.co.catalogue.management.repository.BookRepository;
 
+import javax.persistence.criteria.Predicate;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("books.service")
 class BookServiceImpl implements BookService {
 
+    /** Fields a listing can be sorted by; each is a {@link Book} property. */
+    private static final List<String> SORTABLE = Arrays.asList("isbn", "name", "author", "publishDate", "price", "bookType");
+
     private final BookRepository repo;
+    private final BookJdbcRepository jdbcRepo;
+    private final BookSearchIndex searchIndex;
+    private final BookCache cache;
+    private final BookFacets facets;
+    private final ApplicationEventPublisher events;
+    private final Validator validator;
+    private final IsbnAllocator isbns;
     private final Mapper mapper = new Mapper();
-    private final IsbnPolicy isbnPolicy = new RandomIsbn13Policy();
 
-    BookServiceImpl(BookRepository repo) {
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int streamFetchSize;
+    private final int defaultSearchLimit;
+    private final int maxSearchLimit;
+    private final int maxBatchSize;
+    private final int jdbcBatchSize;
+    private final int defaultAuthorLimit;
+    private final int maxAuthorLimit;
+
+    BookServiceImpl(BookRepository repo,
+                    BookJdbcRepository jdbcRepo,
+                    BookSearchIndex searchIndex,
+                    BookCache cache,
+                    BookFacets facets,
+                    IsbnAllocator isbns,
+                    ApplicationEventPublisher events,
+                    Validator validator,
+                    @Value("${app.books.page.default-size:100}") int defaultPageSize,
+                    @Value("${app.books.page.max-size:1000}") int maxPageSize,
+                    @Value("${app.books.stream.fetch-size:500}") int streamFetchSize,
+                    @Value("${app.books.search.default-limit:20}") int defaultSearchLimit,
+                    @Value("${app.books.search.max-limit:100}") int maxSearchLimit,
+                    @Value("${app.books.batch.max-size:10000}") int maxBatchSize,
+                    @Value("${app.books.batch.jdbc-batch-size:1000}") int jdbcBatchSize,
+                    @Value("${app.books.facets.default-author-limit:20}") int defaultAuthorLimit,
+                    @Value("${app.books.facets.max-author-limit:1000}") int maxAuthorLimit) {
         this.repo = repo;
+        this.jdbcRepo = jdbcRepo;
+        this.searchIndex = searchIndex;
+        this.cache = cache;
+        this.facets = facets;
+        this.isbns = isbns;
+        this.events = events;
+        this.validator = validator;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.streamFetchSize = streamFetchSize;
+        this.defaultSearchLimit = defaultSearchLimit;
+        this.maxSearchLimit = maxSearchLimit;
+        this.maxBatchSize = maxBatchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.defaultAuthorLimit = defaultAuthorLimit;
+        this.maxAuthorLimit = maxAuthorLimit;
     }
 
     @Override
@@ -31,11 +106,76 @@ class BookServiceImpl implements BookService {
         return repo.findAll().stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    public String getCatalogueVersion() {
+        return jdbcRepo.catalogueVersion();
+    }
+
+    /**
+     * Fetches one page after the cursor position.
+     *
+     * <p>One extra row is requested to find out whether another page follows,
+     * so the last page never hands out a cursor that leads to an empty page.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public BookPage getPage(String next, Integer size) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1) {
+            throw new BadRequestException("Page size must be at least 1, got '%s'", String.valueOf(pageSize));
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        long afterId = PageCursor.decode(next);
+        List<Book> rows = repo.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+
+        String nextToken = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextToken = PageCursor.encode(rows.get(pageSize - 1).getId());
+        }
+        return new BookPage(rows.stream().map(mapper::toDto).collect(Collectors.toList()), nextToken);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookQueryPage query(BookQuery query) {
+        Objects.requireNonNull(query, "query");
+        int pageSize = query.getSize() == null ? defaultPageSize : query.getSize();
+        if (pageSize < 1) {
+            throw new BadRequestException("Page size must be at least 1, got '%s'", String.valueOf(pageSize));
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        int pageNumber = query.getPage() == null ? 0 : query.getPage();
+        if (pageNumber < 0) {
+            throw new BadRequestException("Page must not be negative, got '%s'", String.valueOf(pageNumber));
+        }
+        requireRange(query.getMinPrice(), query.getMaxPrice(), "price");
+        requireRange(query.getMinYear(), query.getMaxYear(), "year");
+
+        Page<Book> rows = repo.findAll(filter(query), PageRequest.of(pageNumber, pageSize, sort(query.getSort())));
+        return new BookQueryPage(rows.getContent().stream().map(mapper::toDto).collect(Collectors.toList()),
+                pageNumber, pageSize, rows.getTotalElements(), rows.getTotalPages());
+    }
+
+    @Override
+    public void streamAll(Consumer<BookResponse> consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        jdbcRepo.streamAll(streamFetchSize, book -> consumer.accept(mapper.toDto(book)));
+    }
+
+    /**
+     * Serves the book from the ISBN cache, reading through to the database on a miss.
+     * Unknown ISBNs are not cached.
+     */
     @Override
     public BookResponse getByIsbn(String isbn) {
         String value = requireText(isbn, "isbn");
-        return repo.findByIsbn(value).map(mapper::toDto)
-                .orElseThrow(() -> new NotFoundException("Book with ISBN '%s' not found", value));
+        BookResponse book = cache.get(value, key -> repo.findByIsbn(key).map(mapper::toDto).orElse(null));
+        if (book == null) {
+            throw new NotFoundException("Book with ISBN '%s' not found", value);
+        }
+        return book;
     }
 
     @Override
@@ -58,6 +198,29 @@ class BookServiceImpl implements BookService {
         return repo.findAllByName(requireText(name, "name")).stream().map(mapper::toDto).collect(Collectors.toList());
     }
 
+    /**
+     * Ranks matches with the in-memory search index, then loads the hits in one query.
+     *
+     * <p>A book deleted between the index lookup and the load is silently dropped.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookResponse> search(String query, Integer limit) {
+        String q = requireText(query, "q");
+        int max = limit == null ? defaultSearchLimit : limit;
+        if (max < 1) {
+            throw new BadRequestException("Search limit must be at least 1, got '%s'", String.valueOf(max));
+        }
+
+        List<Long> ids = searchIndex.search(q, Math.min(max, maxSearchLimit));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Book> byId = repo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).map(mapper::toDto).collect(Collectors.toList());
+    }
+
     /**
      * Creates a new book or updates an existing one if a duplicate is found.
      * 
@@ -67,15 +230,18 @@ class BookServiceImpl implements BookService {
      * 
      * @param request the book creation request
      * @return the created or updated book
-     * @throws ConflictException if unable to generate a unique ISBN
+     * @throws ConflictException if the ISBN range is exhausted
      */
     @Transactional
     @Override
     public BookResponse create(BookCreateRequest request) {
         Objects.requireNonNull(request, "request");
 
-        Book entity = repo.findByNameAndAuthorAndPublishDate(
-                        request.getName(), request.getAuthor(), request.getPublishDate())
+        Optional<Book> duplicate = repo.findByNameAndAuthorAndPublishDate(
+                request.getName(), request.getAuthor(), request.getPublishDate());
+        Book previous = duplicate.map(mapper::copy).orElse(null);
+
+        Book entity = duplicate
                 .map(existing -> {
                     // patch allowed fields; do NOT change ISBN
                     existing.setPrice(request.getPrice());
@@ -84,27 +250,143 @@ class BookServiceImpl implements BookService {
                 })
                 .orElseGet(() -> {
                     Book b = mapper.toEntity(request);
-                    b.setIsbn(allocateIsbn());
+                    b.setIsbn(isbns.next()); // always generate server-side
                     return b;
                 });
 
-        entity.setIsbn(allocateIsbn()); // always generate server-side
-        Book saved = repo.save(entity);
+        // flush so an update of a duplicate returns its bumped version
+        Book saved = repo.saveAndFlush(entity);
 
+        events.publishEvent(previous == null
+                ? BookChangedEvent.created(mapper.copy(saved))
+                : BookChangedEvent.updated(previous, mapper.copy(saved)));
         return mapper.toDto(saved);
     }
 
+    /**
+     * Creates or updates a batch of books with a fixed number of round trips.
+     *
+     * <p>Duplicates are resolved with one query over the distinct name/author/publish
+     * date keys, ISBNs come from the in-memory block allocator, and rows are written
+     * with JDBC batches instead of one identity insert per entity, reading the
+     * generated ids back from the driver. An entry that repeats the key of an
+     * earlier entry updates the same row, so the last one wins.
+     *
+     * <p>Validation failures are reported per entry. A unique-key collision with a
+     * concurrent writer, or a concurrent update of a book the batch updates, rolls
+     * back the whole batch.
+     */
+    @Transactional
+    @Override
+    public BookBatchResponse createAll(List<BookCreateRequest> requests) {
+        int size = requests == null ? 0 : requests.size();
+        if (size < 1) {
+            throw new BadRequestException("Batch must contain at least one book, got '%s'", String.valueOf(size));
+        }
+        if (size > maxBatchSize) {
+            throw new BadRequestException("Batch must contain at most " + maxBatchSize + " books, got '%s'",
+                    String.valueOf(size));
+        }
+
+        // validate every entry up front; invalid ones are reported and skipped
+        List<Map<String, String>> errors = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Map<BookKey, Book> lookup = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> itemErrors = validate(requests.get(i));
+            if (itemErrors.isEmpty()) {
+                lookup.putIfAbsent(BookKey.of(requests.get(i)), mapper.toEntity(requests.get(i)));
+            } else {
+                errors.set(i, itemErrors);
+            }
+        }
+
+        Map<BookKey, Book> existing = new HashMap<>();
+        for (Book b : jdbcRepo.findByNaturalKeys(lookup.values())) {
+            existing.put(BookKey.of(b), b);
+        }
+
+        Map<BookKey, Book> rows = new LinkedHashMap<>();
+        Map<BookKey, Book> previous = new LinkedHashMap<>();
+        List<Book> toInsert = new ArrayList<>();
+        BookKey[] keys = new BookKey[requests.size()];
+        Status[] statuses = new Status[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.get(i) != null) {
+                statuses[i] = Status.INVALID;
+                continue;
+            }
+            BookCreateRequest request = requests.get(i);
+            BookKey key = BookKey.of(request);
+            Book row = rows.get(key);
+            if (row == null) {
+                row = existing.get(key);
+                if (row != null) {
+                    previous.put(key, mapper.copy(row));
+                } else {
+                    row = mapper.toEntity(request);
+                    toInsert.add(row);
+                }
+                rows.put(key, row);
+                statuses[i] = previous.containsKey(key) ? Status.UPDATED : Status.CREATED;
+            } else {
+                statuses[i] = Status.UPDATED;
+            }
+            // patch allowed fields; do NOT change ISBN
+            row.setPrice(request.getPrice());
+            row.setBookType(request.getBookType());
+            keys[i] = key;
+        }
+
+        List<String> newIsbns = isbns.next(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            toInsert.get(i).setIsbn(newIsbns.get(i));
+        }
+        List<Book> toUpdate = new ArrayList<>(previous.size());
+        for (BookKey key : previous.keySet()) {
+            toUpdate.add(rows.get(key));
+        }
+        jdbcRepo.insertAll(toInsert, jdbcBatchSize);
+        jdbcRepo.updatePriceAndType(toUpdate, jdbcBatchSize);
+
+        for (Book b : toInsert) {
+            events.publishEvent(BookChangedEvent.created(mapper.copy(b)));
+        }
+        for (Map.Entry<BookKey, Book> e : previous.entrySet()) {
+            events.publishEvent(BookChangedEvent.updated(e.getValue(), mapper.copy(rows.get(e.getKey()))));
+        }
+
+        List<BookBatchItemResult> items = new ArrayList<>(requests.size());
+        int created = 0;
+        int updated = 0;
+        int invalid = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (statuses[i] == Status.INVALID) {
+                invalid++;
+                items.add(new BookBatchItemResult(i, Status.INVALID, null, errors.get(i)));
+                continue;
+            }
+            if (statuses[i] == Status.CREATED) created++; else updated++;
+            items.add(new BookBatchItemResult(i, statuses[i], mapper.toDto(rows.get(keys[i])), null));
+        }
+        return new BookBatchResponse(created, updated, invalid, items);
+    }
 
     /**
      * Updates an existing book with the provided patch data.
      * 
      * <p>Only non-null fields in the patch request will be updated.
      * The ISBN is immutable and cannot be changed.
+     *
+     * <p>A version in the patch must match the stored one. The write itself is
+     * conditional on the version read here, so a concurrent update that commits
+     * in between makes the commit fail with an optimistic locking exception
+     * instead of being overwritten.
      * 
      * @param isbn the ISBN of the book to update
      * @param patch the update request containing fields to modify
      * @return the updated book
      * @throws NotFoundException if no book exists with the given ISBN
+     * @throws ConflictException if the patch names a version other than the stored one
      */
     @Transactional
     @Override
@@ -114,6 +396,11 @@ class BookServiceImpl implements BookService {
 
         Book existing = repo.findByIsbn(value)
                 .orElseThrow(() -> new NotFoundException("Book with ISBN '%s' not found", value));
+        if (patch.getVersion() != null && !patch.getVersion().equals(existing.getVersion())) {
+            throw new ConflictException("Book with ISBN '" + value + "' has changed: version " + existing.getVersion()
+                    + ", expected " + patch.getVersion());
+        }
+        Book previous = mapper.copy(existing);
 
         if (patch.getName() != null) existing.setName(patch.getName());
         if (patch.getAuthor() != null) existing.setAuthor(patch.getAuthor());
@@ -121,7 +408,9 @@ class BookServiceImpl implements BookService {
         if (patch.getPrice() != null) existing.setPrice(patch.getPrice());
         if (patch.getBookType() != null) existing.setBookType(patch.getBookType());
 
-        Book saved = repo.save(existing);
+        // flush so the version is bumped before it goes into the response
+        Book saved = repo.saveAndFlush(existing);
+        events.publishEvent(BookChangedEvent.updated(previous, mapper.copy(saved)));
         return mapper.toDto(saved);
     }
 
@@ -134,34 +423,108 @@ class BookServiceImpl implements BookService {
     @Transactional
     @Override
     public void delete(String isbn) {
+        delete(isbn, null);
+    }
+
+    @Transactional
+    @Override
+    public void delete(String isbn, Long version) {
         String value = requireText(isbn, "isbn");
-        if (!repo.existsByIsbn(value)) {
-            throw new NotFoundException("Book with ISBN '%s' not found", value);
+        Book existing = repo.findByIsbn(value)
+                .orElseThrow(() -> new NotFoundException("Book with ISBN '%s' not found", value));
+        if (version != null && !version.equals(existing.getVersion())) {
+            throw new ConflictException("Book with ISBN '" + value + "' has changed: version " + existing.getVersion()
+                    + ", expected " + version);
         }
-        repo.deleteByIsbn(value);
+        repo.delete(existing);
+        events.publishEvent(BookChangedEvent.deleted(mapper.copy(existing)));
+    }
+
+    @Override
+    public CacheStatsResponse getCacheStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public BookFacetsResponse getFacets(Integer authorLimit) {
+        int max = authorLimit == null ? defaultAuthorLimit : authorLimit;
+        if (max < 0) {
+            throw new BadRequestException("Author limit must not be negative, got '%s'", String.valueOf(max));
+        }
+        return facets.snapshot(Math.min(max, maxAuthorLimit));
     }
 
     // ---------- helper methods ----------
 
     /**
-     * Allocates a unique ISBN using the configured ISBN policy.
-     * 
-     * <p>Attempts to generate a unique ISBN. If a collision is detected,
-     * one retry is attempted. If the retry also collides, a ConflictException is thrown.
-     * 
-     * @return a unique ISBN string
-     * @throws ConflictException if unable to generate a unique ISBN after retries
+     * Runs bean validation on one batch entry.
+     *
+     * @param request the entry, possibly null
+     * @return field-level messages, empty if the entry is valid
      */
-    private String allocateIsbn() {
-        String isbn = isbnPolicy.generate();
-        if (repo.existsByIsbn(isbn)) {
-            // regenerate once; loop a few times if you want stronger guarantees
-            isbn = isbnPolicy.generate();
-            if (repo.existsByIsbn(isbn)) {
-                throw new ConflictException("Unable to allocate unique ISBN right now");
-            }
+    private Map<String, String> validate(BookCreateRequest request) {
+        if (request == null) {
+            return Collections.singletonMap("item", "must not be null");
+        }
+        Map<String, String> fieldErrors = new TreeMap<>();
+        for (ConstraintViolation<BookCreateRequest> v : validator.validate(request)) {
+            fieldErrors.put(v.getPropertyPath().toString(), v.getMessage());
+        }
+        return fieldErrors;
+    }
+
+    /**
+     * Builds the listing filter. The year bounds become a publish date range, so they
+     * can use the publish date index.
+     */
+    private static Specification<Book> filter(BookQuery query) {
+        BookType type = query.getBookType();
+        BigDecimal minPrice = query.getMinPrice();
+        BigDecimal maxPrice = query.getMaxPrice();
+        Integer minYear = query.getMinYear();
+        Integer maxYear = query.getMaxYear();
+        return (root, criteria, cb) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (type != null) where.add(cb.equal(root.get("bookType"), type));
+            if (minPrice != null) where.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            if (maxPrice != null) where.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            if (minYear != null) where.add(cb.greaterThanOrEqualTo(root.get("publishDate"), LocalDate.of(minYear, 1, 1)));
+            if (maxYear != null) where.add(cb.lessThan(root.get("publishDate"), LocalDate.of(maxYear + 1, 1, 1)));
+            return cb.and(where.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Parses {@code field[,asc|desc]}; id is always the last key, so the order is total.
+     *
+     * @throws BadRequestException if the field or direction is unknown
+     */
+    private static Sort sort(String value) {
+        if (value == null || value.isEmpty()) {
+            return Sort.by("id");
+        }
+        String[] parts = value.split(",", -1);
+        String field = parts[0].trim();
+        if (!SORTABLE.contains(field) || parts.length > 2) {
+            throw new BadRequestException("Cannot sort by '%s'; use one of " + SORTABLE + " with an optional ,asc or ,desc",
+                    value);
+        }
+        Sort.Direction direction;
+        try {
+            direction = parts.length == 2 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown sort direction in '%s'; use asc or desc", value);
+        }
+        return Sort.by(direction, field).and(Sort.by("id"));
+    }
+
+    /**
+     * @throws BadRequestException if both bounds are set and the lower one is above the upper one
+     */
+    private static <T extends Comparable<T>> void requireRange(T min, T max, String field) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException("Lower bound of '%s' must not be above its upper bound", field);
         }
-        return isbn;
     }
 
     /**
@@ -195,28 +558,60 @@ class BookServiceImpl implements BookService {
             return b;
         }
 
+        Book copy(Book source) {
+            Book b = new Book();
+            b.setId(source.getId());
+            b.setIsbn(source.getIsbn());
+            b.setName(source.getName());
+            b.setAuthor(source.getAuthor());
+            b.setPublishDate(source.getPublishDate());
+            b.setPrice(source.getPrice());
+            b.setBookType(source.getBookType());
+            b.setVersion(source.getVersion());
+            return b;
+        }
+
         BookResponse toDto(Book b) {
             return new BookResponse(
-                    b.getIsbn(), b.getName(), b.getAuthor(), b.getPublishDate(), b.getPrice(), b.getBookType()
+                    b.getIsbn(), b.getName(), b.getAuthor(), b.getPublishDate(), b.getPrice(), b.getBookType(),
+                    b.getVersion()
             );
         }
     }
 
-    interface IsbnPolicy {
-        String generate();
-    }
-
     /**
-     * Implementation of ISBN policy that generates random 13-character identifiers.
-     * 
-     * <p>This implementation generates a 13-character uppercase string from a UUID.
-     * Note: This is not a real ISBN-13 format. Replace with proper ISBN-13 generation if needed.
+     * The natural key a create request is deduplicated on.
      */
-    static final class RandomIsbn13Policy implements IsbnPolicy {
+    static final class BookKey {
+        private final String name;
+        private final String author;
+        private final LocalDate publishDate;
+
+        private BookKey(String name, String author, LocalDate publishDate) {
+            this.name = name;
+            this.author = author;
+            this.publishDate = publishDate;
+        }
+
+        static BookKey of(Book b) {
+            return new BookKey(b.getName(), b.getAuthor(), b.getPublishDate());
+        }
+
+        static BookKey of(BookCreateRequest r) {
+            return new BookKey(r.getName(), r.getAuthor(), r.getPublishDate());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BookKey)) return false;
+            BookKey other = (BookKey) o;
+            return name.equals(other.name) && author.equals(other.author) && publishDate.equals(other.publishDate);
+        }
+
         @Override
-        public String generate() {
-            // 13-char token; replace with real ISBN-13 if needed
-            return UUID.randomUUID().toString().replace("-", "").substring(0, 13).toUpperCase();
+        public int hashCode() {
+            return Objects.hash(name, author, publishDate);
         }
     }
 }
@@ -0,0 +1,32 @@
+package za.co.catalogue.management.service;
+
+import za.co.catalogue.management.dto.BookCreateRequest;
+
+import java.util.Map;
+
+/**
+ * One record of an import file: either a parsed request, still to be validated,
+ * or the reasons it could not be parsed.
+ */
+final class ImportRecord {
+
+    final long recordNumber;
+    final long lineNumber;
+    final BookCreateRequest request;
+    final Map<String, String> errors;
+
+    private ImportRecord(long recordNumber, long lineNumber, BookCreateRequest request, Map<String, String> errors) {
+        this.recordNumber = recordNumber;
+        this.lineNumber = lineNumber;
+        this.request = request;
+        this.errors = errors;
+    }
+
+    static ImportRecord parsed(long recordNumber, long lineNumber, BookCreateRequest request) {
+        return new ImportRecord(recordNumber, lineNumber, request, null);
+    }
+
+    static ImportRecord rejected(long recordNumber, long lineNumber, Map<String, String> errors) {
+        return new ImportRecord(recordNumber, lineNumber, null, errors);
+    }
+}
@@ -0,0 +1,252 @@
+package za.co.catalogue.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.model.BookFileFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an import file one record at a time, so memory use does not depend on the
+ * file size.
+ *
+ * <p>Records that cannot be parsed are returned with their errors instead of
+ * stopping the read; bean validation is left to the caller.
+ */
+abstract class ImportRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final CountingInputStream counter;
+    protected long recordNumber;
+
+    private ImportRecordReader(CountingInputStream counter) {
+        this.counter = counter;
+    }
+
+    /**
+     * Opens a reader over the file, decompressing it when the name ends in {@code .gz}.
+     */
+    static ImportRecordReader open(Path file, BookFileFormat format, ObjectMapper mapper) throws IOException {
+        CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+        try {
+            InputStream in = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")
+                    ? new GZIPInputStream(counter, BUFFER_SIZE)
+                    : counter;
+            BufferedReader text = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+            return format == BookFileFormat.CSV
+                    ? new Csv(counter, text, mapper)
+                    : new Ndjson(counter, text, mapper);
+        } catch (IOException | RuntimeException e) {
+            counter.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the file
+     */
+    abstract ImportRecord next() throws IOException;
+
+    /**
+     * Skips records without converting them, e.g. the ones a resumed job already committed.
+     *
+     * @return the number of records skipped, less than {@code count} only at the end of the file
+     */
+    abstract long skip(long count) throws IOException;
+
+    /** Bytes consumed from the file so far, ahead of the last record by up to the buffer size. */
+    long bytesRead() {
+        return counter.count;
+    }
+
+    static Map<String, String> describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException && !((JsonMappingException) e).getPath().isEmpty()) {
+            JsonMappingException mapping = (JsonMappingException) e;
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) {
+                String message = e instanceof InvalidFormatException
+                        ? "invalid value '" + ((InvalidFormatException) e).getValue() + "'"
+                        : "invalid value";
+                return Collections.singletonMap(field, message);
+            }
+        }
+        return Collections.singletonMap("record", e.getOriginalMessage());
+    }
+
+    /**
+     * One line per record; blank lines are ignored.
+     */
+    private static final class Ndjson extends ImportRecordReader {
+
+        private final BufferedReader in;
+        private final ObjectReader reader;
+        private long lineNumber;
+
+        Ndjson(CountingInputStream counter, BufferedReader in, ObjectMapper mapper) {
+            super(counter);
+            this.in = in;
+            this.reader = mapper.readerFor(BookCreateRequest.class);
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            try {
+                return ImportRecord.parsed(recordNumber, lineNumber, reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                return ImportRecord.rejected(recordNumber, lineNumber, describe(e));
+            }
+        }
+
+        @Override
+        long skip(long count) throws IOException {
+            long skipped = 0;
+            while (skipped < count && nextLine() != null) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        private String nextLine() throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (!line.trim().isEmpty()) {
+                    recordNumber++;
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * The header row names the {@link BookCreateRequest} fields; columns may come in any
+     * order and unknown ones are ignored. Empty cells are read as missing values.
+     */
+    private static final class Csv extends ImportRecordReader {
+
+        private static final CsvMapper CSV = new CsvMapper();
+
+        private final MappingIterator<Map<String, String>> rows;
+        private final ObjectMapper mapper;
+
+        Csv(CountingInputStream counter, BufferedReader in, ObjectMapper mapper) throws IOException {
+            super(counter);
+            this.rows = CSV.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .with(CsvParser.Feature.TRIM_SPACES)
+                    .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                    .readValues(in);
+            this.mapper = mapper;
+        }
+
+        @Override
+        ImportRecord next() throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            recordNumber++;
+            long lineNumber = rows.getParser().getCurrentLocation().getLineNr();
+            Map<String, String> row;
+            try {
+                row = rows.nextValue();
+            } catch (JsonProcessingException e) {
+                return ImportRecord.rejected(recordNumber, lineNumber, describe(e));
+            }
+            row.replaceAll((column, value) -> value == null || value.isEmpty() ? null : value);
+            try {
+                return ImportRecord.parsed(recordNumber, lineNumber, mapper.convertValue(row, BookCreateRequest.class));
+            } catch (IllegalArgumentException e) {
+                return e.getCause() instanceof JsonProcessingException
+                        ? ImportRecord.rejected(recordNumber, lineNumber, describe((JsonProcessingException) e.getCause()))
+                        : ImportRecord.rejected(recordNumber, lineNumber, Collections.singletonMap("record", e.getMessage()));
+            }
+        }
+
+        @Override
+        long skip(long count) throws IOException {
+            long skipped = 0;
+            while (skipped < count && rows.hasNextValue()) {
+                recordNumber++;
+                skipped++;
+                try {
+                    rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // rejected when the record was first read
+                }
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package za.co.catalogue.management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out ISBN-13s from blocks of serial numbers reserved in the database.
+ *
+ * <p>Each block is one value of {@code isbn_serial_seq}, whose increment is the
+ * block size, so no two instances (or restarts) ever get overlapping blocks and an
+ * ISBN is never issued twice; no existence check is needed. Within a block, ISBNs
+ * are taken with a single atomic increment. Only the thread that finds the block
+ * used up takes the lock to fetch the next one, on the connection of the caller's
+ * transaction if there is one.
+ *
+ * <p>An ISBN is the configured prefix, the serial number zero-padded to fill twelve
+ * digits, and the ISBN-13 check digit. Serials left in a block at shutdown are skipped.
+ */
+@Component
+class IsbnAllocator {
+
+    private final BookJdbcRepository jdbcRepo;
+    private final String prefix;
+    private final int blockSize;
+    private final long maxSerial;
+
+    private volatile Block current = Block.EMPTY;
+
+    IsbnAllocator(BookJdbcRepository jdbcRepo,
+                  @Value("${app.books.isbn.prefix:979}") String prefix) {
+        if (!prefix.matches("97[89]\\d{0,6}")) {
+            throw new IllegalArgumentException("ISBN prefix must start with 978 or 979 and have at most 9 digits, got " + prefix);
+        }
+        this.jdbcRepo = jdbcRepo;
+        this.prefix = prefix;
+        this.blockSize = jdbcRepo.isbnBlockSize();
+        this.maxSerial = pow10(12 - prefix.length());
+    }
+
+    /**
+     * @return an ISBN-13 that has not been handed out before
+     * @throws ConflictException if the serial range of the prefix is used up
+     */
+    String next() {
+        while (true) {
+            Block block = current;
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return format(serial);
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * @param count number of ISBNs needed
+     * @return {@code count} ISBN-13s that have not been handed out before
+     * @throws ConflictException if the serial range of the prefix is used up
+     */
+    List<String> next(int count) {
+        List<String> isbns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            isbns.add(next());
+        }
+        return isbns;
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            return; // another thread already fetched a fresh block
+        }
+        long start = jdbcRepo.reserveIsbnBlock();
+        if (start + blockSize > maxSerial) {
+            throw new ConflictException("ISBN range " + prefix + " is exhausted");
+        }
+        current = new Block(start, start + blockSize);
+    }
+
+    private String format(long serial) {
+        StringBuilder isbn = new StringBuilder(13).append(prefix);
+        String digits = Long.toString(serial);
+        for (int i = prefix.length() + digits.length(); i < 12; i++) {
+            isbn.append('0');
+        }
+        isbn.append(digits);
+        return isbn.append(checkDigit(isbn)).toString();
+    }
+
+    /**
+     * ISBN-13 check digit: the first twelve digits are weighted 1, 3, 1, 3, ... and
+     * the check digit brings the sum to a multiple of 10.
+     */
+    static char checkDigit(CharSequence first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
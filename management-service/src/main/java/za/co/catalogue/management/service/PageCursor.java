@@ -0,0 +1,54 @@
+package za.co.catalogue.management.service;
+
+import za.co.catalogue.management.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque {@code next} token used for keyset pagination.
+ *
+ * <p>The token wraps the id of the last book on the previous page. Clients must
+ * treat it as opaque; the versioned prefix lets the format change later without
+ * misreading old tokens.
+ */
+final class PageCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the id of the last book returned.
+     *
+     * @param lastId id of the last book on the current page
+     * @return opaque URL-safe token
+     */
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode(long)}.
+     *
+     * @param token the token, or null/empty for the first page
+     * @return the id to continue after; 0 for the first page
+     * @throws BadRequestException if the token is malformed
+     */
+    static long decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid page token '%s'", token);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid page token '%s'", token);
+        }
+    }
+}
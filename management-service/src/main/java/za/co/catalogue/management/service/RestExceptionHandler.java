@@ -1,5 +1,9 @@
 package za.co.catalogue.management.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -7,7 +11,11 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import za.co.catalogue.management.exception.*;
 
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -20,13 +28,30 @@ import java.util.Map;
  * <ul>
  *   <li>NotFoundException - HTTP 404 (Not Found)</li>
  *   <li>ConflictException - HTTP 409 (Conflict)</li>
+ *   <li>DataIntegrityViolationException - HTTP 409 (Conflict) for a duplicate book, HTTP 400 (Bad Request) otherwise</li>
+ *   <li>OptimisticLockingFailureException - HTTP 409 (Conflict)</li>
+ *   <li>GoneException - HTTP 410 (Gone)</li>
  *   <li>BadRequestException - HTTP 400 (Bad Request)</li>
  *   <li>MethodArgumentNotValidException - HTTP 400 (Bad Request) with validation details</li>
  * </ul>
+ *
+ * <p>Every handled exception is counted as {@code books.errors}, tagged with the
+ * exception type and the response status.
  */
 @ControllerAdvice
 public class RestExceptionHandler {
 
+    /** SQL state of a unique index or primary key violation. */
+    private static final String UNIQUE_VIOLATION = "23505";
+    /** The unique indexes on {@code book_data} that identify a book (V1, V2). */
+    private static final List<String> BOOK_KEYS = Arrays.asList("UX_BOOK_DATA_ISBN", "UX_BOOK_DATA_NAME_AUTHOR_DATE");
+
+    private final MeterRegistry registry;
+
+    public RestExceptionHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
     /**
      * Handles NotFoundException exceptions.
      * 
@@ -35,6 +60,7 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(NotFoundException ex) {
+        count(ex, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ApiError("NOT_FOUND", ex.getMessage()));
     }
@@ -47,10 +73,60 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ApiError> handleConflict(ConflictException ex) {
+        count(ex, HttpStatus.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(new ApiError("CONFLICT", ex.getMessage()));
     }
 
+    /**
+     * Handles constraint violations raised by the database.
+     *
+     * <p>A write that collides with the ISBN or the name/author/publish date unique index,
+     * e.g. a PATCH that renames a book onto an existing one, is a conflict. Any other
+     * violation (a null or oversized column, a foreign key) means the request carried
+     * data the schema does not accept.
+     *
+     * @param ex the DataIntegrityViolationException that was thrown
+     * @return ResponseEntity with HTTP 409 status for a duplicate book, HTTP 400 otherwise
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (!isDuplicateBook(ex)) {
+            count(ex, HttpStatus.BAD_REQUEST);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiError("BAD_REQUEST", "The book violates a data constraint"));
+        }
+        count(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiError("CONFLICT", "A book with the same ISBN or name, author and publish date already exists"));
+    }
+
+    /**
+     * Handles a write that lost a race with a concurrent update of the same book.
+     *
+     * @param ex the OptimisticLockingFailureException that was thrown
+     * @return ResponseEntity with HTTP 409 status and error details
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        count(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiError("CONFLICT", "The book was changed by another request; read it again and retry"));
+    }
+
+    /**
+     * Handles GoneException exceptions.
+     *
+     * @param ex the GoneException that was thrown
+     * @return ResponseEntity with HTTP 410 status and error details
+     */
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<ApiError> handleGone(GoneException ex) {
+        count(ex, HttpStatus.GONE);
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(new ApiError("GONE", ex.getMessage()));
+    }
+
     /**
      * Handles BadRequestException exceptions.
      * 
@@ -59,6 +135,7 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ApiError("BAD_REQUEST", ex.getMessage()));
     }
@@ -73,10 +150,30 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
         Map<String, String> fieldErrors = new HashMap<>();
         ex.getBindingResult().getFieldErrors()
                 .forEach(err -> fieldErrors.put(err.getField(), err.getDefaultMessage()));
         return ResponseEntity.badRequest()
                 .body(new ApiError("VALIDATION_ERROR", "Request validation failed", fieldErrors));
     }
-}
\ No newline at end of file
+
+    private static boolean isDuplicateBook(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                String message = String.valueOf(cause.getMessage()).toUpperCase(Locale.ROOT);
+                return BOOK_KEYS.stream().anyMatch(message::contains);
+            }
+        }
+        return false;
+    }
+
+    private void count(Exception ex, HttpStatus status) {
+        Counter.builder("books.errors")
+                .description("Requests that ended in a handled exception")
+                .tag("exception", ex.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,16 @@
+-- Next unreserved ISBN serial number (see IsbnAllocator). Each value starts a block of
+-- INCREMENT BY serials, so every instance reserves blocks of the same size. Sequences are
+-- not transactional: a reservation takes no lock and needs no connection of its own, and a
+-- rolled-back transaction never hands its block back. isbn_serial_head did both by taking a
+-- second pooled connection per reservation.
+CREATE SEQUENCE isbn_serial_seq START WITH 0 INCREMENT BY 1000 MINVALUE 0;
+
+-- Carry on after the highest serial issued so far: the larger of the old head and the
+-- largest serial found in an ISBN with the configured prefix (check digit stripped).
+ALTER SEQUENCE isbn_serial_seq RESTART WITH SELECT GREATEST(
+    (SELECT next_serial FROM isbn_serial_head WHERE id = 1),
+    (SELECT COALESCE(MAX(CAST(SUBSTRING(isbn, LENGTH('${isbn_prefix}') + 1, 12 - LENGTH('${isbn_prefix}')) AS BIGINT)) + 1, 0)
+     FROM book_data
+     WHERE LEFT(isbn, LENGTH('${isbn_prefix}')) = '${isbn_prefix}' AND REGEXP_LIKE(isbn, '^[0-9]{13}$')));
+
+DROP TABLE isbn_serial_head;
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS book_data;
-
 CREATE TABLE book_data (
     id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name          VARCHAR(255)        NOT NULL,
@@ -10,4 +8,4 @@ CREATE TABLE book_data (
     book_type     VARCHAR(32)         NOT NULL
 );
 
-CREATE UNIQUE INDEX ux_book_data_isbn ON book_data(isbn);
\ No newline at end of file
+CREATE UNIQUE INDEX ux_book_data_isbn ON book_data(isbn);
@@ -0,0 +1,6 @@
+-- Dedupe key used by BookService.create(). Its leading column also serves the
+-- exact-name lookups (findAllByName / findFirstByName), so name needs no index of its own.
+CREATE UNIQUE INDEX ux_book_data_name_author_date ON book_data(name, author, publish_date);
+
+-- findAllByAuthor / findFirstByAuthor
+CREATE INDEX ix_book_data_author ON book_data(author);
@@ -0,0 +1,30 @@
+-- Bulk import jobs. records_committed is the checkpoint: it is updated in the same
+-- transaction as the books of each batch, so a resumed job skips exactly that many records.
+CREATE TABLE import_job (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    source             VARCHAR(1024)       NOT NULL,
+    format             VARCHAR(16)         NOT NULL,
+    status             VARCHAR(16)         NOT NULL,
+    bytes_total        BIGINT              NOT NULL,
+    bytes_committed    BIGINT              NOT NULL,
+    records_committed  BIGINT              NOT NULL,
+    batches_committed  BIGINT              NOT NULL,
+    created            BIGINT              NOT NULL,
+    updated            BIGINT              NOT NULL,
+    rejected           BIGINT              NOT NULL,
+    error              VARCHAR(2000),
+    created_at         TIMESTAMP           NOT NULL,
+    updated_at         TIMESTAMP           NOT NULL
+);
+
+-- Rejected records of a job, written with the batch they belong to
+CREATE TABLE import_reject (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_id         BIGINT              NOT NULL,
+    record_number  BIGINT              NOT NULL,
+    line_number    BIGINT              NOT NULL,
+    errors         VARCHAR(2000)       NOT NULL,
+    CONSTRAINT fk_import_reject_job FOREIGN KEY (job_id) REFERENCES import_job(id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_import_reject_job_record ON import_reject(job_id, record_number);
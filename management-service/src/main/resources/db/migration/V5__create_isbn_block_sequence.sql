@@ -0,0 +1,4 @@
+-- Each value reserves one block of ISBN serial numbers for a single service instance
+-- (see IsbnAllocator). Sequence values are never handed out twice, even across
+-- instances and rolled-back transactions, so blocks never overlap.
+CREATE SEQUENCE isbn_block_seq START WITH 0 MINVALUE 0;
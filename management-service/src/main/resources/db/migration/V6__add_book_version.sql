@@ -0,0 +1,3 @@
+-- Row version, bumped by every update of the row. Used for optimistic locking and
+-- as the entity tag of the book; existing rows start at 0.
+ALTER TABLE book_data ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
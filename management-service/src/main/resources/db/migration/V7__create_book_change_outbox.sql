@@ -0,0 +1,29 @@
+-- Outbox of catalogue changes, written in the same transaction as the books they describe.
+-- Sequence numbers are taken from book_change_head just before the writing transaction
+-- commits; its row lock is held until the commit, so changes become visible in sequence
+-- order and a reader that has seen seq N never misses a later commit with a lower number.
+CREATE TABLE book_change_head (
+    id          INT                 PRIMARY KEY,
+    last_seq    BIGINT              NOT NULL,
+    -- changes up to and including this seq have been purged
+    purged_seq  BIGINT              NOT NULL
+);
+
+INSERT INTO book_change_head (id, last_seq, purged_seq) VALUES (1, 0, 0);
+
+-- One row per created, updated or deleted book. Book columns hold the book after the
+-- change; for a delete only isbn and the version it was deleted at are set.
+CREATE TABLE book_change (
+    seq           BIGINT              PRIMARY KEY,
+    change_type   VARCHAR(16)         NOT NULL,
+    isbn          VARCHAR(32)         NOT NULL,
+    name          VARCHAR(255),
+    author        VARCHAR(255),
+    publish_date  DATE,
+    price         DECIMAL(10,2),
+    book_type     VARCHAR(32),
+    version       BIGINT              NOT NULL,
+    changed_at    TIMESTAMP           NOT NULL
+);
+
+CREATE INDEX ix_book_change_changed_at ON book_change(changed_at);
@@ -0,0 +1,4 @@
+-- Filtered, sorted listings (BookService.query): range filters on price and publish year,
+-- and ORDER BY either column, read from the index instead of sorting the table per page.
+CREATE INDEX ix_book_data_price ON book_data(price);
+CREATE INDEX ix_book_data_publish_date ON book_data(publish_date);
@@ -0,0 +1,13 @@
+-- Next unreserved ISBN serial number (see IsbnAllocator). An instance reserves a block by
+-- advancing it by its own block size, so blocks never overlap even when instances, or
+-- restarts of one, use different block sizes. isbn_block_seq counted blocks, which only
+-- worked while every block had the same size.
+CREATE TABLE isbn_serial_head (
+    id           INT                 PRIMARY KEY,
+    next_serial  BIGINT              NOT NULL
+);
+
+-- carry on after the last block the sequence handed out, at the default block size of 1000
+INSERT INTO isbn_serial_head (id, next_serial) VALUES (1, (NEXT VALUE FOR isbn_block_seq) * 1000);
+
+DROP SEQUENCE isbn_block_seq;
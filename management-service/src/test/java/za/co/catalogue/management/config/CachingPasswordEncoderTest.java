@@ -0,0 +1,71 @@
+package za.co.catalogue.management.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachingPasswordEncoder Unit Tests")
+class CachingPasswordEncoderTest {
+
+    private AtomicInteger checks;
+    private CachingPasswordEncoder encoder;
+    private String hash;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        checks = new AtomicInteger();
+        PasswordEncoder counting = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                checks.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        encoder = new CachingPasswordEncoder(counting, 100, Duration.ofMinutes(5), Runnable::run);
+        hash = encoder.encode("secret");
+    }
+
+    @Test
+    @DisplayName("Should verify a correct password once and then serve it from cache")
+    void should_skipDelegate_when_passwordAlreadyVerified() {
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+        assertTrue(encoder.matches("secret", hash));
+
+        assertEquals(1, checks.get());
+    }
+
+    @Test
+    @DisplayName("Should never cache or accept a wrong password")
+    void should_alwaysCheckDelegate_when_passwordWrong() {
+        assertTrue(encoder.matches("secret", hash));
+
+        assertFalse(encoder.matches("guess", hash));
+        assertFalse(encoder.matches("guess", hash));
+
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    @DisplayName("Should not reuse a verified password for a different hash")
+    void should_checkDelegate_when_hashChanged() {
+        assertTrue(encoder.matches("secret", hash));
+
+        String rehashed = encoder.encode("other");
+        assertFalse(encoder.matches("secret", rehashed));
+        assertEquals(2, checks.get());
+    }
+}
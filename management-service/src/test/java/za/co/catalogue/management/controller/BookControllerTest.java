@@ -1,33 +1,47 @@
 package za.co.catalogue.management.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import za.co.catalogue.management.dto.*;
 import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.exception.ConflictException;
 import za.co.catalogue.management.exception.NotFoundException;
 import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.service.BookExportService;
 import za.co.catalogue.management.service.BookService;
 import za.co.catalogue.management.service.RestExceptionHandler;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,10 +53,17 @@ class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookExportService exportService;
+
+    @Spy
+    private ObjectMapper streamMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private BookController bookController;
 
     private MockMvc mockMvc;
+    private SimpleMeterRegistry meterRegistry;
     private ObjectMapper objectMapper;
     private BookResponse testBookResponse;
     private BookCreateRequest testCreateRequest;
@@ -50,8 +71,9 @@ class BookControllerTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         mockMvc = MockMvcBuilders.standaloneSetup(bookController)
-                .setControllerAdvice(new RestExceptionHandler())
+                .setControllerAdvice(new RestExceptionHandler(meterRegistry))
                 .build();
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules(); // For LocalDate support
@@ -84,6 +106,109 @@ class BookControllerTest {
         verify(bookService, times(1)).getAll();
     }
 
+    @Test
+    @DisplayName("Should answer in Smile when the client asks for it")
+    void should_returnSmile_when_clientAcceptsSmile() throws Exception {
+        // Arrange
+        when(bookService.getAll()).thenReturn(Arrays.asList(
+                createTestBookResponse("ISBN1", "Book 1"), createTestBookResponse("ISBN2", "Book 2")));
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/books/all")
+                        .accept(smile, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+
+        // Assert
+        JsonNode books = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(2, books.size());
+        assertEquals("ISBN1", books.get(0).path("isbn").asText());
+        assertEquals("Book 2", books.get(1).path("name").asText());
+    }
+
+    @Test
+    @DisplayName("Should return page with next cursor when page is called")
+    void should_returnPageWithNextCursor_when_pageCalled() throws Exception {
+        // Arrange
+        BookResponse book1 = createTestBookResponse("ISBN1", "Book 1");
+        BookResponse book2 = createTestBookResponse("ISBN2", "Book 2");
+        when(bookService.getPage("abc", 2)).thenReturn(new BookPage(Arrays.asList(book1, book2), "def"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/page")
+                .param("next", "abc")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].isbn").value("ISBN1"))
+                .andExpect(jsonPath("$.next").value("def"));
+
+        verify(bookService, times(1)).getPage("abc", 2);
+    }
+
+    @Test
+    @DisplayName("Should return 400 when page is called with an invalid cursor")
+    void should_return400_when_pageCalledWithInvalidCursor() throws Exception {
+        // Arrange
+        when(bookService.getPage("bogus", null))
+                .thenThrow(new BadRequestException("Invalid page token '%s'", "bogus"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/page")
+                .param("next", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid page token 'bogus'"));
+    }
+
+    @Test
+    @DisplayName("Should stream all books as a JSON array when stream is called")
+    @SuppressWarnings("unchecked")
+    void should_streamAllBooks_when_streamCalled() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<BookResponse> consumer = invocation.getArgument(0);
+            consumer.accept(createTestBookResponse("ISBN1", "Book 1"));
+            consumer.accept(createTestBookResponse("ISBN2", "Book 2"));
+            return null;
+        }).when(bookService).streamAll(any(Consumer.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].isbn").value("ISBN2"));
+        verify(bookService, never()).getAll();
+    }
+
+    @Test
+    @DisplayName("Should stream a gzipped CSV attachment when export is called")
+    void should_streamExportAttachment_when_exportCalled() throws Exception {
+        // Arrange
+        when(exportService.export(eq(BookFileFormat.CSV), eq(true), any()))
+                .thenReturn(new BookExportResult(0, 0, 0));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/books/export")
+                .param("format", "CSV")
+                .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.csv.gz\""));
+        verify(exportService).export(eq(BookFileFormat.CSV), eq(true), any());
+    }
+
     @Test
     @DisplayName("Should return book when getByIsbn is called with valid ISBN")
     void should_returnBook_when_getByIsbnCalledWithValidIsbn() throws Exception {
@@ -103,6 +228,88 @@ class BookControllerTest {
         verify(bookService, times(1)).getByIsbn(isbn);
     }
 
+    @Test
+    @DisplayName("Should return 304 without reading the books when the catalogue ETag still matches")
+    void should_return304_when_getAllCalledWithCurrentEtag() throws Exception {
+        // Arrange
+        when(bookService.getCatalogueVersion()).thenReturn("2-a-5");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/all")
+                .header("If-None-Match", "\"2-a-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2-a-5\""))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).getAll();
+    }
+
+    @Test
+    @DisplayName("Should return 304 without running the query when the catalogue ETag still matches")
+    void should_return304_when_queryCalledWithCurrentEtag() throws Exception {
+        // Arrange
+        when(bookService.getCatalogueVersion()).thenReturn("1z");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/query")
+                .param("sort", "price,desc")
+                .header("If-None-Match", "\"1z\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1z\""))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).query(any());
+    }
+
+    @Test
+    @DisplayName("Should return the catalogue with its ETag when the caller's copy is outdated")
+    void should_returnBooksWithEtag_when_getAllCalledWithOutdatedEtag() throws Exception {
+        // Arrange
+        when(bookService.getCatalogueVersion()).thenReturn("2-a-6");
+        when(bookService.getAll()).thenReturn(Collections.singletonList(testBookResponse));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/all")
+                .header("If-None-Match", "\"2-a-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-a-6\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return 304 when the book's ETag still matches")
+    void should_return304_when_getByIsbnCalledWithCurrentEtag() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        testBookResponse.setVersion(3L);
+        when(bookService.getByIsbn(isbn)).thenReturn(testBookResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/")
+                .param("isbn", isbn)
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should return 412 and not update when If-Match names an older version")
+    void should_return412_when_patchCalledWithOutdatedIfMatch() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        testBookResponse.setVersion(4L);
+        when(bookService.getByIsbn(isbn)).thenReturn(testBookResponse);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/{isbn}", isbn)
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUpdateRequest)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(bookService, never()).update(anyString(), any(BookUpdateRequest.class));
+    }
+
     @Test
     @DisplayName("Should return 404 when getByIsbn is called with non-existent ISBN")
     void should_return404_when_getByIsbnCalledWithNonExistentIsbn() throws Exception {
@@ -116,6 +323,8 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(bookService, times(1)).getByIsbn(isbn);
+        assertEquals(1.0, meterRegistry.get("books.errors")
+                .tag("exception", "NotFoundException").tag("status", "404").counter().count());
     }
 
     @Test
@@ -138,6 +347,26 @@ class BookControllerTest {
         verify(bookService, never()).searchByAuthor(anyString());
     }
 
+    @Test
+    @DisplayName("Should run full-text search when search is called with q parameter")
+    void should_runFullTextSearch_when_searchCalledWithQParameter() throws Exception {
+        // Arrange
+        List<BookResponse> books = Arrays.asList(testBookResponse);
+        when(bookService.search("test bo", 5)).thenReturn(books);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/search")
+                .param("q", "test bo")
+                .param("limit", "5")
+                .param("name", "ignored"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value(testBookResponse.getName()));
+
+        verify(bookService, times(1)).search("test bo", 5);
+        verify(bookService, never()).searchByName(anyString());
+    }
+
     @Test
     @DisplayName("Should create book when POST is called with valid request")
     void should_createBook_when_postCalledWithValidRequest() throws Exception {
@@ -173,6 +402,31 @@ class BookControllerTest {
         verify(bookService, never()).create(any(BookCreateRequest.class));
     }
 
+    @Test
+    @DisplayName("Should return per-item results when batch POST is called")
+    void should_returnPerItemResults_when_batchPostCalled() throws Exception {
+        // Arrange
+        BookBatchResponse result = new BookBatchResponse(1, 0, 1, Arrays.asList(
+                new BookBatchItemResult(0, BookBatchItemResult.Status.CREATED, testBookResponse, null),
+                new BookBatchItemResult(1, BookBatchItemResult.Status.INVALID, null,
+                        Collections.singletonMap("name", "must not be blank"))));
+        when(bookService.createAll(anyList())).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/books/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(testCreateRequest, new BookCreateRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].book.isbn").value(testBookResponse.getIsbn()))
+                .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.items[1].errors.name").value("must not be blank"));
+
+        verify(bookService, times(1)).createAll(anyList());
+    }
+
     @Test
     @DisplayName("Should update book when PATCH is called with valid ISBN and request")
     void should_updateBook_when_patchCalledWithValidIsbnAndRequest() throws Exception {
@@ -210,18 +464,85 @@ class BookControllerTest {
         verify(bookService, times(1)).update(eq(isbn), any(BookUpdateRequest.class));
     }
 
+    @Test
+    @DisplayName("Should return 409 when PATCH collides with another book's natural key")
+    void should_return409_when_patchViolatesNaturalKey() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        when(bookService.update(eq(isbn), any(BookUpdateRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "Unique index or primary key violation: \"PUBLIC.UX_BOOK_DATA_NAME_AUTHOR_DATE ON PUBLIC.BOOK_DATA(NAME, AUTHOR, PUBLISH_DATE)\"",
+                        "23505")));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/{isbn}", isbn)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUpdateRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CONFLICT"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when PATCH violates a constraint other than a book key")
+    void should_return400_when_patchViolatesOtherConstraint() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        when(bookService.update(eq(isbn), any(BookUpdateRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "Value too long for column \"NAME VARCHAR(255)\"", "22001")));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/{isbn}", isbn)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUpdateRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+
     @Test
     @DisplayName("Should delete book when DELETE is called with valid ISBN")
     void should_deleteBook_when_deleteCalledWithValidIsbn() throws Exception {
         // Arrange
         String isbn = "ISBN1234567890";
-        doNothing().when(bookService).delete(isbn);
+        doNothing().when(bookService).delete(isbn, null);
 
         // Act & Assert
         mockMvc.perform(delete("/api/books/{isbn}", isbn))
                 .andExpect(status().isNoContent());
 
-        verify(bookService, times(1)).delete(isbn);
+        verify(bookService, times(1)).delete(isbn, null);
+    }
+
+    @Test
+    @DisplayName("Should pass the If-Match version to the delete so it is checked in the same transaction")
+    void should_passIfMatchVersionToDelete_when_deleteCalledWithIfMatch() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        testBookResponse.setVersion(4L);
+        when(bookService.getByIsbn(isbn)).thenReturn(testBookResponse);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/books/{isbn}", isbn)
+                .header("If-Match", "\"4\""))
+                .andExpect(status().isNoContent());
+
+        verify(bookService, times(1)).delete(isbn, 4L);
+    }
+
+    @Test
+    @DisplayName("Should return 409 when the book changes between the If-Match check and the delete")
+    void should_return409_when_bookChangesBeforeDelete() throws Exception {
+        // Arrange
+        String isbn = "ISBN1234567890";
+        testBookResponse.setVersion(4L);
+        when(bookService.getByIsbn(isbn)).thenReturn(testBookResponse);
+        doThrow(new ConflictException("Book with ISBN '" + isbn + "' has changed: version 5, expected 4"))
+                .when(bookService).delete(isbn, 4L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/books/{isbn}", isbn)
+                .header("If-Match", "\"4\""))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -229,13 +550,13 @@ class BookControllerTest {
     void should_return404_when_deleteCalledWithNonExistentIsbn() throws Exception {
         // Arrange
         String isbn = "NONEXISTENT";
-        doThrow(new NotFoundException("Book not found", isbn)).when(bookService).delete(isbn);
+        doThrow(new NotFoundException("Book not found", isbn)).when(bookService).delete(isbn, null);
 
         // Act & Assert
         mockMvc.perform(delete("/api/books/{isbn}", isbn))
                 .andExpect(status().isNotFound());
 
-        verify(bookService, times(1)).delete(isbn);
+        verify(bookService, times(1)).delete(isbn, null);
     }
 
     @Test
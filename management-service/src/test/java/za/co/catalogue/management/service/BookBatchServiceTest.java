@@ -0,0 +1,138 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import za.co.catalogue.management.dto.BookBatchItemResult;
+import za.co.catalogue.management.dto.BookBatchItemResult.Status;
+import za.co.catalogue.management.dto.BookBatchResponse;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.show-sql=false",
+                // several JDBC batches per request, so generated ids are matched across batches
+                "app.books.batch.jdbc-batch-size=2",
+                "app.books.batch.max-size=10"
+        })
+@DisplayName("BookService.createAll Integration Tests")
+class BookBatchServiceTest {
+
+    @Autowired
+    private BookService books;
+
+    @Test
+    @DisplayName("Should create new books, report invalid entries and merge entries with the same key")
+    void should_createAndMerge_when_batchRepeatsKey() {
+        BookCreateRequest invalid = request("", "Batch Author", "2010-01-01", "9.00", BookType.EBOOK);
+        invalid.setPrice(new BigDecimal("-1.00"));
+
+        BookBatchResponse response = books.createAll(Arrays.asList(
+                request("Batch One", "Batch Author", "2010-01-01", "10.00", BookType.HARD_COVER),
+                invalid,
+                request("Batch Two", "Batch Author", "2010-01-02", "11.00", BookType.EBOOK),
+                request("Batch Three", "Batch Author", "2010-01-03", "12.00", BookType.EBOOK),
+                request("Batch One", "Batch Author", "2010-01-01", "13.00", BookType.SOFT_COVER),
+                null));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getUpdated());
+        assertEquals(2, response.getInvalid());
+        List<BookBatchItemResult> items = response.getItems();
+        assertEquals(6, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndex());
+        }
+        assertEquals(Status.CREATED, items.get(0).getStatus());
+        assertEquals(Status.CREATED, items.get(2).getStatus());
+        assertEquals(Status.CREATED, items.get(3).getStatus());
+        assertEquals(Status.UPDATED, items.get(4).getStatus());
+
+        assertEquals(Status.INVALID, items.get(1).getStatus());
+        assertNull(items.get(1).getBook());
+        assertTrue(items.get(1).getErrors().containsKey("name"));
+        assertTrue(items.get(1).getErrors().containsKey("price"));
+        assertEquals(Status.INVALID, items.get(5).getStatus());
+        assertTrue(items.get(5).getErrors().containsKey("item"));
+
+        // the repeated key is one row, written once with the last entry's values
+        String isbn = items.get(0).getBook().getIsbn();
+        assertEquals(isbn, items.get(4).getBook().getIsbn());
+        BookResponse stored = books.getByIsbn(isbn);
+        assertEquals(new BigDecimal("13.00"), stored.getPrice());
+        assertEquals(BookType.SOFT_COVER, stored.getBookType());
+        assertEquals(0L, stored.getVersion().longValue());
+        assertEquals(1, books.searchByName("Batch One").size());
+
+        // generated ids were matched to the right rows across JDBC batches
+        assertEquals("Batch Two", books.getByIsbn(items.get(2).getBook().getIsbn()).getName());
+        assertEquals("Batch Three", books.getByIsbn(items.get(3).getBook().getIsbn()).getName());
+    }
+
+    @Test
+    @DisplayName("Should update price and type of existing books in place, once per key")
+    void should_updateExistingBooks_when_keysAlreadyStored() {
+        BookResponse first = books.create(request("Upsert One", "Upsert Author", "2011-01-01", "20.00", BookType.EBOOK));
+        BookResponse second = books.create(request("Upsert Two", "Upsert Author", "2011-01-02", "21.00", BookType.EBOOK));
+
+        BookBatchResponse response = books.createAll(Arrays.asList(
+                request("Upsert One", "Upsert Author", "2011-01-01", "30.00", BookType.HARD_COVER),
+                request("Upsert Two", "Upsert Author", "2011-01-02", "31.00", BookType.SOFT_COVER),
+                request("Upsert One", "Upsert Author", "2011-01-01", "32.00", BookType.SOFT_COVER)));
+
+        assertEquals(0, response.getCreated());
+        assertEquals(3, response.getUpdated());
+        assertEquals(0, response.getInvalid());
+        assertEquals(first.getIsbn(), response.getItems().get(0).getBook().getIsbn());
+        assertEquals(second.getIsbn(), response.getItems().get(1).getBook().getIsbn());
+        assertEquals(first.getIsbn(), response.getItems().get(2).getBook().getIsbn());
+
+        BookResponse storedFirst = books.getByIsbn(first.getIsbn());
+        assertEquals(new BigDecimal("32.00"), storedFirst.getPrice());
+        assertEquals(BookType.SOFT_COVER, storedFirst.getBookType());
+        assertEquals(first.getVersion() + 1, storedFirst.getVersion().longValue());
+        assertEquals(storedFirst.getVersion(), response.getItems().get(0).getBook().getVersion());
+
+        BookResponse storedSecond = books.getByIsbn(second.getIsbn());
+        assertEquals(new BigDecimal("31.00"), storedSecond.getPrice());
+        assertEquals(second.getVersion() + 1, storedSecond.getVersion().longValue());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty batch and one above the configured size")
+    void should_throwBadRequest_when_batchEmptyOrTooLarge() {
+        assertThrows(BadRequestException.class, () -> books.createAll(Collections.emptyList()));
+        assertThrows(BadRequestException.class, () -> books.createAll(null));
+
+        List<BookCreateRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(request("Oversized " + i, "Oversized Author", "2012-01-01", "1.00", BookType.EBOOK));
+        }
+        assertThrows(BadRequestException.class, () -> books.createAll(tooMany));
+        assertTrue(books.searchByName("Oversized 0").isEmpty());
+    }
+
+    private static BookCreateRequest request(String name, String author, String publishDate, String price,
+                                             BookType bookType) {
+        BookCreateRequest request = new BookCreateRequest();
+        request.setName(name);
+        request.setAuthor(author);
+        request.setPublishDate(LocalDate.parse(publishDate));
+        request.setPrice(new BigDecimal(price));
+        request.setBookType(bookType);
+        return request;
+    }
+}
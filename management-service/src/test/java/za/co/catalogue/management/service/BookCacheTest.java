@@ -0,0 +1,103 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.dto.CacheStatsResponse;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BookCache Unit Tests")
+class BookCacheTest {
+
+    private BookCache cache;
+    private AtomicInteger loads;
+    private Function<String, BookResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookCache(100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+        loader = isbn -> {
+            loads.incrementAndGet();
+            return "MISSING".equals(isbn) ? null : toDto(book(isbn, "Loaded"));
+        };
+    }
+
+    @Test
+    @DisplayName("Should load once and then serve from cache")
+    void should_loadOnce_when_sameIsbnRequestedTwice() {
+        assertEquals("Loaded", cache.get("ISBN1", loader).getName());
+        assertEquals("Loaded", cache.get("ISBN1", loader).getName());
+
+        CacheStatsResponse stats = cache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown ISBNs")
+    void should_notCacheMisses_when_loaderReturnsNull() {
+        assertNull(cache.get("MISSING", loader));
+        assertNull(cache.get("MISSING", loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should populate on create and invalidate on update and delete")
+    void should_followCommittedChanges_when_bookChangedEventsApplied() {
+        Book created = book("ISBN2", "Created");
+        cache.onBookChanged(BookChangedEvent.created(created));
+        assertEquals("Created", cache.get("ISBN2", loader).getName());
+        assertEquals(0, loads.get());
+
+        cache.onBookChanged(BookChangedEvent.updated(created, book("ISBN2", "Renamed")));
+        assertEquals("Loaded", cache.get("ISBN2", loader).getName());
+        assertEquals(1, loads.get());
+
+        cache.onBookChanged(BookChangedEvent.deleted(book("ISBN2", "Loaded")));
+        cache.get("ISBN2", loader);
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.stats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Should evict when the size bound is exceeded")
+    void should_evict_when_sizeBoundExceeded() {
+        BookCache small = new BookCache(2, Duration.ofMinutes(5), Runnable::run);
+        for (int i = 0; i < 50; i++) {
+            small.get("ISBN" + i, loader);
+        }
+        small.get("ISBN0", loader);
+
+        CacheStatsResponse stats = small.stats();
+        assertTrue(stats.getSize() <= 2, "size " + stats.getSize());
+        assertTrue(stats.getEvictions() > 0);
+    }
+
+    private static BookResponse toDto(Book book) {
+        return new BookServiceImpl.Mapper().toDto(book);
+    }
+
+    private static Book book(String isbn, String name) {
+        Book b = new Book();
+        b.setId(1L);
+        b.setIsbn(isbn);
+        b.setName(name);
+        b.setAuthor("Author");
+        b.setPublishDate(LocalDate.of(2020, 1, 1));
+        b.setPrice(new BigDecimal("10.00"));
+        b.setBookType(BookType.EBOOK);
+        return b;
+    }
+}
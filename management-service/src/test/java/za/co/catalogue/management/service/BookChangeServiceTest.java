@@ -0,0 +1,127 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import za.co.catalogue.management.dto.BookChangePage;
+import za.co.catalogue.management.dto.BookChangeResponse;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.dto.BookUpdateRequest;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.exception.GoneException;
+import za.co.catalogue.management.model.BookChangeType;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("BookChangeService Integration Tests")
+class BookChangeServiceTest {
+
+    @Autowired
+    private BookChangeService changes;
+
+    @Autowired
+    private BookService books;
+
+    @Test
+    @DisplayName("Should record create, update and delete in commit order")
+    void should_recordChangesInOrder_when_bookIsCreatedUpdatedAndDeleted() {
+        long since = changes.getChanges(null, null).getLast();
+
+        BookResponse created = books.create(createRequest("Outbox Book", "2003-03-03"));
+        BookUpdateRequest patch = new BookUpdateRequest();
+        patch.setPrice(new BigDecimal("12.00"));
+        books.update(created.getIsbn(), patch);
+        books.delete(created.getIsbn());
+
+        BookChangePage page = changes.getChanges(since, null);
+        List<BookChangeResponse> items = page.getItems();
+        assertEquals(3, items.size());
+        assertEquals(BookChangeType.CREATED, items.get(0).getType());
+        assertEquals(BookChangeType.UPDATED, items.get(1).getType());
+        assertEquals(new BigDecimal("12.00"), items.get(1).getBook().getPrice());
+        assertEquals(BookChangeType.DELETED, items.get(2).getType());
+        assertNull(items.get(2).getBook());
+        assertEquals(created.getIsbn(), items.get(2).getIsbn());
+        assertEquals(items.get(0).getSeq() + 1, items.get(1).getSeq());
+        assertEquals(items.get(1).getSeq() + 1, items.get(2).getSeq());
+        assertEquals(items.get(2).getSeq(), page.getLast());
+        assertFalse(page.isMore());
+    }
+
+    @Test
+    @DisplayName("Should change the catalogue version on every committed write and only then")
+    void should_changeCatalogueVersion_when_changeCommits() {
+        String initial = books.getCatalogueVersion();
+        BookResponse created = books.create(createRequest("Versioned Book", "2003-05-05"));
+        String afterCreate = books.getCatalogueVersion();
+        assertNotEquals(initial, afterCreate);
+
+        BookUpdateRequest stale = new BookUpdateRequest();
+        stale.setPrice(new BigDecimal("99.00"));
+        stale.setVersion(created.getVersion() + 1);
+        assertThrows(ConflictException.class, () -> books.update(created.getIsbn(), stale));
+        assertEquals(afterCreate, books.getCatalogueVersion());
+
+        books.delete(created.getIsbn());
+        assertNotEquals(afterCreate, books.getCatalogueVersion());
+    }
+
+    @Test
+    @DisplayName("Should record nothing for a change that is rolled back")
+    void should_recordNothing_when_updateFails() {
+        BookResponse created = books.create(createRequest("Rolled Back Book", "2004-04-04"));
+        long since = changes.getChanges(null, null).getLast();
+
+        BookUpdateRequest stale = new BookUpdateRequest();
+        stale.setPrice(new BigDecimal("99.00"));
+        stale.setVersion(created.getVersion() + 1);
+        assertThrows(ConflictException.class, () -> books.update(created.getIsbn(), stale));
+
+        BookChangePage page = changes.getChanges(since, null);
+        assertTrue(page.getItems().stream().noneMatch(c -> c.getIsbn().equals(created.getIsbn())));
+    }
+
+    @Test
+    @DisplayName("Should complete a waiting poll as soon as a change commits")
+    void should_completeWaitingPoll_when_changeCommits() throws Exception {
+        long since = changes.getChanges(null, null).getLast();
+
+        CompletableFuture<BookChangePage> poll = changes.awaitChanges(since, null, 30);
+        assertFalse(poll.isDone());
+
+        BookResponse created = books.create(createRequest("Long Poll Book", "2005-05-05"));
+
+        BookChangePage page = poll.get(10, TimeUnit.SECONDS);
+        assertTrue(page.getItems().stream().anyMatch(c -> c.getIsbn().equals(created.getIsbn())));
+    }
+
+    @Test
+    @DisplayName("Should answer 410 for a position beyond the last change")
+    void should_throwGone_when_positionIsAheadOfOutbox() {
+        long last = changes.getChanges(null, null).getLast();
+
+        assertEquals(last, changes.getChanges(last, null).getLast());
+        assertThrows(GoneException.class, () -> changes.getChanges(last + 1_000, null));
+        assertThrows(GoneException.class, () -> changes.awaitChanges(last + 1_000, null, 30));
+    }
+
+    private static BookCreateRequest createRequest(String name, String publishDate) {
+        BookCreateRequest request = new BookCreateRequest();
+        request.setName(name);
+        request.setAuthor("Outbox Author");
+        request.setPublishDate(LocalDate.parse(publishDate));
+        request.setPrice(new BigDecimal("10.00"));
+        request.setBookType(BookType.EBOOK);
+        return request;
+    }
+}
@@ -0,0 +1,169 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.dto.BookUpdateRequest;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.exception.NotFoundException;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("Concurrent BookService.update Integration Tests")
+class BookConcurrentUpdateTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private BookService books;
+
+    @Autowired
+    private BookJdbcRepository jdbcRepo;
+
+    @Test
+    @DisplayName("Should lose no increment when many clients update the same book at once")
+    void should_keepEveryIncrement_when_updatesRace() throws Exception {
+        BookCreateRequest create = new BookCreateRequest();
+        create.setName("Contended Book");
+        create.setAuthor("Contended Author");
+        create.setPublishDate(LocalDate.of(2001, 1, 1));
+        create.setPrice(BigDecimal.ZERO.setScale(2));
+        create.setBookType(BookType.EBOOK);
+        String isbn = books.create(create).getIsbn();
+        long initialVersion = books.getByIsbn(isbn).getVersion();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int done = 0; done < INCREMENTS_PER_THREAD; ) {
+                        // read-modify-write, retried from a fresh read when another client got there first
+                        BookResponse current = books.getByIsbn(isbn);
+                        BookUpdateRequest patch = new BookUpdateRequest();
+                        patch.setPrice(current.getPrice().add(BigDecimal.ONE));
+                        patch.setVersion(current.getVersion());
+                        try {
+                            books.update(isbn, patch);
+                            done++;
+                        } catch (ConflictException | OptimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = THREADS * INCREMENTS_PER_THREAD;
+        BookResponse result = books.getByIsbn(isbn);
+        assertEquals(new BigDecimal(total).setScale(2), result.getPrice(),
+                "every successful update must be visible (" + conflicts.get() + " conflicts retried)");
+        assertEquals(initialVersion + total, result.getVersion().longValue());
+    }
+
+    @Test
+    @DisplayName("Should refuse an update that names an outdated version")
+    void should_throwConflict_when_versionOutdated() {
+        BookCreateRequest create = new BookCreateRequest();
+        create.setName("Versioned Book");
+        create.setAuthor("Versioned Author");
+        create.setPublishDate(LocalDate.of(2002, 2, 2));
+        create.setPrice(new BigDecimal("5.00"));
+        create.setBookType(BookType.EBOOK);
+        BookResponse created = books.create(create);
+
+        BookUpdateRequest first = new BookUpdateRequest();
+        first.setPrice(new BigDecimal("6.00"));
+        first.setVersion(created.getVersion());
+        BookResponse updated = books.update(created.getIsbn(), first);
+        assertEquals(created.getVersion() + 1, updated.getVersion().longValue());
+
+        BookUpdateRequest stale = new BookUpdateRequest();
+        stale.setPrice(new BigDecimal("7.00"));
+        stale.setVersion(created.getVersion());
+        assertThrows(ConflictException.class, () -> books.update(created.getIsbn(), stale));
+        assertEquals(new BigDecimal("6.00"), books.getByIsbn(created.getIsbn()).getPrice());
+    }
+
+    @Test
+    @DisplayName("Should not let a batch write over an update committed after the batch read the book")
+    void should_throwOptimisticLockingFailure_when_batchRowIsStale() {
+        BookCreateRequest create = new BookCreateRequest();
+        create.setName("Batch Raced Book");
+        create.setAuthor("Batch Raced Author");
+        create.setPublishDate(LocalDate.of(2003, 3, 3));
+        create.setPrice(new BigDecimal("5.00"));
+        create.setBookType(BookType.EBOOK);
+        BookResponse created = books.create(create);
+
+        Book key = new Book();
+        key.setName(create.getName());
+        key.setAuthor(create.getAuthor());
+        key.setPublishDate(create.getPublishDate());
+        Book readByBatch = jdbcRepo.findByNaturalKeys(Collections.singletonList(key)).get(0);
+
+        BookUpdateRequest patch = new BookUpdateRequest();
+        patch.setPrice(new BigDecimal("6.00"));
+        books.update(created.getIsbn(), patch);
+
+        readByBatch.setPrice(new BigDecimal("9.00"));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> jdbcRepo.updatePriceAndType(Collections.singletonList(readByBatch), 10));
+        BookResponse current = books.getByIsbn(created.getIsbn());
+        assertEquals(new BigDecimal("6.00"), current.getPrice());
+        assertEquals(created.getVersion() + 1, current.getVersion().longValue());
+    }
+
+    @Test
+    @DisplayName("Should refuse a delete that names an outdated version")
+    void should_throwConflict_when_deleteVersionOutdated() {
+        BookCreateRequest create = new BookCreateRequest();
+        create.setName("Delete Raced Book");
+        create.setAuthor("Delete Raced Author");
+        create.setPublishDate(LocalDate.of(2004, 4, 4));
+        create.setPrice(new BigDecimal("5.00"));
+        create.setBookType(BookType.EBOOK);
+        BookResponse created = books.create(create);
+
+        BookUpdateRequest patch = new BookUpdateRequest();
+        patch.setPrice(new BigDecimal("6.00"));
+        BookResponse updated = books.update(created.getIsbn(), patch);
+
+        assertThrows(ConflictException.class, () -> books.delete(created.getIsbn(), created.getVersion()));
+        assertEquals(new BigDecimal("6.00"), books.getByIsbn(created.getIsbn()).getPrice());
+
+        books.delete(created.getIsbn(), updated.getVersion());
+        assertThrows(NotFoundException.class, () -> books.getByIsbn(created.getIsbn()));
+    }
+}
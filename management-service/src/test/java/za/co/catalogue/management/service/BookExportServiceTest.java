@@ -0,0 +1,139 @@
+package za.co.catalogue.management.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.StreamUtils;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookExportResult;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.model.BookType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.show-sql=false")
+@DisplayName("BookExportService Integration Tests")
+class BookExportServiceTest {
+
+    @Autowired
+    private BookExportService exports;
+
+    @Autowired
+    private BookService books;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @ParameterizedTest(name = "{0}, gzip={1}")
+    @CsvSource({"CSV, false", "CSV, true", "NDJSON, false", "NDJSON, true"})
+    @DisplayName("Should export every book in a file that reads back to the same books")
+    void should_roundTripBooks_when_exported(BookFileFormat format, boolean gzip) throws Exception {
+        String prefix = "Export " + format + (gzip ? " Gzip" : "");
+        BookResponse first = books.create(request(prefix + " One", prefix + " Author"));
+        BookResponse second = books.create(request(prefix + " Two", prefix + " Author"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BookExportResult result = exports.export(format, gzip, out);
+
+        assertEquals(out.size(), result.getBytes());
+        String content = decode(out.toByteArray(), gzip);
+        Map<String, Map<String, String>> rows = format == BookFileFormat.CSV ? readCsv(content) : readNdjson(content);
+        assertEquals(books.getAll().size(), rows.size());
+        assertEquals(result.getRows(), rows.size());
+        for (BookResponse book : Arrays.asList(first, second)) {
+            Map<String, String> row = rows.get(book.getIsbn());
+            assertNotNull(row, book.getIsbn());
+            assertEquals(book.getName(), row.get("name"));
+            assertEquals(book.getAuthor(), row.get("author"));
+            assertEquals(book.getPublishDate().toString(), row.get("publishDate"));
+            assertEquals(0, book.getPrice().compareTo(new BigDecimal(row.get("price"))));
+            assertEquals(book.getBookType().name(), row.get("bookType"));
+            assertEquals(String.valueOf(book.getVersion()), row.get("version"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write every book with its version to a CSV export")
+    void should_writeVersionColumn_when_exportingCsv() throws Exception {
+        BookResponse book = books.create(request("Csv Export One", "Csv Export Author"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BookExportResult result = exports.export(BookFileFormat.CSV, false, out);
+
+        Map<String, Map<String, String>> rows = readCsv(out.toString(StandardCharsets.UTF_8.name()));
+        assertEquals(result.getRows(), rows.size());
+        assertEquals(out.size(), result.getBytes());
+        Map<String, String> row = rows.get(book.getIsbn());
+        assertNotNull(row);
+        assertEquals("Csv Export One", row.get("name"));
+        assertEquals("Csv Export Author", row.get("author"));
+        assertEquals("2003-04-05", row.get("publishDate"));
+        assertEquals("12.50", row.get("price"));
+        assertEquals("HARD_COVER", row.get("bookType"));
+        assertEquals(String.valueOf(book.getVersion()), row.get("version"));
+    }
+
+    private static String decode(byte[] bytes, boolean gzip) throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(bytes)) : new ByteArrayInputStream(bytes)) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Map<String, Map<String, String>> readNdjson(String ndjson) throws IOException {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        for (String line : ndjson.split("\n")) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = objectMapper.readTree(line).fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                row.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            rows.put(row.get("isbn"), row);
+        }
+        return rows;
+    }
+
+    private static Map<String, Map<String, String>> readCsv(String csv) throws Exception {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        try (MappingIterator<Map<String, String>> it = new CsvMapper().readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(csv)) {
+            List<Map<String, String>> all = it.readAll();
+            all.forEach(row -> rows.put(row.get("isbn"), row));
+        }
+        return rows;
+    }
+
+    private static BookCreateRequest request(String name, String author) {
+        BookCreateRequest request = new BookCreateRequest();
+        request.setName(name);
+        request.setAuthor(author);
+        request.setPublishDate(LocalDate.of(2003, 4, 5));
+        request.setPrice(new BigDecimal("12.50"));
+        request.setBookType(BookType.HARD_COVER);
+        return request;
+    }
+}
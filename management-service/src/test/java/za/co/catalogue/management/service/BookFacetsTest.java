@@ -0,0 +1,153 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.catalogue.management.dto.AuthorCount;
+import za.co.catalogue.management.dto.BookFacetsResponse;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("BookFacets Unit Tests")
+class BookFacetsTest {
+
+    private BookFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new BookFacets(mock(BookJdbcRepository.class), 100);
+        facets.add(book(1L, "Paulo Coelho", 1988, "10.00", BookType.SOFT_COVER));
+        facets.add(book(2L, "Paulo Coelho", 1993, "30.00", BookType.HARD_COVER));
+        facets.add(book(3L, "James Clear", 2018, "20.00", BookType.EBOOK));
+    }
+
+    @Test
+    @DisplayName("Should count by type, year and author and summarise prices")
+    void should_summariseCatalogue() {
+        BookFacetsResponse result = facets.snapshot(10);
+
+        assertEquals(3, result.getTotalBooks());
+        assertEquals(Long.valueOf(1), result.getByType().get(BookType.HARD_COVER));
+        assertEquals(Long.valueOf(1), result.getByType().get(BookType.EBOOK));
+        assertEquals(Arrays.asList(1988, 1993, 2018), Arrays.asList(result.getByYear().keySet().toArray()));
+        assertEquals(Arrays.asList(new AuthorCount("Paulo Coelho", 2), new AuthorCount("James Clear", 1)),
+                result.getTopAuthors());
+        assertEquals(2, result.getAuthorCount());
+        assertEquals(new BigDecimal("10.00"), result.getMinPrice());
+        assertEquals(new BigDecimal("30.00"), result.getMaxPrice());
+        assertEquals(new BigDecimal("20.00"), result.getAveragePrice());
+    }
+
+    @Test
+    @DisplayName("Should list every book type, even without books")
+    void should_listEmptyTypes() {
+        facets.remove(book(3L, "James Clear", 2018, "20.00", BookType.EBOOK));
+
+        assertEquals(Long.valueOf(0), facets.snapshot(10).getByType().get(BookType.EBOOK));
+    }
+
+    @Test
+    @DisplayName("Should follow updates and deletes incrementally")
+    void should_applyChanges_when_booksChange() {
+        Book before = book(2L, "Paulo Coelho", 1993, "30.00", BookType.HARD_COVER);
+        Book after = book(2L, "Paulo Coelho", 1993, "5.00", BookType.EBOOK);
+        facets.onBookChanged(BookChangedEvent.updated(before, after));
+        facets.onBookChanged(BookChangedEvent.deleted(book(1L, "Paulo Coelho", 1988, "10.00", BookType.SOFT_COVER)));
+        facets.onBookChanged(BookChangedEvent.created(book(4L, "James Clear", 2019, "25.00", BookType.EBOOK)));
+
+        BookFacetsResponse result = facets.snapshot(10);
+
+        assertEquals(3, result.getTotalBooks());
+        assertEquals(Long.valueOf(3), result.getByType().get(BookType.EBOOK));
+        assertEquals(Long.valueOf(0), result.getByType().get(BookType.HARD_COVER));
+        assertFalse(result.getByYear().containsKey(1988));
+        assertEquals(Arrays.asList(new AuthorCount("James Clear", 2), new AuthorCount("Paulo Coelho", 1)),
+                result.getTopAuthors());
+        assertEquals(new BigDecimal("5.00"), result.getMinPrice());
+        assertEquals(new BigDecimal("25.00"), result.getMaxPrice());
+        assertEquals(new BigDecimal("16.67"), result.getAveragePrice());
+    }
+
+    @Test
+    @DisplayName("Should drop changes that arrive after a newer version of the book was applied")
+    void should_dropStaleChanges_when_eventsArriveOutOfOrder() {
+        Book v0 = version(book(3L, "James Clear", 2018, "20.00", BookType.EBOOK), 0);
+        Book v1 = version(book(3L, "James Clear", 2018, "30.00", BookType.HARD_COVER), 1);
+        Book v2 = version(book(3L, "James Clear", 2018, "40.00", BookType.SOFT_COVER), 2);
+        facets.onBookChanged(BookChangedEvent.updated(v1, v2));
+        facets.onBookChanged(BookChangedEvent.updated(v0, v1));
+
+        // a delete committed after the create, delivered before it
+        Book created = version(book(5L, "Chinua Achebe", 1958, "15.00", BookType.SOFT_COVER), 0);
+        facets.onBookChanged(BookChangedEvent.deleted(created));
+        facets.onBookChanged(BookChangedEvent.created(created));
+
+        // an update of a book that was deleted meanwhile
+        Book first = version(book(1L, "Paulo Coelho", 1988, "10.00", BookType.SOFT_COVER), 1);
+        facets.onBookChanged(BookChangedEvent.deleted(first));
+        facets.onBookChanged(BookChangedEvent.updated(
+                version(book(1L, "Paulo Coelho", 1988, "12.00", BookType.SOFT_COVER), 0), first));
+
+        BookFacetsResponse result = facets.snapshot(10);
+
+        assertEquals(2, result.getTotalBooks());
+        assertEquals(Long.valueOf(0), result.getByType().get(BookType.EBOOK));
+        assertEquals(Long.valueOf(1), result.getByType().get(BookType.HARD_COVER));
+        assertEquals(Long.valueOf(1), result.getByType().get(BookType.SOFT_COVER));
+        assertFalse(result.getByYear().containsKey(1958));
+        assertEquals(Arrays.asList(new AuthorCount("James Clear", 1), new AuthorCount("Paulo Coelho", 1)),
+                result.getTopAuthors());
+        assertEquals(new BigDecimal("30.00"), result.getMinPrice());
+        assertEquals(new BigDecimal("40.00"), result.getMaxPrice());
+        assertEquals(new BigDecimal("35.00"), result.getAveragePrice());
+    }
+
+    @Test
+    @DisplayName("Should cut the author list at the limit, most books first")
+    void should_limitAuthors() {
+        BookFacetsResponse result = facets.snapshot(1);
+
+        assertEquals(1, result.getTopAuthors().size());
+        assertEquals("Paulo Coelho", result.getTopAuthors().get(0).getAuthor());
+        assertEquals(2, result.getAuthorCount());
+    }
+
+    @Test
+    @DisplayName("Should report no prices for an empty catalogue")
+    void should_haveNoPrices_when_empty() {
+        BookFacets empty = new BookFacets(mock(BookJdbcRepository.class), 100);
+
+        BookFacetsResponse result = empty.snapshot(10);
+
+        assertEquals(0, result.getTotalBooks());
+        assertNull(result.getMinPrice());
+        assertNull(result.getMaxPrice());
+        assertNull(result.getAveragePrice());
+        assertTrue(result.getTopAuthors().isEmpty());
+    }
+
+    private static Book book(long id, String author, int year, String price, BookType type) {
+        Book b = new Book();
+        b.setId(id);
+        b.setIsbn("isbn-" + id);
+        b.setName("Book " + id);
+        b.setAuthor(author);
+        b.setPublishDate(LocalDate.of(year, 1, 1));
+        b.setPrice(new BigDecimal(price));
+        b.setBookType(type);
+        return b;
+    }
+
+    private static Book version(Book book, long version) {
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -0,0 +1,161 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import za.co.catalogue.management.dto.ImportJobResponse;
+import za.co.catalogue.management.dto.ImportRejectResponse;
+import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.model.BookFileFormat;
+import za.co.catalogue.management.model.ImportJob;
+import za.co.catalogue.management.model.ImportStatus;
+import za.co.catalogue.management.repository.ImportJobRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "app.books.import.base-dir=target/test-imports",
+                "app.books.import.batch-size=2"
+        })
+@DisplayName("BookImportService Integration Tests")
+class BookImportServiceTest {
+
+    private static final Path BASE_DIR = Paths.get("target/test-imports");
+
+    @Autowired
+    private BookImportService imports;
+
+    @Autowired
+    private BookService books;
+
+    @Autowired
+    private ImportJobRepository jobs;
+
+    @Test
+    @DisplayName("Should import CSV rows and report unparsable and invalid ones")
+    void should_importValidRows_when_csvHasBadRows() throws Exception {
+        write("books.csv",
+                "name,author,publishDate,price,bookType\n"
+                        + "Csv One,Csv Author,2001-02-03,10.50,HARD_COVER\n"
+                        + "Csv Two,Csv Author,not-a-date,11.00,SOFT_COVER\n"
+                        + "\n"
+                        + ",Csv Author,2001-02-05,12.00,EBOOK\n"
+                        + "\"Csv, Three\",Csv Author,2001-02-06,13.00,EBOOK\n");
+
+        ImportJobResponse job = await(imports.startFromPath("books.csv", null));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(BookFileFormat.CSV, job.getFormat());
+        assertEquals(4, job.getRecordsCommitted());
+        assertEquals(2, job.getCreated());
+        assertEquals(2, job.getRejected());
+        assertEquals(2, job.getBatchesCommitted());
+        assertEquals(1, books.searchByName("Csv, Three").size());
+
+        List<ImportRejectResponse> rejects = imports.getRejects(job.getId(), null, null);
+        assertEquals(2, rejects.size());
+        assertEquals(2, rejects.get(0).getRecordNumber());
+        assertEquals(3, rejects.get(0).getLineNumber());
+        assertTrue(rejects.get(0).getErrors().startsWith("publishDate:"));
+        assertEquals(3, rejects.get(1).getRecordNumber());
+        assertEquals(5, rejects.get(1).getLineNumber());
+        assertTrue(rejects.get(1).getErrors().startsWith("name:"));
+    }
+
+    @Test
+    @DisplayName("Should import gzip NDJSON and reject malformed lines")
+    void should_importNdjson_when_fileIsGzipped() throws Exception {
+        byte[] content = ("{\"name\":\"Json One\",\"author\":\"Json Author\",\"publishDate\":\"2002-01-01\",\"price\":5,\"bookType\":\"EBOOK\"}\n"
+                + "{\"name\":\"Json Two\",\n"
+                + "{\"name\":\"Json Three\",\"author\":\"Json Author\",\"publishDate\":\"2002-01-03\",\"price\":7,\"bookType\":\"PAPYRUS\"}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        Files.createDirectories(BASE_DIR);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(BASE_DIR.resolve("books.ndjson.gz")))) {
+            out.write(content);
+        }
+
+        ImportJobResponse job = await(imports.startFromPath("books.ndjson.gz", null));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(BookFileFormat.NDJSON, job.getFormat());
+        assertEquals(1, job.getCreated());
+        assertEquals(2, job.getRejected());
+        assertEquals(1, books.searchByName("Json One").size());
+        List<ImportRejectResponse> rejects = imports.getRejects(job.getId(), 2L, 10);
+        assertEquals(1, rejects.size());
+        assertEquals("bookType: invalid value 'PAPYRUS'", rejects.get(0).getErrors());
+    }
+
+    @Test
+    @DisplayName("Should resume a failed import after its committed records")
+    void should_skipCommittedRecords_when_failedImportResumed() throws Exception {
+        Path file = write("resume.ndjson",
+                line("Resume One") + line("Resume Two") + line("Resume Three") + line("Resume Four"));
+        ImportJob failed = new ImportJob();
+        failed.setSource(file.toRealPath().toString());
+        failed.setFormat(BookFileFormat.NDJSON);
+        failed.setStatus(ImportStatus.FAILED);
+        failed.setBytesTotal(Files.size(file));
+        failed.setRecordsCommitted(2);
+        failed.setBatchesCommitted(1);
+        failed.setError("Connection reset");
+        failed.setCreatedAt(Instant.now());
+        failed.setUpdatedAt(Instant.now());
+        long id = jobs.save(failed).getId();
+
+        ImportJobResponse job = await(imports.resume(id));
+
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertNull(job.getError());
+        assertEquals(4, job.getRecordsCommitted());
+        assertEquals(2, job.getBatchesCommitted());
+        assertEquals(2, job.getCreated());
+        assertTrue(books.searchByName("Resume Two").isEmpty());
+        assertEquals(1, books.searchByName("Resume Three").size());
+        assertThrows(ConflictException.class, () -> imports.resume(id));
+    }
+
+    @Test
+    @DisplayName("Should refuse paths outside the import directory")
+    void should_throwBadRequest_when_pathEscapesBaseDir() throws Exception {
+        write("notes.txt", "name\n");
+        assertThrows(BadRequestException.class, () -> imports.startFromPath("../test-imports/../pom.xml", BookFileFormat.CSV));
+        assertThrows(BadRequestException.class, () -> imports.startFromPath("missing.csv", null));
+        assertThrows(BadRequestException.class, () -> imports.startFromPath("notes.txt", null));
+    }
+
+    private static String line(String name) {
+        return "{\"name\":\"" + name + "\",\"author\":\"Resume Author\",\"publishDate\":\"2003-01-01\","
+                + "\"price\":9.99,\"bookType\":\"SOFT_COVER\"}\n";
+    }
+
+    private static Path write(String name, String content) throws IOException {
+        Files.createDirectories(BASE_DIR);
+        return Files.write(BASE_DIR.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportJobResponse await(ImportJobResponse started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportJobResponse job = started;
+        while (job.getStatus() == ImportStatus.QUEUED || job.getStatus() == ImportStatus.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "import did not finish in time");
+            Thread.sleep(20);
+            job = imports.get(started.getId());
+        }
+        return job;
+    }
+}
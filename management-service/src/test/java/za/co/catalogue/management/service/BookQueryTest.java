@@ -0,0 +1,129 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import za.co.catalogue.management.dto.BookCreateRequest;
+import za.co.catalogue.management.dto.BookQuery;
+import za.co.catalogue.management.dto.BookQueryPage;
+import za.co.catalogue.management.dto.BookResponse;
+import za.co.catalogue.management.exception.BadRequestException;
+import za.co.catalogue.management.model.BookType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("BookService.query Integration Tests")
+class BookQueryTest {
+
+    /** A price band no demo book falls in, so the tests only see their own books. */
+    private static final BigDecimal MIN_PRICE = new BigDecimal("7300.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("7399.99");
+
+    @Autowired
+    private BookService books;
+
+    @BeforeEach
+    void createBooks() {
+        BookQuery mine = inBand();
+        if (books.query(mine).getTotalItems() > 0) {
+            return; // the context, and its database, is shared between test methods
+        }
+        for (int i = 0; i < 12; i++) {
+            BookCreateRequest create = new BookCreateRequest();
+            create.setName("Query Book " + i);
+            create.setAuthor("Query Author " + (i % 3));
+            create.setPublishDate(LocalDate.of(1990 + i, 6, 1));
+            create.setPrice(MIN_PRICE.add(BigDecimal.valueOf(i % 4)));
+            create.setBookType(i % 2 == 0 ? BookType.HARD_COVER : BookType.EBOOK);
+            books.create(create);
+        }
+    }
+
+    @Test
+    @DisplayName("Should filter by type, price and year in the database")
+    void should_applyEveryFilter() {
+        BookQuery query = inBand();
+        query.setBookType(BookType.HARD_COVER);
+        query.setMinYear(1992);
+        query.setMaxYear(1998);
+
+        BookQueryPage page = books.query(query);
+
+        assertEquals(4, page.getTotalItems());
+        for (BookResponse book : page.getItems()) {
+            assertEquals(BookType.HARD_COVER, book.getBookType());
+            assertTrue(book.getPublishDate().getYear() >= 1992 && book.getPublishDate().getYear() <= 1998);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return every book exactly once across pages of an order with ties")
+    void should_pageWithoutGapsOrRepeats_when_sortKeyHasTies() {
+        BookQuery query = inBand();
+        query.setSort("price,desc");
+        query.setSize(5);
+
+        List<BookResponse> seen = new ArrayList<>();
+        BookQueryPage page;
+        int pageNumber = 0;
+        do {
+            query.setPage(pageNumber++);
+            page = books.query(query);
+            seen.addAll(page.getItems());
+        } while (pageNumber < page.getTotalPages());
+
+        assertEquals(12, page.getTotalItems());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(12, seen.stream().map(BookResponse::getIsbn).distinct().count());
+        List<BigDecimal> prices = seen.stream().map(BookResponse::getPrice).collect(Collectors.toList());
+        for (int i = 1; i < prices.size(); i++) {
+            assertTrue(prices.get(i - 1).compareTo(prices.get(i)) >= 0, "prices must be descending: " + prices);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap the page size at the configured maximum")
+    void should_capPageSize() {
+        BookQuery query = new BookQuery();
+        query.setSize(Integer.MAX_VALUE);
+
+        assertTrue(books.query(query).getSize() < Integer.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sort fields, negative pages and inverted ranges")
+    void should_rejectInvalidQueries() {
+        BookQuery unknownField = new BookQuery();
+        unknownField.setSort("id; DROP TABLE book_data");
+        assertThrows(BadRequestException.class, () -> books.query(unknownField));
+
+        BookQuery unknownDirection = new BookQuery();
+        unknownDirection.setSort("name,sideways");
+        assertThrows(BadRequestException.class, () -> books.query(unknownDirection));
+
+        BookQuery negativePage = new BookQuery();
+        negativePage.setPage(-1);
+        assertThrows(BadRequestException.class, () -> books.query(negativePage));
+
+        BookQuery inverted = new BookQuery();
+        inverted.setMinYear(2000);
+        inverted.setMaxYear(1999);
+        assertThrows(BadRequestException.class, () -> books.query(inverted));
+    }
+
+    private static BookQuery inBand() {
+        BookQuery query = new BookQuery();
+        query.setMinPrice(MIN_PRICE);
+        query.setMaxPrice(MAX_PRICE);
+        return query;
+    }
+}
@@ -0,0 +1,115 @@
+package za.co.catalogue.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import za.co.catalogue.management.model.Book;
+import za.co.catalogue.management.model.BookType;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("BookSearchIndex Unit Tests")
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(mock(BookJdbcRepository.class), 100, 1000);
+        index.add(book(1L, "The Alchemist", "Paulo Coelho"));
+        index.add(book(2L, "Atomic Habits", "James Clear"));
+        index.add(book(3L, "The Power of Habit", "Charles Duhigg"));
+        index.add(book(4L, "Clean Code", "Robert C. Martin"));
+        index.add(book(5L, "Cry, the Beloved Country", "Alan Paton"));
+    }
+
+    @Test
+    @DisplayName("Should fold case and accents when tokenizing")
+    void should_foldCaseAndAccents_when_tokenizing() {
+        assertArrayEquals(new String[]{"cafe", "creme", "brulee"}, BookSearchIndex.tokenize("Café  Crème-BRÛLÉE"));
+        assertEquals(0, BookSearchIndex.tokenize("  --  ").length);
+    }
+
+    @Test
+    @DisplayName("Should match partial words as prefixes in any case")
+    void should_matchPartialWords_when_queryIsPrefix() {
+        assertEquals(Collections.singletonList(1L), index.search("ALCH", 10));
+        assertEquals(Collections.singletonList(1L), index.search("alch coel", 10));
+    }
+
+    @Test
+    @DisplayName("Should require every query word to match")
+    void should_requireAllWords_when_queryHasSeveralWords() {
+        assertTrue(index.search("alchemist clear", 10).isEmpty());
+        assertTrue(index.search("nothing", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rank whole-word name matches above prefixes and author matches")
+    void should_rankExactNameMatchesFirst_when_severalBooksMatch() {
+        index.add(book(6L, "Habit Stacking", "Habitual Writer"));
+
+        assertEquals(Arrays.asList(6L, 3L, 2L), index.search("habit", 10));
+        assertEquals(Arrays.asList(6L, 3L), index.search("habit", 2));
+    }
+
+    @Test
+    @DisplayName("Should reflect committed updates and deletes")
+    void should_reflectChanges_when_bookChangedEventsApplied() {
+        Book before = book(4L, "Clean Code", "Robert C. Martin");
+        Book after = book(4L, "Clean Architecture", "Robert C. Martin");
+
+        index.onBookChanged(BookChangedEvent.updated(before, after));
+        assertTrue(index.search("code", 10).isEmpty());
+        assertEquals(Collections.singletonList(4L), index.search("architecture", 10));
+
+        index.onBookChanged(BookChangedEvent.deleted(after));
+        assertTrue(index.search("robert", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Should drop changes that arrive after a newer version of the book was indexed")
+    void should_dropStaleChanges_when_eventsArriveOutOfOrder() {
+        Book v0 = version(book(4L, "Clean Code", "Robert C. Martin"), 0);
+        Book v1 = version(book(4L, "Clean Architecture", "Robert C. Martin"), 1);
+        Book v2 = version(book(4L, "Clean Agile", "Robert C. Martin"), 2);
+        index.onBookChanged(BookChangedEvent.updated(v1, v2));
+        index.onBookChanged(BookChangedEvent.updated(v0, v1));
+
+        assertEquals(Collections.singletonList(4L), index.search("agile", 10));
+        assertTrue(index.search("architecture", 10).isEmpty());
+
+        // a delete delivered before the update it followed
+        Book alchemist = version(book(1L, "The Alchemist", "Paulo Coelho"), 1);
+        index.onBookChanged(BookChangedEvent.deleted(alchemist));
+        index.onBookChanged(BookChangedEvent.updated(version(book(1L, "Alchemist", "Paulo Coelho"), 0), alchemist));
+
+        assertTrue(index.search("alchemist", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    private static Book book(long id, String name, String author) {
+        Book b = new Book();
+        b.setId(id);
+        b.setIsbn("ISBN" + id);
+        b.setName(name);
+        b.setAuthor(author);
+        b.setPublishDate(LocalDate.of(2020, 1, 1));
+        b.setPrice(new BigDecimal("10.00"));
+        b.setBookType(BookType.HARD_COVER);
+        return b;
+    }
+
+    private static Book version(Book book, long version) {
+        book.setVersion(version);
+        return book;
+    }
+}
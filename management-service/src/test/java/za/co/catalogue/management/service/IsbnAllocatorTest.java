@@ -0,0 +1,116 @@
+package za.co.catalogue.management.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import za.co.catalogue.management.exception.ConflictException;
+import za.co.catalogue.management.repository.BookJdbcRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IsbnAllocator Unit Tests")
+class IsbnAllocatorTest {
+
+    @Test
+    @DisplayName("Should issue ISBN-13s with valid check digits from consecutive blocks")
+    void should_issueValidIsbns_when_blocksAreUsedUp() {
+        BookJdbcRepository jdbcRepo = mock(BookJdbcRepository.class);
+        when(jdbcRepo.isbnBlockSize()).thenReturn(2);
+        when(jdbcRepo.reserveIsbnBlock()).thenReturn(0L, 14L);
+        IsbnAllocator allocator = new IsbnAllocator(jdbcRepo, "979");
+
+        List<String> isbns = allocator.next(3);
+
+        assertEquals("9790000000001", isbns.get(0));
+        assertEquals("9790000000018", isbns.get(1));
+        assertEquals("9790000000148", isbns.get(2)); // the second block starts at serial 14
+        assertEquals('5', IsbnAllocator.checkDigit("978006112241")); // The Alchemist, 9780061122415
+        verify(jdbcRepo, times(2)).reserveIsbnBlock();
+    }
+
+    @Test
+    @DisplayName("Should never issue the same ISBN to concurrent callers on instances sharing a sequence")
+    void should_issueDistinctIsbns_when_instancesShareSequence() throws Exception {
+        BookJdbcRepository jdbcRepo = sharedSequence(10);
+        IsbnAllocator first = new IsbnAllocator(jdbcRepo, "979");
+        IsbnAllocator second = new IsbnAllocator(jdbcRepo, "979");
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] callers = new Future<?>[8];
+            for (int t = 0; t < callers.length; t++) {
+                IsbnAllocator allocator = t % 2 == 0 ? first : second;
+                callers[t] = pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        assertTrue(issued.add(allocator.next()), "ISBN issued twice");
+                    }
+                });
+            }
+            for (Future<?> caller : callers) {
+                caller.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(16_000, issued.size());
+    }
+
+    @Test
+    @DisplayName("Should fail once the serial range of the prefix is used up")
+    void should_throwConflict_when_rangeExhausted() {
+        BookJdbcRepository jdbcRepo = mock(BookJdbcRepository.class);
+        when(jdbcRepo.isbnBlockSize()).thenReturn(600);
+        when(jdbcRepo.reserveIsbnBlock()).thenReturn(0L, 600L);
+        IsbnAllocator allocator = new IsbnAllocator(jdbcRepo, "979123456"); // 1000 serials
+
+        assertEquals(600, allocator.next(600).size());
+        assertThrows(ConflictException.class, allocator::next);
+    }
+
+    @Test
+    @DisplayName("Should continue after the largest serial issued before the serial sequence was introduced")
+    void should_continueAfterExistingSerials_when_migratedToSequence() {
+        String url = "jdbc:h2:mem:isbn-migration;DB_CLOSE_DELAY=-1";
+        Map<String, String> placeholders = Collections.singletonMap("isbn_prefix", "979");
+        Flyway.configure().dataSource(url, "sa", "").placeholders(placeholders).target("9").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        // issued while blocks were 5000 serials, so the head seeded at 1000 per block lags behind
+        jdbc.update("INSERT INTO book_data (name, author, isbn, publish_date, price, book_type)"
+                + " VALUES ('Issued', 'Author', '9790000012345', DATE '2020-01-01', 10, 'EBOOK')");
+        Flyway.configure().dataSource(url, "sa", "").placeholders(placeholders).load().migrate();
+        try {
+            IsbnAllocator allocator = new IsbnAllocator(new BookJdbcRepository(jdbc), "979");
+
+            assertEquals("9790000012356", allocator.next()); // serial 1235
+        } finally {
+            jdbc.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    /**
+     * Stands in for {@code isbn_serial_seq}: each reservation advances one counter by
+     * the block size, as the database does.
+     */
+    private static BookJdbcRepository sharedSequence(int blockSize) {
+        AtomicLong next = new AtomicLong();
+        BookJdbcRepository jdbcRepo = mock(BookJdbcRepository.class);
+        when(jdbcRepo.isbnBlockSize()).thenReturn(blockSize);
+        when(jdbcRepo.reserveIsbnBlock()).thenAnswer(invocation -> next.getAndAdd(blockSize));
+        return jdbcRepo;
+    }
+}
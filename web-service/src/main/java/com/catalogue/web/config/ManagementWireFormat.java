@@ -0,0 +1,82 @@
+package com.catalogue.web.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encoding the management service is asked to answer in, set with
+ * {@code management.service.http.format}: {@code smile} (the default), Jackson's binary
+ * encoding of the JSON data model, or {@code json}.
+ *
+ * <p>Smile is only asked for, never required: responses are read according to their
+ * {@code Content-Type}, so a server that answers JSON still works. Request bodies are
+ * single books and always go as JSON.
+ */
+public class ManagementWireFormat {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ObjectMapper json;
+    private final ObjectMapper smile;
+
+    /**
+     * @param format {@code smile} or {@code json}
+     * @param json Spring Boot's JSON mapper
+     * @param builder Spring Boot's mapper builder, used for the Smile mapper so both read the same way
+     */
+    public ManagementWireFormat(String format, ObjectMapper json, Jackson2ObjectMapperBuilder builder) {
+        if (!format.equals("smile") && !format.equals("json")) {
+            throw new IllegalArgumentException("management.service.http.format must be smile or json, got " + format);
+        }
+        this.json = json;
+        this.smile = format.equals("smile") ? builder.factory(new SmileFactory()).build() : null;
+    }
+
+    /**
+     * @return the {@code Accept} header for calls that return books
+     */
+    public String accept() {
+        return smile != null
+                ? APPLICATION_SMILE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9"
+                : MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    /**
+     * @param contentType the response's {@code Content-Type}, may be null
+     * @return the mapper that reads it
+     */
+    public ObjectMapper mapperFor(String contentType) {
+        if (smile != null && contentType != null && APPLICATION_SMILE.includes(MediaType.parseMediaType(contentType))) {
+            return smile;
+        }
+        return json;
+    }
+
+    /**
+     * A converter for the {@code RestTemplate} that reads Smile responses and never writes,
+     * so request bodies fall through to the JSON converter.
+     *
+     * @return the converter, or null if the format is {@code json}
+     */
+    public MappingJackson2SmileHttpMessageConverter responseConverter() {
+        if (smile == null) {
+            return null;
+        }
+        return new MappingJackson2SmileHttpMessageConverter(smile) {
+            @Override
+            public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+                return false;
+            }
+
+            @Override
+            public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+                return false;
+            }
+        };
+    }
+}
@@ -1,44 +1,211 @@
 package com.catalogue.web.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpClientInterceptor;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import com.catalogue.web.service.RequestTimeout;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.protocol.HttpContext;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RestClientConfig {
 
+    /**
+     * Connection pool shared by every call to the management service.
+     *
+     * <p>The HttpClient default allows only 2 connections per route, which serialises
+     * concurrent page loads on a single upstream host; the limits here are configurable.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager managementConnectionManager(
+            @Value("${management.service.http.max-total:100}") int maxTotal,
+            @Value("${management.service.http.max-per-route:50}") int maxPerRoute,
+            @Value("${management.service.http.validate-after-inactivity:PT2S}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        // re-check connections that sat idle, so a peer-closed socket is not handed out
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient managementHttpClient(
+            PoolingHttpClientConnectionManager managementConnectionManager,
+            @Value("${management.service.http.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${management.service.http.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${management.service.http.connection-request-timeout:PT2S}") Duration connectionRequestTimeout,
+            @Value("${management.service.http.keep-alive:PT30S}") Duration keepAlive,
+            @Value("${management.service.http.idle-eviction:PT30S}") Duration idleEviction,
+            @Value("${management.service.http.compression:true}") boolean compression) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                // how long a request may wait for a pooled connection before failing fast
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(managementConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS);
+        if (!compression) {
+            // otherwise the client sends Accept-Encoding: gzip,deflate and decodes transparently
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Non-blocking client used when {@code management.service.client=async}. A few I/O
+     * threads multiplex every connection, so requests in flight do not hold a thread
+     * each; {@code max-total} and {@code max-per-route} still bound the connections.
+     *
+     * <p>Requests are timed as {@code httpcomponents.httpclient.request}, tagged with the
+     * URI template the caller puts in the {@code URI_PATTERN} header. This client does not
+     * decode gzip itself; the service that asks for compression unpacks responses on the
+     * task executor, off the I/O threads.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "management.service.client", havingValue = "async")
+    public CloseableHttpAsyncClient managementAsyncHttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${management.service.http.max-total:100}") int maxTotal,
+            @Value("${management.service.http.max-per-route:50}") int maxPerRoute,
+            @Value("${management.service.http.io-threads:2}") int ioThreads,
+            @Value("${management.service.http.select-interval:PT0.05S}") Duration selectInterval,
+            @Value("${management.service.http.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${management.service.http.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${management.service.http.connection-request-timeout:PT2S}") Duration connectionRequestTimeout,
+            @Value("${management.service.http.keep-alive:PT30S}") Duration keepAlive) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+
+        MicrometerHttpClientInterceptor metrics =
+                new MicrometerHttpClientInterceptor(meterRegistry, Collections.emptyList(), true);
+
+        CloseableHttpAsyncClient client = HttpAsyncClientBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                // socket timeouts are only checked once per select, so the interval bounds how late they fire
+                .setDefaultIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(ioThreads)
+                        .setSelectInterval(selectInterval.toMillis())
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .addInterceptorFirst(metrics.getRequestInterceptor())
+                .addInterceptorLast(metrics.getResponseInterceptor())
+                .build();
+        client.start();
+        return client;
+    }
+
+    /**
+     * Publishes leased/pending/available connection counts of the pool as
+     * {@code httpcomponents.httpclient.pool.*} metrics.
+     */
+    @Bean
+    public MeterBinder managementConnectionPoolMetrics(PoolingHttpClientConnectionManager managementConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(managementConnectionManager, "management-service");
+    }
+
+    /**
+     * Encoding asked of the management service; Smile unless {@code management.service.http.format=json}.
+     */
+    @Bean
+    public ManagementWireFormat managementWireFormat(
+            @Value("${management.service.http.format:smile}") String format,
+            ObjectMapper objectMapper,
+            Jackson2ObjectMapperBuilder jacksonBuilder) {
+        return new ManagementWireFormat(format, objectMapper, jacksonBuilder);
+    }
+
     @Bean
     public RestTemplate restTemplate(
             RestTemplateBuilder builder,
+            CloseableHttpClient managementHttpClient,
+            ManagementWireFormat managementWireFormat,
             @Value("${management.service.username}") String username,
             @Value("${management.service.password}") String password) {
-        
-        // Use HttpComponentsClientHttpRequestFactory for PATCH support
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(10000);
-        
+
+        // Use HttpComponentsClientHttpRequestFactory for PATCH support; timeouts come from the client's RequestConfig,
+        // with the read timeout replaced by the adaptive one the call guard chose for this call
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(managementHttpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                Duration timeout = RequestTimeout.current();
+                if (timeout == null || !(managementHttpClient instanceof Configurable)) {
+                    return null;
+                }
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.copy(((Configurable) managementHttpClient).getConfig())
+                        .setSocketTimeout((int) timeout.toMillis())
+                        .build());
+                return context;
+            }
+        };
+
         RestTemplate restTemplate = builder
                 .requestFactory(() -> factory)
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(10))
                 .build();
-        
+
+        // Ahead of the JSON converter, so Smile is listed first in Accept; JSON responses still read as before
+        MappingJackson2SmileHttpMessageConverter smile = managementWireFormat.responseConverter();
+        if (smile != null) {
+            restTemplate.getMessageConverters().add(0, smile);
+        }
+
         // Add Basic Authentication interceptor
         restTemplate.getInterceptors().add(
                 new BasicAuthenticationInterceptor(username, password)
         );
-        
+
         return restTemplate;
     }
-}
 
+    /**
+     * Honours the server's Keep-Alive header; falls back to {@code keepAlive} when it sends none.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAlive.toMillis();
+        };
+    }
+}
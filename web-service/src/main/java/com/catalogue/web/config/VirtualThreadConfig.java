@@ -0,0 +1,42 @@
+package com.catalogue.web.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@ConditionalOnProperty(name = "catalogue.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Runs every request on its own virtual thread instead of Tomcat's worker pool, so a
+     * request blocked on the management service parks instead of holding a platform thread.
+     *
+     * <p>Virtual threads need a Java 21 runtime. On older runtimes this logs a warning and
+     * leaves the worker pool ({@code server.tomcat.threads.*}) in place.
+     *
+     * @return the customizer applied to the HTTP connector
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        Executor executor;
+        try {
+            executor = new VirtualThreadExecutor("tomcat-virtual-");
+        } catch (UnsupportedOperationException | LinkageError e) {
+            logger.warn("catalogue.virtual-threads.enabled is set, but this Java {} runtime has no virtual threads; "
+                    + "keeping the platform worker pool", System.getProperty("java.version"));
+            return protocolHandler -> { };
+        }
+        logger.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
@@ -1,53 +1,92 @@
 package com.catalogue.web.controller;
 
 import com.catalogue.web.dto.*;
-import com.catalogue.web.service.BookService;
+import com.catalogue.web.service.AsyncBookService;
+import com.catalogue.web.service.CatalogueChangeFeed;
 import com.catalogue.web.util.BookMapper;
 import com.catalogue.web.util.DateFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Book pages. Handlers that call the management service return futures, so the
+ * request thread is released while the call is in flight (servlet async processing);
+ * failures reach {@link com.catalogue.web.exception.GlobalExceptionHandler} unchanged.
+ *
+ * <p>The list page shows one page of the catalogue at a time. Filters, sort order and
+ * page number are passed on to the management service, which returns only the rows
+ * shown. The page keeps itself current through {@code /books/events}, fed by the
+ * shared {@link CatalogueChangeFeed} rather than one upstream call per browser.
+ */
 @Controller
 @RequestMapping("/books")
 public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
-    private final BookService bookService;
+    private final AsyncBookService bookService;
     private final BookMapper bookMapper;
+    private final CatalogueChangeFeed changeFeed;
+    private final int pageSize;
 
-    public BookController(BookService bookService, BookMapper bookMapper) {
+    public BookController(AsyncBookService bookService, BookMapper bookMapper, CatalogueChangeFeed changeFeed,
+                          @Value("${catalogue.list.page-size:50}") int pageSize) {
         this.bookService = bookService;
         this.bookMapper = bookMapper;
+        this.changeFeed = changeFeed;
+        this.pageSize = pageSize;
     }
 
+    /**
+     * Lists one page of books. Parameters that do not parse (a price of "abc") are
+     * ignored rather than failing the page; the form shows what was applied.
+     */
     @GetMapping
-    public String listBooks(Model model) {
-        logger.debug("Listing all books");
-        List<BookResponse> books = bookService.getAllBooks();
-        
-        // Format dates for display
-        Map<String, String> formattedDates = books.stream()
-                .filter(book -> book.getPublishDate() != null)
-                .collect(Collectors.toMap(
-                        BookResponse::getIsbn,
-                        book -> DateFormatter.format(book.getPublishDate()),
-                        (existing, replacement) -> existing
-                ));
-        
-        model.addAttribute("books", books);
-        model.addAttribute("formattedDates", formattedDates);
-        return "books/list";
+    public CompletableFuture<String> listBooks(@ModelAttribute("query") BookQuery query, BindingResult bindingResult,
+                                               Model model) {
+        if (bindingResult.hasErrors()) {
+            model.addAttribute("error", "Some filters could not be read and were ignored");
+        }
+        if (query.getSize() == null) {
+            query.setSize(pageSize);
+        }
+        logger.debug("Listing books: {}", query);
+        return bookService.queryBooksAsync(query).thenApply(page -> {
+            Map<String, String> formattedDates = new HashMap<>();
+            for (BookResponse book : page.getItems()) {
+                if (book.getPublishDate() != null) {
+                    formattedDates.put(book.getIsbn(), DateFormatter.format(book.getPublishDate()));
+                }
+            }
+            model.addAttribute("books", page.getItems());
+            model.addAttribute("formattedDates", formattedDates);
+            model.addAttribute("listing", page);
+            return "books/list";
+        });
+    }
+
+    /**
+     * Streams catalogue changes to the list page as server-sent events. Browsers
+     * reconnect on their own and send the id of the last event they received.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Browser subscribed to catalogue changes after {}", lastEventId);
+        return changeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/new")
@@ -58,57 +97,61 @@ public class BookController {
     }
 
     @PostMapping
-    public String createBook(@Valid @ModelAttribute("bookForm") BookForm bookForm,
+    public CompletableFuture<String> createBook(@Valid @ModelAttribute("bookForm") BookForm bookForm,
                             BindingResult bindingResult,
                             Model model,
                             RedirectAttributes redirectAttributes) {
         if (bindingResult.hasErrors()) {
             logger.debug("Validation errors in create book form");
-            return "books/create";
+            return CompletableFuture.completedFuture("books/create");
         }
 
         logger.debug("Creating book: {}", bookForm.getName());
         BookCreateRequest request = bookMapper.toCreateRequest(bookForm);
-        BookResponse created = bookService.createBook(request);
-        redirectAttributes.addFlashAttribute("success", "Book created successfully with ISBN: " + created.getIsbn());
-        logger.info("Book created successfully with ISBN: {}", created.getIsbn());
-        return "redirect:/books";
+        return bookService.createBookAsync(request).thenApply(created -> {
+            redirectAttributes.addFlashAttribute("success", "Book created successfully with ISBN: " + created.getIsbn());
+            logger.info("Book created successfully with ISBN: {}", created.getIsbn());
+            return "redirect:/books";
+        });
     }
 
     @GetMapping("/{isbn}/edit")
-    public String showEditForm(@PathVariable String isbn, Model model) {
+    public CompletableFuture<String> showEditForm(@PathVariable String isbn, Model model) {
         logger.debug("Showing edit form for book with ISBN: {}", isbn);
-        BookResponse book = bookService.getBookByIsbn(isbn);
-        BookForm bookForm = bookMapper.toForm(book);
-        model.addAttribute("bookForm", bookForm);
-        return "books/edit";
+        return bookService.getBookByIsbnAsync(isbn).thenApply(book -> {
+            BookForm bookForm = bookMapper.toForm(book);
+            model.addAttribute("bookForm", bookForm);
+            return "books/edit";
+        });
     }
 
     @PostMapping("/{isbn}")
-    public String updateBook(@PathVariable String isbn,
+    public CompletableFuture<String> updateBook(@PathVariable String isbn,
                             @Valid @ModelAttribute("bookForm") BookForm bookForm,
                             BindingResult bindingResult,
                             Model model,
                             RedirectAttributes redirectAttributes) {
         if (bindingResult.hasErrors()) {
             logger.debug("Validation errors in update book form");
-            return "books/edit";
+            return CompletableFuture.completedFuture("books/edit");
         }
 
         logger.debug("Updating book with ISBN: {}", isbn);
         BookUpdateRequest request = bookMapper.toUpdateRequest(bookForm);
-        bookService.updateBook(isbn, request);
-        redirectAttributes.addFlashAttribute("success", "Book updated successfully");
-        logger.info("Book updated successfully with ISBN: {}", isbn);
-        return "redirect:/books";
+        return bookService.updateBookAsync(isbn, request).thenApply(updated -> {
+            redirectAttributes.addFlashAttribute("success", "Book updated successfully");
+            logger.info("Book updated successfully with ISBN: {}", isbn);
+            return "redirect:/books";
+        });
     }
 
     @PostMapping("/{isbn}/delete")
-    public String deleteBook(@PathVariable String isbn, RedirectAttributes redirectAttributes) {
+    public CompletableFuture<String> deleteBook(@PathVariable String isbn, RedirectAttributes redirectAttributes) {
         logger.debug("Deleting book with ISBN: {}", isbn);
-        bookService.deleteBook(isbn);
-        redirectAttributes.addFlashAttribute("success", "Book deleted successfully");
-        logger.info("Book deleted successfully with ISBN: {}", isbn);
-        return "redirect:/books";
+        return bookService.deleteBookAsync(isbn).thenApply(deleted -> {
+            redirectAttributes.addFlashAttribute("success", "Book deleted successfully");
+            logger.info("Book deleted successfully with ISBN: {}", isbn);
+            return "redirect:/books";
+        });
     }
 }
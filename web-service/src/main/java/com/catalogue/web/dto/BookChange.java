@@ -0,0 +1,19 @@
+package com.catalogue.web.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed catalogue change as reported by the management service's change feed.
+ * {@code book} is null for a delete.
+ */
+@Data
+@NoArgsConstructor
+public class BookChange {
+    private long seq;
+    /** CREATED, UPDATED or DELETED. */
+    private String type;
+    private String isbn;
+    private long version;
+    private BookResponse book;
+}
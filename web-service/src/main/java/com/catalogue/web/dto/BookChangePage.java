@@ -0,0 +1,17 @@
+package com.catalogue.web.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the management service's change feed; {@code last} is the position to poll from next.
+ */
+@Data
+@NoArgsConstructor
+public class BookChangePage {
+    private List<BookChange> items;
+    private long last;
+    private boolean more;
+}
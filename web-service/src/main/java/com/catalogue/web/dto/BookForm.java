@@ -25,5 +25,7 @@ public class BookForm {
 
     @NotBlank(message = "Book type is required")
     private String bookType;
+
+    private Long version;
 }
 
@@ -0,0 +1,25 @@
+package com.catalogue.web.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters, sort order and page of the list page, bound from its query string and
+ * passed on to the management service's {@code /query} unchanged. Every field is
+ * optional; bounds are inclusive and {@code page} is zero-based.
+ */
+@Data
+@NoArgsConstructor
+public class BookQuery {
+    private BookType bookType;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minYear;
+    private Integer maxYear;
+    /** {@code field[,asc|desc]}, e.g. {@code price,desc}. */
+    private String sort;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,19 @@
+package com.catalogue.web.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One numbered page of a filtered, sorted listing, with totals across all pages.
+ */
+@Data
+@NoArgsConstructor
+public class BookQueryPage {
+    private List<BookResponse> items;
+    private int page;
+    private int size;
+    private long totalItems;
+    private int totalPages;
+}
@@ -15,5 +15,6 @@ public class BookResponse {
     private LocalDate publishDate;
     private BigDecimal price;
     private String bookType;
+    private Long version;
 }
 
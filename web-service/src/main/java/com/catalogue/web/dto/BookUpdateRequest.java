@@ -14,5 +14,7 @@ public class BookUpdateRequest {
     private LocalDate publishDate;
     private BigDecimal price;
     private String bookType;
+    /** Version shown in the edit form; the management service refuses the update if the book changed since. */
+    private Long version;
 }
 
@@ -1,5 +1,7 @@
 package com.catalogue.web.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -10,11 +12,21 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+/**
+ * Renders failures as pages. Every handled exception is counted as {@code books.errors},
+ * tagged with the exception type.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final MeterRegistry registry;
+
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
     @ModelAttribute("bookTypes")
     public com.catalogue.web.dto.BookType[] getBookTypes() {
         return com.catalogue.web.dto.BookType.values();
@@ -22,6 +34,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BookNotFoundException.class)
     public String handleBookNotFoundException(BookNotFoundException ex, Model model) {
+        count(ex);
         logger.warn("Book not found: {}", ex.getMessage());
         model.addAttribute("errorType", "404");
         return "error";
@@ -29,11 +42,12 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ServiceUnavailableException.class)
     public String handleServiceUnavailableException(ServiceUnavailableException ex, Model model) {
+        count(ex);
         logger.error("Service unavailable: {}", ex.getMessage(), ex);
 
-        // Check if the cause is HttpHostConnectException
+        // Connection refused, or the call was not made at all (circuit open, bulkhead full)
         Throwable cause = ex.getCause();
-        if (cause != null && cause.getClass().getSimpleName().equals("HttpHostConnectException")) {
+        if (cause == null || cause.getClass().getSimpleName().equals("HttpHostConnectException")) {
             model.addAttribute("errorType", "503"); // Use 503 for connection issues
             model.addAttribute("errorMessage", ex.getMessage());
         } else {
@@ -46,13 +60,14 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ApiException.class)
     public String handleApiException(ApiException ex, Model model, RedirectAttributes redirectAttributes) {
+        count(ex);
         logger.error("API error (status {}): {}", ex.getStatusCode(), ex.getMessage(), ex);
         
         if (ex.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
             model.addAttribute("errorType", "404");
             return "error";
         } else if (ex.getStatusCode() == HttpStatus.CONFLICT.value()) {
-            redirectAttributes.addFlashAttribute("error", "A book with this information already exists");
+            redirectAttributes.addFlashAttribute("error", ex.getMessage());
             return "redirect:/books";
         } else if (ex.getStatusCode() >= 500) {
             model.addAttribute("errorType", "500");
@@ -66,6 +81,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public String handleMethodNotSupportedException(HttpRequestMethodNotSupportedException ex, Model model) {
+        count(ex);
         logger.warn("HTTP method not supported: {}", ex.getMessage());
         model.addAttribute("errorType", "404");
         return "error";
@@ -73,6 +89,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
     public String handleIllegalArgumentException(IllegalArgumentException ex, Model model) {
+        count(ex);
         logger.warn("Invalid argument: {}", ex.getMessage());
         model.addAttribute("error", ex.getMessage());
         return "books/create";
@@ -80,10 +97,18 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public String handleGenericException(Exception ex, Model model) {
+        count(ex);
         logger.error("Unexpected error occurred", ex);
         model.addAttribute("errorType", "500");
         model.addAttribute("errorMessage", ex.getMessage());
         return "error";
     }
-}
 
+    private void count(Exception ex) {
+        Counter.builder("books.errors")
+                .description("Requests that ended in a handled exception")
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
@@ -1,6 +1,10 @@
 package com.catalogue.web.exception;
 
 public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
     public ServiceUnavailableException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -0,0 +1,53 @@
+package com.catalogue.web.service;
+
+import java.time.Duration;
+
+/**
+ * Read timeout derived from observed latency, the way TCP derives its retransmission
+ * timeout: a smoothed mean plus four times the smoothed deviation, kept between
+ * {@code min} and {@code max}. A call that times out doubles the timeout (up to
+ * {@code max}) instead of feeding the estimate, so a slow spell widens the timeout
+ * quickly and fast responses narrow it again.
+ *
+ * <p>Until the first response is seen the timeout is {@code max}.
+ */
+final class AdaptiveTimeout {
+
+    private final long minNanos;
+    private final long maxNanos;
+
+    private boolean sampled;
+    private double smoothed;
+    private double deviation;
+    private long current;
+
+    AdaptiveTimeout(Duration min, Duration max) {
+        this.minNanos = min.toNanos();
+        this.maxNanos = Math.max(minNanos, max.toNanos());
+        this.current = maxNanos;
+    }
+
+    synchronized Duration current() {
+        return Duration.ofNanos(current);
+    }
+
+    synchronized void recordResponse(long latencyNanos) {
+        if (!sampled) {
+            smoothed = latencyNanos;
+            deviation = latencyNanos / 2.0;
+            sampled = true;
+        } else {
+            deviation = 0.75 * deviation + 0.25 * Math.abs(smoothed - latencyNanos);
+            smoothed = 0.875 * smoothed + 0.125 * latencyNanos;
+        }
+        current = clamp((long) (smoothed + 4 * deviation));
+    }
+
+    synchronized void recordTimeout() {
+        current = clamp(current * 2);
+    }
+
+    private long clamp(long nanos) {
+        return Math.max(minNanos, Math.min(maxNanos, nanos));
+    }
+}
@@ -0,0 +1,28 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.dto.BookCreateRequest;
+import com.catalogue.web.dto.BookQuery;
+import com.catalogue.web.dto.BookQueryPage;
+import com.catalogue.web.dto.BookResponse;
+import com.catalogue.web.dto.BookUpdateRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Future-returning view of {@link BookService}, so controllers can compose calls to
+ * the management service and release the request thread while they are in flight.
+ *
+ * <p>Futures fail with the same exceptions the {@link BookService} methods throw
+ * ({@link com.catalogue.web.exception.BookNotFoundException}, {@link com.catalogue.web.exception.ApiException},
+ * {@link com.catalogue.web.exception.ServiceUnavailableException}). Whether a call really
+ * runs without a thread depends on {@code management.service.client}: {@code async}
+ * uses a non-blocking HTTP client, the default {@code blocking} client returns futures
+ * that are already completed.
+ */
+public interface AsyncBookService {
+    CompletableFuture<BookQueryPage> queryBooksAsync(BookQuery query);
+    CompletableFuture<BookResponse> getBookByIsbnAsync(String isbn);
+    CompletableFuture<BookResponse> createBookAsync(BookCreateRequest request);
+    CompletableFuture<BookResponse> updateBookAsync(String isbn, BookUpdateRequest request);
+    CompletableFuture<Void> deleteBookAsync(String isbn);
+}
@@ -0,0 +1,363 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.config.ManagementWireFormat;
+import com.catalogue.web.dto.BookCreateRequest;
+import com.catalogue.web.dto.BookQuery;
+import com.catalogue.web.dto.BookQueryPage;
+import com.catalogue.web.dto.BookResponse;
+import com.catalogue.web.dto.BookUpdateRequest;
+import com.catalogue.web.exception.ApiException;
+import com.catalogue.web.exception.BookNotFoundException;
+import com.catalogue.web.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.DefaultUriMapper;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link BookService} on a non-blocking HTTP client, enabled with
+ * {@code management.service.client=async}.
+ *
+ * <p>Calls return as soon as the request is handed to the client's I/O threads. Bodies
+ * are parsed, and errors mapped to the service exceptions, on the task executor, so the
+ * I/O threads only move bytes. Responses are requested in the {@link ManagementWireFormat}
+ * and, unless {@code management.service.http.compression=false}, gzipped; both are undone
+ * there too. The blocking {@link BookService} methods wait for the futures and behave like
+ * those of the {@code RestTemplate} client.
+ */
+@Service
+@ConditionalOnProperty(name = "management.service.client", havingValue = "async")
+public class AsyncBookServiceImpl implements BookService, AsyncBookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncBookServiceImpl.class);
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ManagementWireFormat wireFormat;
+    private final boolean compression;
+    private final TaskExecutor taskExecutor;
+    private final String baseUrl;
+    private final String basePath;
+    private final String authorization;
+    private final CatalogueCache catalogueCache;
+    private final ManagementCallGuard guard;
+    private final RequestConfig requestConfig;
+
+    public AsyncBookServiceImpl(CloseableHttpAsyncClient managementAsyncHttpClient,
+                                ObjectMapper objectMapper,
+                                ManagementWireFormat wireFormat,
+                                TaskExecutor taskExecutor,
+                                @Value("${management.service.url}") String baseUrl,
+                                @Value("${management.service.username}") String username,
+                                @Value("${management.service.password}") String password,
+                                @Value("${catalogue.cache.refresh-after:PT30S}") Duration refreshAfter,
+                                @Value("${catalogue.cache.max-stale:PT15M}") Duration maxStale,
+                                @Value("${catalogue.cache.max-pages:100}") int maxPages,
+                                @Value("${management.service.http.connect-timeout:PT5S}") Duration connectTimeout,
+                                @Value("${management.service.http.connection-request-timeout:PT2S}") Duration connectionRequestTimeout,
+                                @Value("${management.service.http.compression:true}") boolean compression,
+                                MeterRegistry meterRegistry,
+                                ManagementCallGuard guard) {
+        this.httpClient = managementAsyncHttpClient;
+        this.guard = guard;
+        // the client's defaults; each attempt adds the read timeout chosen by the guard
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+        this.objectMapper = objectMapper;
+        this.wireFormat = wireFormat;
+        this.compression = compression;
+        this.taskExecutor = taskExecutor;
+        this.baseUrl = baseUrl;
+        this.basePath = UriComponentsBuilder.fromHttpUrl(baseUrl).build().getPath();
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.catalogueCache = new CatalogueCache(this::fetchPage, taskExecutor, refreshAfter, maxStale, maxPages);
+        catalogueCache.bindTo(meterRegistry);
+        logger.info("Async BookService initialized - will connect to management service at: {}", baseUrl);
+    }
+
+    @Override
+    public BookQueryPage queryBooks(BookQuery query) {
+        return Futures.join(queryBooksAsync(query));
+    }
+
+    @Override
+    public BookResponse getBookByIsbn(String isbn) {
+        return Futures.join(getBookByIsbnAsync(isbn));
+    }
+
+    @Override
+    public BookResponse createBook(BookCreateRequest request) {
+        return Futures.join(createBookAsync(request));
+    }
+
+    @Override
+    public BookResponse updateBook(String isbn, BookUpdateRequest request) {
+        return Futures.join(updateBookAsync(isbn, request));
+    }
+
+    @Override
+    public void deleteBook(String isbn) {
+        Futures.join(deleteBookAsync(isbn));
+    }
+
+    @Override
+    public CompletableFuture<BookQueryPage> queryBooksAsync(BookQuery query) {
+        return catalogueCache.getAsync(query).thenApply(CataloguePage::getPage);
+    }
+
+    /**
+     * Fetches one page, sending the previous copy's ETag so an unchanged catalogue
+     * costs a 304 instead of the page.
+     */
+    private CompletableFuture<CataloguePage> fetchPage(BookQuery query, CataloguePage previous) {
+        String url = BookServiceImpl.queryUrl(baseUrl, query);
+        logger.debug("Fetching books from {}", url);
+        HttpGet request = new HttpGet(url);
+        if (previous != null && previous.getEtag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, previous.getEtag());
+        }
+        return exchange(ManagementOperation.QUERY, request, "/query", (response, status) -> {
+            if (status != null && status == HttpStatus.BAD_REQUEST.value()) {
+                logger.warn("Bad listing query: {}", url);
+                throw new ApiException("Invalid filter or sort order", status);
+            }
+            if (status != null) {
+                logger.error("HTTP error while fetching books: {}", status);
+                throw new ApiException("Failed to fetch books", status);
+            }
+            if (response.getStatusLine().getStatusCode() == HttpStatus.NOT_MODIFIED.value() && previous != null) {
+                logger.debug("Page not modified since {}", previous.getFetchedAt());
+                return previous.revalidated(Instant.now());
+            }
+            Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+            return new CataloguePage(read(response, BookQueryPage.class), etag == null ? null : etag.getValue(),
+                    Instant.now());
+        });
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> getBookByIsbnAsync(String isbn) {
+        logger.debug("Fetching book with ISBN: {}", isbn);
+        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/").queryParam("isbn", isbn).encode().toUriString();
+        return exchange(ManagementOperation.GET, new HttpGet(url), "/?isbn={isbn}", (response, status) -> {
+            if (status != null && status == HttpStatus.NOT_FOUND.value()) {
+                logger.warn("Book not found with ISBN: {}", isbn);
+                throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
+            }
+            if (status != null) {
+                logger.error("HTTP error while fetching book: {}", status);
+                throw new ApiException("Failed to fetch book", status);
+            }
+            logger.info("Successfully fetched book with ISBN: {}", isbn);
+            return read(response, BookResponse.class);
+        });
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> createBookAsync(BookCreateRequest request) {
+        logger.debug("Creating book: {}", request.getName());
+        return exchange(ManagementOperation.CREATE, withBody(new HttpPost(baseUrl), request), "", (response, status) -> {
+            if (status != null && status == HttpStatus.CONFLICT.value()) {
+                logger.warn("Conflict while creating book: {}", request.getName());
+                throw new ApiException("A book with this information already exists", status);
+            }
+            if (status != null && status == HttpStatus.BAD_REQUEST.value()) {
+                logger.warn("Bad request while creating book: {}", request.getName());
+                throw new ApiException("Invalid book data provided", status);
+            }
+            if (status != null) {
+                logger.error("HTTP error while creating book: {}", status);
+                throw new ApiException("Failed to create book", status);
+            }
+            BookResponse created = read(response, BookResponse.class);
+            logger.info("Successfully created book with ISBN: {}", created != null ? created.getIsbn() : "unknown");
+            catalogueCache.invalidate();
+            return created;
+        });
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> updateBookAsync(String isbn, BookUpdateRequest request) {
+        logger.debug("Updating book with ISBN: {}", isbn);
+        return exchange(ManagementOperation.UPDATE, withBody(new HttpPatch(isbnUrl(isbn)), request), "/{isbn}", (response, status) -> {
+            if (status != null && status == HttpStatus.NOT_FOUND.value()) {
+                logger.warn("Book not found for update with ISBN: {}", isbn);
+                throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
+            }
+            if (status != null && status == HttpStatus.CONFLICT.value()) {
+                logger.warn("Concurrent change while updating book: {}", isbn);
+                throw new ApiException(BookServiceImpl.CONCURRENT_UPDATE, status);
+            }
+            if (status != null && status == HttpStatus.BAD_REQUEST.value()) {
+                logger.warn("Bad request while updating book: {}", isbn);
+                throw new ApiException("Invalid book data provided", status);
+            }
+            if (status != null) {
+                logger.error("HTTP error while updating book: {}", status);
+                throw new ApiException("Failed to update book", status);
+            }
+            logger.info("Successfully updated book with ISBN: {}", isbn);
+            catalogueCache.invalidate();
+            return read(response, BookResponse.class);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBookAsync(String isbn) {
+        logger.debug("Deleting book with ISBN: {}", isbn);
+        return exchange(ManagementOperation.DELETE, new HttpDelete(isbnUrl(isbn)), "/{isbn}", (response, status) -> {
+            if (status != null && status == HttpStatus.NOT_FOUND.value()) {
+                logger.warn("Book not found for deletion with ISBN: {}", isbn);
+                throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
+            }
+            if (status != null) {
+                logger.error("HTTP error while deleting book: {}", status);
+                throw new ApiException("Failed to delete book", status);
+            }
+            EntityUtils.consumeQuietly(response.getEntity());
+            logger.info("Successfully deleted book with ISBN: {}", isbn);
+            catalogueCache.invalidate();
+            return null;
+        });
+    }
+
+    /**
+     * Sends the request through the {@link ManagementCallGuard} and hands the response to
+     * {@code handler} on the task executor. Connection failures and timeouts become
+     * {@link ServiceUnavailableException}; the handler maps error statuses and parses
+     * successful bodies.
+     *
+     * @param uriTemplate path below the base URL with placeholders, used as the metrics {@code uri} tag
+     */
+    private <T> CompletableFuture<T> exchange(ManagementOperation operation, HttpRequestBase request,
+                                              String uriTemplate, ResponseHandler<T> handler) {
+        request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        request.setHeader(HttpHeaders.ACCEPT, wireFormat.accept());
+        if (compression) {
+            request.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        request.setHeader(DefaultUriMapper.URI_PATTERN_HEADER, basePath + uriTemplate);
+        return guard.call(operation, timeout -> send(request, timeout, handler));
+    }
+
+    private <T> CompletableFuture<T> send(HttpRequestBase request, Duration timeout, ResponseHandler<T> handler) {
+        request.reset(); // retries resend the same request
+        request.setConfig(RequestConfig.copy(requestConfig).setSocketTimeout((int) timeout.toMillis()).build());
+
+        CompletableFuture<HttpResponse> sent = new CompletableFuture<>();
+        try {
+            httpClient.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    sent.complete(response);
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    sent.completeExceptionally(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    sent.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the client was shut down or its I/O reactor has stopped
+            sent.completeExceptionally(e);
+        }
+
+        return sent.handleAsync((response, ex) -> {
+            if (ex != null) {
+                logger.error("Failed to connect to management service", ex);
+                throw new ServiceUnavailableException("Unable to connect to the management service", Futures.unwrap(ex));
+            }
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= 400) {
+                EntityUtils.consumeQuietly(response.getEntity());
+            }
+            return handler.handle(response, status >= 400 ? status : null);
+        }, taskExecutor);
+    }
+
+    private <R extends HttpEntityEnclosingRequestBase> R withBody(R request, Object body) {
+        try {
+            request.setEntity(new ByteArrayEntity(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialise request body", e);
+        }
+        return request;
+    }
+
+    private <T> T read(HttpResponse response, Class<T> type) {
+        return read(response, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    private <T> T read(HttpResponse response, JavaType type) {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return null;
+        }
+        Header encoding = entity.getContentEncoding();
+        if (encoding != null && encoding.getValue().equalsIgnoreCase("gzip")) {
+            entity = new GzipDecompressingEntity(entity);
+        }
+        Header contentType = entity.getContentType();
+        try {
+            return wireFormat.mapperFor(contentType == null ? null : contentType.getValue())
+                    .readValue(entity.getContent(), type);
+        } catch (IOException e) {
+            throw new ServiceUnavailableException("Unreadable response from the management service", e);
+        }
+    }
+
+    private String isbnUrl(String isbn) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl).path("/{isbn}").buildAndExpand(isbn).encode().toUriString();
+    }
+
+    /**
+     * Turns a response into the call's result.
+     */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        /**
+         * @param status the status code if it is an error (4xx or 5xx), otherwise null
+         */
+        T handle(HttpResponse response, Integer status);
+    }
+}
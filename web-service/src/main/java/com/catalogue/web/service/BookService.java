@@ -1,13 +1,13 @@
 package com.catalogue.web.service;
 
 import com.catalogue.web.dto.BookCreateRequest;
+import com.catalogue.web.dto.BookQuery;
+import com.catalogue.web.dto.BookQueryPage;
 import com.catalogue.web.dto.BookResponse;
 import com.catalogue.web.dto.BookUpdateRequest;
 
-import java.util.List;
-
 public interface BookService {
-    List<BookResponse> getAllBooks();
+    BookQueryPage queryBooks(BookQuery query);
     BookResponse getBookByIsbn(String isbn);
     BookResponse createBook(BookCreateRequest request);
     BookResponse updateBook(String isbn, BookUpdateRequest request);
@@ -1,16 +1,21 @@
 package com.catalogue.web.service;
 
 import com.catalogue.web.dto.BookCreateRequest;
+import com.catalogue.web.dto.BookQuery;
+import com.catalogue.web.dto.BookQueryPage;
 import com.catalogue.web.dto.BookResponse;
 import com.catalogue.web.dto.BookUpdateRequest;
 import com.catalogue.web.exception.ApiException;
 import com.catalogue.web.exception.BookNotFoundException;
 import com.catalogue.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,35 +24,165 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.List;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+/**
+ * {@link BookService} on the blocking {@link RestTemplate}: each call holds the calling
+ * thread until the management service answers. The {@link AsyncBookService} methods
+ * run the same calls and return completed futures unless a retry is pending. Every call
+ * goes through the {@link ManagementCallGuard}.
+ */
 @Service
-public class BookServiceImpl implements BookService {
+@ConditionalOnProperty(name = "management.service.client", havingValue = "blocking", matchIfMissing = true)
+public class BookServiceImpl implements BookService, AsyncBookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
+    static final String CONCURRENT_UPDATE = "This book was changed by someone else; reload it and apply your changes again";
+
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final CatalogueCache catalogueCache;
+    private final ManagementCallGuard guard;
 
-    public BookServiceImpl(RestTemplate restTemplate, @Value("${management.service.url}") String baseUrl) {
+    public BookServiceImpl(RestTemplate restTemplate,
+                           @Value("${management.service.url}") String baseUrl,
+                           TaskExecutor taskExecutor,
+                           @Value("${catalogue.cache.refresh-after:PT30S}") Duration refreshAfter,
+                           @Value("${catalogue.cache.max-stale:PT15M}") Duration maxStale,
+                           @Value("${catalogue.cache.max-pages:100}") int maxPages,
+                           MeterRegistry meterRegistry,
+                           ManagementCallGuard guard) {
         this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
+        this.guard = guard;
+        this.catalogueCache = new CatalogueCache(
+                (query, previous) -> guarded(ManagementOperation.QUERY, () -> fetchPage(query, previous)),
+                taskExecutor, refreshAfter, maxStale, maxPages);
+        catalogueCache.bindTo(meterRegistry);
         logger.info("BookService initialized - will connect to management service at: {}", baseUrl);
     }
 
     @Override
-    public List<BookResponse> getAllBooks() {
+    public BookQueryPage queryBooks(BookQuery query) {
+        return Futures.join(queryBooksAsync(query));
+    }
+
+    @Override
+    public BookResponse getBookByIsbn(String isbn) {
+        return Futures.join(getBookByIsbnAsync(isbn));
+    }
+
+    @Override
+    public BookResponse createBook(BookCreateRequest request) {
+        return Futures.join(createBookAsync(request));
+    }
+
+    @Override
+    public BookResponse updateBook(String isbn, BookUpdateRequest request) {
+        return Futures.join(updateBookAsync(isbn, request));
+    }
+
+    @Override
+    public void deleteBook(String isbn) {
+        Futures.join(deleteBookAsync(isbn));
+    }
+
+    @Override
+    public CompletableFuture<BookQueryPage> queryBooksAsync(BookQuery query) {
+        return catalogueCache.getAsync(query).thenApply(CataloguePage::getPage);
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> getBookByIsbnAsync(String isbn) {
+        return guarded(ManagementOperation.GET, () -> fetchBook(isbn));
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> createBookAsync(BookCreateRequest request) {
+        return guarded(ManagementOperation.CREATE, () -> postBook(request));
+    }
+
+    @Override
+    public CompletableFuture<BookResponse> updateBookAsync(String isbn, BookUpdateRequest request) {
+        return guarded(ManagementOperation.UPDATE, () -> patchBook(isbn, request));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBookAsync(String isbn) {
+        return guarded(ManagementOperation.DELETE, () -> {
+            removeBook(isbn);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a blocking call through the {@link ManagementCallGuard}. The first attempt runs
+     * on the calling thread, so the future is usually complete on return; retries run on
+     * the task executor.
+     */
+    private <T> CompletableFuture<T> guarded(ManagementOperation operation, Supplier<T> call) {
+        return guard.call(operation, timeout -> Futures.completed(() -> RequestTimeout.with(timeout, call)));
+    }
+
+    /**
+     * @return the URL of the management service's {@code /query} for the given listing,
+     *         leaving out the parameters that are not set
+     */
+    static String queryUrl(String baseUrl, BookQuery query) {
+        UriComponentsBuilder url = UriComponentsBuilder.fromHttpUrl(baseUrl).path("/query");
+        param(url, "bookType", query.getBookType());
+        param(url, "minPrice", query.getMinPrice());
+        param(url, "maxPrice", query.getMaxPrice());
+        param(url, "minYear", query.getMinYear());
+        param(url, "maxYear", query.getMaxYear());
+        param(url, "sort", query.getSort());
+        param(url, "page", query.getPage());
+        param(url, "size", query.getSize());
+        return url.encode().toUriString();
+    }
+
+    private static void param(UriComponentsBuilder url, String name, Object value) {
+        if (value != null && !value.toString().isEmpty()) {
+            url.queryParam(name, value);
+        }
+    }
+
+    /**
+     * Fetches one page, sending the previous copy's ETag so an unchanged catalogue
+     * costs a 304 instead of the page.
+     */
+    private CataloguePage fetchPage(BookQuery query, CataloguePage previous) {
         try {
-            logger.debug("Fetching all books from {}", baseUrl + "/all");
-            ResponseEntity<List<BookResponse>> response = restTemplate.exchange(
-                    baseUrl + "/all",
+            String url = queryUrl(baseUrl, query);
+            logger.debug("Fetching books from {}", url);
+            HttpHeaders headers = new HttpHeaders();
+            if (previous != null && previous.getEtag() != null) {
+                headers.setIfNoneMatch(previous.getEtag());
+            }
+            ResponseEntity<BookQueryPage> response = restTemplate.exchange(
+                    URI.create(url),
                     HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<BookResponse>>() {}
+                    new HttpEntity<>(headers),
+                    BookQueryPage.class
             );
-            logger.info("Successfully fetched {} books", response.getBody() != null ? response.getBody().size() : 0);
-            return response.getBody();
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && previous != null) {
+                logger.debug("Page not modified since {}", previous.getFetchedAt());
+                return previous.revalidated(Instant.now());
+            }
+            BookQueryPage page = response.getBody();
+            logger.debug("Fetched page {} of {} books", page != null ? page.getPage() : null,
+                    page != null ? page.getTotalItems() : 0);
+            return new CataloguePage(page, response.getHeaders().getETag(), Instant.now());
+        } catch (HttpClientErrorException.BadRequest e) {
+            logger.warn("Bad listing query: {}", e.getMessage());
+            throw new ApiException("Invalid filter or sort order", HttpStatus.BAD_REQUEST.value(), e);
         } catch (ResourceAccessException e) {
             logger.error("Failed to connect to management service", e);
             throw new ServiceUnavailableException("Unable to connect to the management service", e);
@@ -60,8 +195,7 @@ public class BookServiceImpl implements BookService {
         }
     }
 
-    @Override
-    public BookResponse getBookByIsbn(String isbn) {
+    private BookResponse fetchBook(String isbn) {
         try {
             logger.debug("Fetching book with ISBN: {}", isbn);
             // Use UriComponentsBuilder for proper URL encoding
@@ -90,8 +224,7 @@ public class BookServiceImpl implements BookService {
         }
     }
 
-    @Override
-    public BookResponse createBook(BookCreateRequest request) {
+    private BookResponse postBook(BookCreateRequest request) {
         try {
             logger.debug("Creating book: {}", request.getName());
             ResponseEntity<BookResponse> response = restTemplate.exchange(
@@ -101,6 +234,7 @@ public class BookServiceImpl implements BookService {
                     BookResponse.class
             );
             logger.info("Successfully created book with ISBN: {}", response.getBody() != null ? response.getBody().getIsbn() : "unknown");
+            catalogueCache.invalidate();
             return response.getBody();
         } catch (HttpClientErrorException.Conflict e) {
             logger.warn("Conflict while creating book: {}", e.getMessage());
@@ -120,21 +254,25 @@ public class BookServiceImpl implements BookService {
         }
     }
 
-    @Override
-    public BookResponse updateBook(String isbn, BookUpdateRequest request) {
+    private BookResponse patchBook(String isbn, BookUpdateRequest request) {
         try {
             logger.debug("Updating book with ISBN: {}", isbn);
             ResponseEntity<BookResponse> response = restTemplate.exchange(
-                    baseUrl + "/" + isbn,
+                    baseUrl + "/{isbn}",
                     HttpMethod.PATCH,
                     new HttpEntity<>(request),
-                    BookResponse.class
+                    BookResponse.class,
+                    isbn
             );
             logger.info("Successfully updated book with ISBN: {}", isbn);
+            catalogueCache.invalidate();
             return response.getBody();
         } catch (HttpClientErrorException.NotFound e) {
             logger.warn("Book not found for update with ISBN: {}", isbn);
             throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
+        } catch (HttpClientErrorException.Conflict e) {
+            logger.warn("Concurrent change while updating book: {}", isbn);
+            throw new ApiException(CONCURRENT_UPDATE, HttpStatus.CONFLICT.value(), e);
         } catch (HttpClientErrorException.BadRequest e) {
             logger.warn("Bad request while updating book: {}", e.getMessage());
             throw new ApiException("Invalid book data provided", HttpStatus.BAD_REQUEST.value(), e);
@@ -150,17 +288,18 @@ public class BookServiceImpl implements BookService {
         }
     }
 
-    @Override
-    public void deleteBook(String isbn) {
+    private void removeBook(String isbn) {
         try {
             logger.debug("Deleting book with ISBN: {}", isbn);
             restTemplate.exchange(
-                    baseUrl + "/" + isbn,
+                    baseUrl + "/{isbn}",
                     HttpMethod.DELETE,
                     null,
-                    Void.class
+                    Void.class,
+                    isbn
             );
             logger.info("Successfully deleted book with ISBN: {}", isbn);
+            catalogueCache.invalidate();
         } catch (HttpClientErrorException.NotFound e) {
             logger.warn("Book not found for deletion with ISBN: {}", isbn);
             throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
@@ -0,0 +1,297 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.dto.BookQuery;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Holds the last good {@link CataloguePage} of each recently listed query and
+ * refreshes it in the background (stale-while-revalidate). Queries that only differ in
+ * how a value is written, e.g. a price of {@code 10} and {@code 10.00}, share a page.
+ *
+ * <ul>
+ *   <li>Younger than {@code refreshAfter}: served as is.</li>
+ *   <li>Older: served as is while a single background refresh of that page runs.</li>
+ *   <li>Invalidated by a local write, or not loaded yet: loaded for the caller so the
+ *       user sees their own change.</li>
+ * </ul>
+ * If a load fails, the previous page keeps being served until it is older than
+ * {@code maxStale}; only then does the failure reach the caller. Up to {@code maxPages}
+ * queries are kept, the least recently read dropped first.
+ *
+ * <p>The loader returns a future. With a non-blocking loader {@link #getAsync} never
+ * holds the calling thread, and concurrent misses of one query share the load in
+ * flight; with a blocking loader that returns completed futures it behaves like a
+ * synchronous cache.
+ *
+ * <p>The loader is given the previous page of the query, so it can revalidate it with
+ * its ETag and return a {@linkplain CataloguePage#revalidated revalidated} copy when
+ * nothing has changed.
+ *
+ * <p>Reads are counted as {@code catalogue.cache.gets} by result (hit, stale, miss,
+ * fallback), loads as {@code catalogue.cache.loads} by outcome (success, not_modified,
+ * failure); the number of cached pages is a gauge.
+ */
+class CatalogueCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueCache.class);
+
+    private final BiFunction<BookQuery, CataloguePage, CompletableFuture<CataloguePage>> loader;
+    private final Executor executor;
+    private final Duration refreshAfter;
+    private final Duration maxStale;
+
+    /** Bumped by every invalidation; a page is only current if it was loaded in the current generation. */
+    private final AtomicLong generation = new AtomicLong();
+    /** Guarded by itself; in access order, so the eldest entry is the least recently read. */
+    private final Map<BookQuery, Slot> slots;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder notModifiedLoads = new LongAdder();
+    private final LongAdder failedLoads = new LongAdder();
+
+    /**
+     * @param loader fetches the page of a query, given the previous page of that query or null
+     */
+    CatalogueCache(BiFunction<BookQuery, CataloguePage, CompletableFuture<CataloguePage>> loader, Executor executor,
+                   Duration refreshAfter, Duration maxStale, int maxPages) {
+        this.loader = loader;
+        this.executor = executor;
+        this.refreshAfter = refreshAfter;
+        this.maxStale = maxStale;
+        this.slots = new LinkedHashMap<BookQuery, Slot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BookQuery, Slot> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    CompletableFuture<CataloguePage> getAsync(BookQuery query) {
+        BookQuery key = normalise(query);
+        Slot slot;
+        synchronized (slots) {
+            slot = slots.computeIfAbsent(key, Slot::new);
+        }
+        return slot.get();
+    }
+
+    /**
+     * Marks every cached page as outdated; the next read of each reloads it.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return a copy of the query with prices in their shortest form, a blank sort
+     *         dropped and a missing page number made explicit
+     */
+    static BookQuery normalise(BookQuery query) {
+        BookQuery key = new BookQuery();
+        key.setBookType(query.getBookType());
+        key.setMinPrice(normalise(query.getMinPrice()));
+        key.setMaxPrice(normalise(query.getMaxPrice()));
+        key.setMinYear(query.getMinYear());
+        key.setMaxYear(query.getMaxYear());
+        key.setSort(query.getSort() == null || query.getSort().trim().isEmpty() ? null : query.getSort().trim());
+        key.setPage(query.getPage() == null ? 0 : query.getPage());
+        key.setSize(query.getSize());
+        return key;
+    }
+
+    private static BigDecimal normalise(BigDecimal value) {
+        // stripTrailingZeros alone turns 100 into 1E+2
+        return value == null ? null : new BigDecimal(value.stripTrailingZeros().toPlainString());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gets(registry, "hit", hits);
+        gets(registry, "stale", staleHits);
+        gets(registry, "miss", misses);
+        gets(registry, "fallback", fallbacks);
+        FunctionCounter.builder("catalogue.cache.loads", loads, LongAdder::sum)
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("catalogue.cache.loads", notModifiedLoads, LongAdder::sum)
+                .tag("outcome", "not_modified")
+                .register(registry);
+        FunctionCounter.builder("catalogue.cache.loads", failedLoads, LongAdder::sum)
+                .tag("outcome", "failure")
+                .register(registry);
+        Gauge.builder("catalogue.cache.pages", this, cache -> {
+                    synchronized (cache.slots) {
+                        return cache.slots.size();
+                    }
+                })
+                .description("List queries with a cached page")
+                .register(registry);
+    }
+
+    private static void gets(MeterRegistry registry, String result, LongAdder counter) {
+        FunctionCounter.builder("catalogue.cache.gets", counter, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * The cached page of one query and the loads of it in flight.
+     */
+    private final class Slot {
+        private final BookQuery query;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Entry entry;
+        /** Load started by a miss, shared by the misses that arrive while it runs; guarded by this. */
+        private CompletableFuture<CataloguePage> pending;
+        private long pendingGeneration;
+
+        Slot(BookQuery query) {
+            this.query = query;
+        }
+
+        CompletableFuture<CataloguePage> get() {
+            Entry current = entry;
+            if (!usable(current, generation.get())) {
+                misses.increment();
+                return loadNow();
+            }
+            if (current.olderThan(refreshAfter)) {
+                staleHits.increment();
+                refreshInBackground();
+            } else {
+                hits.increment();
+            }
+            return CompletableFuture.completedFuture(current.page);
+        }
+
+        private synchronized CompletableFuture<CataloguePage> loadNow() {
+            Entry current = entry;
+            long currentGeneration = generation.get();
+            if (usable(current, currentGeneration)) {
+                return CompletableFuture.completedFuture(current.page); // loaded by another thread while we waited
+            }
+            if (pending != null && pendingGeneration == currentGeneration) {
+                return pending;
+            }
+            CompletableFuture<CataloguePage> loading = load().handle((loaded, e) -> {
+                if (e == null) {
+                    return loaded.page;
+                }
+                if (current != null && !current.olderThan(maxStale)) {
+                    fallbacks.increment();
+                    logger.warn("Reload of {} failed, serving page from {}: {}",
+                            query, current.page.getFetchedAt(), Futures.unwrap(e).getMessage());
+                    return current.page;
+                }
+                throw Futures.propagate(e);
+            });
+            pending = loading;
+            pendingGeneration = currentGeneration;
+            loading.whenComplete((page, e) -> {
+                synchronized (this) {
+                    if (pending == loading) {
+                        pending = null;
+                    }
+                }
+            });
+            return loading;
+        }
+
+        /**
+         * @return whether the page can be served without a load: loaded since the last
+         *         invalidation and not older than {@code maxStale}
+         */
+        private boolean usable(Entry current, long currentGeneration) {
+            return current != null && current.generation == currentGeneration && !current.olderThan(maxStale);
+        }
+
+        private void refreshInBackground() {
+            if (!refreshing.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(() -> load().whenComplete((loaded, e) -> {
+                    if (e == null) {
+                        logger.debug("Page of {} refreshed in background", query);
+                    } else {
+                        logger.warn("Background refresh of {} failed, keeping previous page: {}",
+                                query, Futures.unwrap(e).getMessage());
+                    }
+                    refreshing.set(false);
+                }));
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                logger.warn("Could not schedule page refresh: {}", e.getMessage());
+            }
+        }
+
+        private CompletableFuture<Entry> load() {
+            long loadGeneration = generation.get();
+            long startedAt = System.nanoTime();
+            Entry previous = entry;
+            CataloguePage previousPage = previous == null ? null : previous.page;
+            CompletableFuture<CataloguePage> fetched;
+            try {
+                fetched = loader.apply(query, previousPage);
+            } catch (RuntimeException e) {
+                fetched = Futures.failed(e);
+            }
+            return fetched.handle((page, e) -> {
+                if (e != null) {
+                    failedLoads.increment();
+                    throw Futures.propagate(e);
+                }
+                if (page.samePageAs(previousPage)) {
+                    notModifiedLoads.increment();
+                } else {
+                    loads.increment();
+                }
+                Entry loaded = new Entry(page, loadGeneration, startedAt);
+                synchronized (this) {
+                    // a slow load must not overwrite one that started later or saw a later invalidation
+                    if (entry == null || entry.generation < loaded.generation
+                            || (entry.generation == loaded.generation && entry.startedAtNanos - startedAt < 0)) {
+                        entry = loaded;
+                    }
+                }
+                return loaded;
+            });
+        }
+    }
+
+    private static final class Entry {
+        final CataloguePage page;
+        final long generation;
+        final long startedAtNanos;
+
+        Entry(CataloguePage page, long generation, long startedAtNanos) {
+            this.page = page;
+            this.generation = generation;
+            this.startedAtNanos = startedAtNanos;
+        }
+
+        boolean olderThan(Duration age) {
+            return System.nanoTime() - startedAtNanos > age.toNanos();
+        }
+    }
+}
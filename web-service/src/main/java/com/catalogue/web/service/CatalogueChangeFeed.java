@@ -0,0 +1,338 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.dto.BookChange;
+import com.catalogue.web.dto.BookChangePage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes catalogue changes to open list pages as server-sent events.
+ *
+ * <p>One background thread follows the management service's change feed with long
+ * polls, whatever the number of browsers: upstream load does not grow with the number
+ * of open pages. Each committed change is sent to every browser as a {@code change}
+ * event whose id is the change's sequence number. The thread only runs while at least
+ * one browser is connected and resumes from where it stopped.
+ *
+ * <p>The most recent changes are kept, so a browser that reconnects with
+ * {@code Last-Event-ID} gets what it missed. A browser that is too far behind, or a
+ * poll that returns more changes than is sensible to patch in place, gets a
+ * {@code reload} event instead.
+ *
+ * <p>Long polls bypass the {@link ManagementCallGuard}: they are meant to wait, so
+ * they would distort its adaptive timeouts and trip its breaker. Failed polls are
+ * retried after {@code retry-delay}.
+ *
+ * <p>Published as {@code catalogue.live.subscribers} (open connections),
+ * {@code catalogue.live.polls} and {@code catalogue.live.changes}.
+ */
+@Component
+public class CatalogueChangeFeed implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueChangeFeed.class);
+    /** Added to the long-poll wait to get the read timeout of the poll. */
+    private static final Duration READ_MARGIN = Duration.ofSeconds(10);
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final Duration pollWait;
+    private final Duration emitterTimeout;
+    private final Duration retryDelay;
+    private final int replaySize;
+    private final int maxEvents;
+
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final ExecutorService poller;
+    private final ScheduledExecutorService heartbeats;
+    private volatile boolean stopped;
+    /** Whether the last poll left further changes to fetch; poller thread only. */
+    private boolean behind;
+
+    /** Last sequence number seen upstream, -1 if unknown; guarded by this. */
+    private long position = -1;
+    /** The latest changes, oldest first, at most replaySize; guarded by this. */
+    private final Deque<BookChange> recent = new ArrayDeque<>();
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+
+    public CatalogueChangeFeed(RestTemplate restTemplate,
+                               @Value("${management.service.url}") String baseUrl,
+                               @Value("${catalogue.live.poll-wait:PT25S}") Duration pollWait,
+                               @Value("${catalogue.live.emitter-timeout:PT30M}") Duration emitterTimeout,
+                               @Value("${catalogue.live.heartbeat:PT20S}") Duration heartbeat,
+                               @Value("${catalogue.live.retry-delay:PT5S}") Duration retryDelay,
+                               @Value("${catalogue.live.replay-size:1000}") int replaySize,
+                               @Value("${catalogue.live.max-events:200}") int maxEvents) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.pollWait = pollWait;
+        this.emitterTimeout = emitterTimeout;
+        this.retryDelay = retryDelay;
+        this.replaySize = replaySize;
+        this.maxEvents = maxEvents;
+        this.poller = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("catalogue-changes-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("catalogue-heartbeat-"));
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens an event stream for one browser.
+     *
+     * <p>The emitter is registered before the missed changes are replayed, so a change
+     * that arrives meanwhile is sent at least once; the page applies changes idempotently.
+     *
+     * @param lastEventId the {@code Last-Event-ID} the browser reconnected with, or null
+     * @return the emitter to return from the handler
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(emitterTimeout.toMillis()), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        Long after = parse(lastEventId);
+        if (after != null) {
+            replay(emitter, after);
+        }
+        startPolling();
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        stopped = true;
+        poller.shutdownNow();
+        heartbeats.shutdownNow();
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalogue.live.subscribers", emitters, Set::size)
+                .description("Browsers following catalogue changes")
+                .register(registry);
+        FunctionCounter.builder("catalogue.live.polls", polls, LongAdder::sum)
+                .description("Long polls of the management service's change feed")
+                .register(registry);
+        FunctionCounter.builder("catalogue.live.changes", changes, LongAdder::sum)
+                .description("Catalogue changes received from the management service")
+                .register(registry);
+    }
+
+    // ---------- polling ----------
+
+    private void startPolling() {
+        if (stopped || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            poller.execute(this::pollWhileSubscribed);
+        } catch (RuntimeException e) {
+            polling.set(false);
+            logger.warn("Could not start following catalogue changes: {}", e.getMessage());
+        }
+    }
+
+    private void pollWhileSubscribed() {
+        try {
+            while (!stopped && !emitters.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                try {
+                    poll();
+                } catch (RuntimeException e) {
+                    logger.warn("Polling catalogue changes failed, retrying in {}: {}", retryDelay, e.getMessage());
+                    Thread.sleep(retryDelay.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            polling.set(false);
+        }
+        // a browser that subscribed while the loop was exiting must not be left without a poller
+        if (!stopped && !emitters.isEmpty()) {
+            startPolling();
+        }
+    }
+
+    private void poll() {
+        long since;
+        synchronized (this) {
+            since = position;
+        }
+        polls.increment();
+        BookChangePage page;
+        try {
+            page = RequestTimeout.with(pollWait.plus(READ_MARGIN), () -> since < 0
+                    ? restTemplate.getForObject(baseUrl + "/changes", BookChangePage.class)
+                    : restTemplate.getForObject(baseUrl + "/changes?since={since}&wait={wait}", BookChangePage.class,
+                            since, pollWait.getSeconds()));
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.GONE) {
+                throw e;
+            }
+            logger.warn("Catalogue changes after {} are no longer available; asking pages to reload", since);
+            synchronized (this) {
+                position = -1;
+                recent.clear();
+            }
+            broadcast(Collections.emptyList(), true);
+            return;
+        }
+        if (page != null) {
+            publish(page);
+        }
+    }
+
+    /**
+     * Records a page and sends it on. While the feed is paging through a backlog (after
+     * a long idle spell, or a bulk import), nothing is sent until the last page; pages
+     * are then told to reload once instead of receiving thousands of events.
+     */
+    private void publish(BookChangePage page) {
+        List<BookChange> items = page.getItems() == null ? Collections.<BookChange>emptyList() : page.getItems();
+        boolean skipped = behind || items.size() > maxEvents;
+        behind = page.isMore();
+        synchronized (this) {
+            for (BookChange change : items) {
+                recent.addLast(change);
+                if (recent.size() > replaySize) {
+                    recent.removeFirst();
+                }
+            }
+            position = page.getLast();
+        }
+        changes.add(items.size());
+        if (behind) {
+            return;
+        }
+        if (skipped || !items.isEmpty()) {
+            broadcast(items, skipped);
+        }
+    }
+
+    // ---------- sending ----------
+
+    private void replay(SseEmitter emitter, long after) {
+        List<BookChange> missed = new ArrayList<>();
+        boolean reload;
+        synchronized (this) {
+            if (position < 0 || after >= position) {
+                return; // nothing newer is known yet
+            }
+            BookChange oldest = recent.peekFirst();
+            reload = oldest == null || oldest.getSeq() > after + 1;
+            if (!reload) {
+                for (BookChange change : recent) {
+                    if (change.getSeq() > after) {
+                        missed.add(change);
+                    }
+                }
+            }
+        }
+        if (reload || missed.size() > maxEvents) {
+            send(emitter, reloadEvent());
+            return;
+        }
+        for (BookChange change : missed) {
+            if (!send(emitter, changeEvent(change))) {
+                return;
+            }
+        }
+    }
+
+    private void broadcast(List<BookChange> items, boolean reload) {
+        for (SseEmitter emitter : emitters) {
+            if (reload) {
+                send(emitter, reloadEvent());
+                continue;
+            }
+            for (BookChange change : items) {
+                if (!send(emitter, changeEvent(change))) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (SseEmitter emitter : emitters) {
+            send(emitter, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    /**
+     * @return false if the browser is gone; its emitter is then closed and dropped
+     */
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder changeEvent(BookChange change) {
+        return SseEmitter.event()
+                .id(Long.toString(change.getSeq()))
+                .name("change")
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private SseEmitter.SseEventBuilder reloadEvent() {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("reload").data("reload");
+        synchronized (this) {
+            if (position >= 0) {
+                event.id(Long.toString(position));
+            }
+        }
+        return event;
+    }
+
+    private static Long parse(String lastEventId) {
+        if (lastEventId == null || !lastEventId.matches("\\d{1,18}")) {
+            return null;
+        }
+        return Long.valueOf(lastEventId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.dto.BookQueryPage;
+
+import java.time.Instant;
+
+/**
+ * One page of the list as last fetched from the management service, kept by the
+ * {@link CatalogueCache} together with the entity tag it was served with.
+ */
+final class CataloguePage {
+
+    private final BookQueryPage page;
+    private final String etag;
+    private final Instant fetchedAt;
+
+    CataloguePage(BookQueryPage page, String etag, Instant fetchedAt) {
+        this.page = page;
+        this.etag = etag;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * @return the same page, confirmed unchanged by the management service at {@code fetchedAt}
+     */
+    CataloguePage revalidated(Instant fetchedAt) {
+        return new CataloguePage(page, etag, fetchedAt);
+    }
+
+    /**
+     * @return true if this holds the same page as {@code other}, i.e. one is a
+     *         revalidated copy of the other
+     */
+    boolean samePageAs(CataloguePage other) {
+        return other != null && page == other.page;
+    }
+
+    BookQueryPage getPage() {
+        return page;
+    }
+
+    /**
+     * @return the management service's ETag for this page, or null if it sent none
+     */
+    String getEtag() {
+        return etag;
+    }
+
+    Instant getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,112 @@
+package com.catalogue.web.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last {@code window} calls.
+ *
+ * <ul>
+ *   <li>CLOSED: calls pass. Once at least {@code minimumCalls} outcomes are recorded and
+ *       the failure rate reaches {@code failureRate}, the breaker opens.</li>
+ *   <li>OPEN: calls are refused without being made, for {@code openFor}.</li>
+ *   <li>HALF_OPEN: a single trial call passes; its success closes the breaker, its failure
+ *       opens it again.</li>
+ * </ul>
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failed;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openForNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int window, int minimumCalls, double failureRate, Duration openFor, LongSupplier clock) {
+        this.failed = new boolean[window];
+        this.minimumCalls = minimumCalls;
+        this.failureRate = failureRate;
+        this.openForNanos = openFor.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if a call may be made; a true result must be followed by
+     *         {@link #record} or {@link #abandon}
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openForNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permit whose call was not made.
+     */
+    synchronized void abandon() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized void record(boolean success) {
+        switch (state) {
+            case HALF_OPEN:
+                if (success) {
+                    state = State.CLOSED;
+                    next = recorded = failures = 0;
+                } else {
+                    open();
+                }
+                trialInFlight = false;
+                return;
+            case OPEN:
+                return; // a call that started before the breaker opened
+            default:
+                if (recorded == failed.length) {
+                    failures -= failed[next] ? 1 : 0;
+                } else {
+                    recorded++;
+                }
+                failed[next] = !success;
+                failures += success ? 0 : 1;
+                next = (next + 1) % failed.length;
+                if (recorded >= minimumCalls && failures >= failureRate * recorded) {
+                    open();
+                }
+        }
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openForNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        next = recorded = failures = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.catalogue.web.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for moving between the blocking and the future-returning service methods
+ * without wrapping the service exceptions the error pages are chosen by.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    static <T> CompletableFuture<T> failed(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+    /**
+     * Runs a blocking call and returns its outcome as an already completed future.
+     */
+    static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Waits for the future and rethrows its failure as the original exception.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * @return the exception a future failed with, without the {@link CompletionException} wrapper
+     */
+    static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
+    /**
+     * Rethrows the cause of a failed future: unchecked exceptions as they are, anything
+     * else wrapped in a {@link CompletionException}.
+     */
+    static RuntimeException propagate(Throwable ex) {
+        Throwable cause = unwrap(ex);
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CompletionException(cause);
+    }
+}
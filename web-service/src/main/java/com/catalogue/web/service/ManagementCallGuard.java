@@ -0,0 +1,265 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.exception.ApiException;
+import com.catalogue.web.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resilience layer around every call to the management service, shared by both clients.
+ *
+ * <ul>
+ *   <li><b>Circuit breaker</b>: when too many recent calls failed, calls fail at once
+ *       with {@link ServiceUnavailableException} instead of waiting for a timeout; see
+ *       {@link CircuitBreaker}.</li>
+ *   <li><b>Bulkhead</b>: at most {@code max-concurrent} calls per {@link ManagementOperation}
+ *       are in flight; further ones are refused, so one slow operation cannot take every
+ *       request thread or pooled connection.</li>
+ *   <li><b>Retries</b>: failed idempotent calls (list, lookup) are retried after a
+ *       randomised exponential back-off, as long as the {@link RetryBudget} allows.</li>
+ *   <li><b>Adaptive timeouts</b>: each attempt gets a read timeout from the latency
+ *       observed for its operation; see {@link AdaptiveTimeout}.</li>
+ * </ul>
+ * A failure is a connection problem, a timeout or a 5xx response; 4xx responses count
+ * as successes, since the management service answered.
+ *
+ * <p>Published as {@code management.client.circuit.state} (1 for the current state),
+ * {@code management.client.rejected} (by operation and reason),
+ * {@code management.client.bulkhead.active}, {@code management.client.retries} (by
+ * operation and outcome), {@code management.client.retry.budget} and
+ * {@code management.client.timeout} (current timeout per operation).
+ */
+@Component
+class ManagementCallGuard implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagementCallGuard.class);
+
+    private final CircuitBreaker breaker;
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Map<ManagementOperation, Semaphore> bulkheads = new EnumMap<>(ManagementOperation.class);
+    private final Map<ManagementOperation, AdaptiveTimeout> timeouts = new EnumMap<>(ManagementOperation.class);
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    ManagementCallGuard(@Value("${management.service.resilience.breaker.window:20}") int window,
+                        @Value("${management.service.resilience.breaker.minimum-calls:10}") int minimumCalls,
+                        @Value("${management.service.resilience.breaker.failure-rate:0.5}") double failureRate,
+                        @Value("${management.service.resilience.breaker.open-for:PT10S}") Duration openFor,
+                        @Value("${management.service.resilience.bulkhead.max-concurrent:50}") int maxConcurrent,
+                        @Value("${management.service.resilience.retry.max-attempts:3}") int maxAttempts,
+                        @Value("${management.service.resilience.retry.backoff:PT0.05S}") Duration backoff,
+                        @Value("${management.service.resilience.retry.budget-ratio:0.1}") double budgetRatio,
+                        @Value("${management.service.resilience.retry.budget-reserve:10}") int budgetReserve,
+                        @Value("${management.service.resilience.timeout.min:PT1S}") Duration minTimeout,
+                        @Value("${management.service.http.read-timeout:PT10S}") Duration maxTimeout,
+                        TaskExecutor taskExecutor) {
+        this.breaker = new CircuitBreaker(window, minimumCalls, failureRate, openFor, System::nanoTime);
+        this.budget = new RetryBudget(budgetRatio, budgetReserve);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+        for (ManagementOperation operation : ManagementOperation.values()) {
+            bulkheads.put(operation, new Semaphore(maxConcurrent));
+            timeouts.put(operation, new AdaptiveTimeout(minTimeout, maxTimeout));
+        }
+        this.executor = taskExecutor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "management-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs a call through the breaker, the operation's bulkhead and, for idempotent
+     * operations, the retry policy.
+     *
+     * @param operation what the call does
+     * @param attempt makes one attempt with the given read timeout; may be invoked again
+     *                for a retry, on another thread
+     * @return the outcome of the last attempt
+     */
+    <T> CompletableFuture<T> call(ManagementOperation operation, Function<Duration, CompletableFuture<T>> attempt) {
+        budget.deposit();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(operation, attempt, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(ManagementOperation operation, Function<Duration, CompletableFuture<T>> attempt,
+                             int number, CompletableFuture<T> result) {
+        if (!breaker.tryAcquire()) {
+            rejected(operation, "circuit_open");
+            result.completeExceptionally(new ServiceUnavailableException(
+                    "The management service is failing; calls are paused for a moment"));
+            return;
+        }
+        Semaphore bulkhead = bulkheads.get(operation);
+        if (!bulkhead.tryAcquire()) {
+            breaker.abandon();
+            rejected(operation, "bulkhead_full");
+            result.completeExceptionally(new ServiceUnavailableException(
+                    "Too many requests to the management service are in progress"));
+            return;
+        }
+
+        AdaptiveTimeout timeout = timeouts.get(operation);
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = attempt.apply(timeout.current());
+        } catch (RuntimeException e) {
+            call = Futures.failed(e);
+        }
+        call.whenComplete((value, ex) -> {
+            bulkhead.release();
+            Throwable cause = ex == null ? null : Futures.unwrap(ex);
+            if (timedOut(cause)) {
+                timeout.recordTimeout();
+            } else if (!(cause instanceof ServiceUnavailableException)) {
+                // the service answered; connection failures say nothing about its latency
+                timeout.recordResponse(System.nanoTime() - startedAt);
+            }
+            boolean failed = isFailure(cause);
+            breaker.record(!failed);
+
+            if (!failed) {
+                if (cause == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            } else if (!operation.isIdempotent() || number >= maxAttempts) {
+                result.completeExceptionally(cause);
+            } else if (!budget.tryWithdraw()) {
+                retries(operation, "budget_exhausted");
+                result.completeExceptionally(cause);
+            } else {
+                retries(operation, "retried");
+                long delay = ThreadLocalRandom.current().nextLong((backoffMillis << (number - 1)) + 1);
+                logger.debug("Retrying {} in {} ms after: {}", operation.tag(), delay, cause.getMessage());
+                scheduleRetry(() -> attempt(operation, attempt, number + 1, result), delay, cause, result);
+            }
+        });
+    }
+
+    private <T> void scheduleRetry(Runnable retry, long delayMillis, Throwable cause, CompletableFuture<T> result) {
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    executor.execute(retry);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(cause);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(cause); // shutting down
+        }
+    }
+
+    private static boolean isFailure(Throwable cause) {
+        if (cause == null) {
+            return false;
+        }
+        if (cause instanceof ApiException) {
+            return ((ApiException) cause).getStatusCode() >= 500;
+        }
+        return cause instanceof ServiceUnavailableException;
+    }
+
+    private static boolean timedOut(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    Duration currentTimeout(ManagementOperation operation) {
+        return timeouts.get(operation).current();
+    }
+
+    private void rejected(ManagementOperation operation, String reason) {
+        if (registry != null) {
+            Counter.builder("management.client.rejected")
+                    .description("Calls to the management service refused without being made")
+                    .tag("operation", operation.tag())
+                    .tag("reason", reason)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private void retries(ManagementOperation operation, String outcome) {
+        if (registry != null) {
+            Counter.builder("management.client.retries")
+                    .description("Failed idempotent calls, by whether they were retried")
+                    .tag("operation", operation.tag())
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("management.client.circuit.state", breaker, b -> b.state() == state ? 1 : 0)
+                    .description("1 for the current state of the circuit breaker")
+                    .tag("state", state.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("management.client.retry.budget", budget, RetryBudget::balance)
+                .description("Retries currently allowed by the retry budget")
+                .register(registry);
+        for (ManagementOperation operation : ManagementOperation.values()) {
+            Semaphore bulkhead = bulkheads.get(operation);
+            int capacity = bulkhead.availablePermits();
+            Gauge.builder("management.client.bulkhead.active", bulkhead, b -> capacity - b.availablePermits())
+                    .description("Calls in flight")
+                    .tag("operation", operation.tag())
+                    .register(registry);
+            Gauge.builder("management.client.timeout", timeouts.get(operation), t -> t.current().toNanos() / 1e9)
+                    .description("Read timeout given to the next call")
+                    .baseUnit("seconds")
+                    .tag("operation", operation.tag())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
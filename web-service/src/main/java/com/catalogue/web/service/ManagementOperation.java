@@ -0,0 +1,30 @@
+package com.catalogue.web.service;
+
+/**
+ * Calls made to the management service. Each has its own bulkhead and timeout estimate;
+ * only idempotent ones are retried.
+ */
+enum ManagementOperation {
+    QUERY(true),
+    GET(true),
+    CREATE(false),
+    UPDATE(false),
+    DELETE(false);
+
+    private final boolean idempotent;
+
+    ManagementOperation(boolean idempotent) {
+        this.idempotent = idempotent;
+    }
+
+    boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * @return the value of the {@code operation} metrics tag
+     */
+    String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,37 @@
+package com.catalogue.web.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Carries the read timeout chosen for a blocking call to the request factory that
+ * builds the HTTP request on the same thread.
+ */
+public final class RequestTimeout {
+
+    private static final ThreadLocal<Duration> CURRENT = new ThreadLocal<>();
+
+    private RequestTimeout() {
+    }
+
+    /**
+     * @return the timeout for the call running on this thread, or null to use the client default
+     */
+    public static Duration current() {
+        return CURRENT.get();
+    }
+
+    static <T> T with(Duration timeout, Supplier<T> call) {
+        Duration previous = CURRENT.get();
+        CURRENT.set(timeout);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
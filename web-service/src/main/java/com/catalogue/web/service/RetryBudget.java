@@ -0,0 +1,36 @@
+package com.catalogue.web.service;
+
+/**
+ * Limits retries to a fraction of calls, so retries cannot multiply the load on a
+ * management service that is already failing. Every call deposits {@code ratio} tokens,
+ * every retry takes one; the balance is capped at {@code reserve}, which is also the
+ * starting balance and allows short bursts of retries when traffic is light.
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double reserve;
+    private double tokens;
+
+    RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.reserve = reserve;
+        this.tokens = reserve;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(reserve, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double balance() {
+        return tokens;
+    }
+}
@@ -26,6 +26,7 @@ public class BookMapper {
         request.setPublishDate(DateFormatter.parse(form.getPublishDate()));
         request.setPrice(form.getPrice() != null ? BigDecimal.valueOf(form.getPrice()) : null);
         request.setBookType(form.getBookType());
+        request.setVersion(form.getVersion());
         return request;
     }
 
@@ -36,6 +37,7 @@ public class BookMapper {
         form.setPublishDate(DateFormatter.format(book.getPublishDate()));
         form.setPrice(book.getPrice() != null ? book.getPrice().doubleValue() : null);
         form.setBookType(book.getBookType());
+        form.setVersion(book.getVersion());
         return form;
     }
 }
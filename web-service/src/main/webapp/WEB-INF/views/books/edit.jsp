@@ -17,6 +17,7 @@
         </c:if>
         
         <form:form method="post" modelAttribute="bookForm" action="${pageContext.request.contextPath}/books/${bookForm.isbn}">
+            <form:hidden path="version" />
             <div class="form-group">
                 <form:label path="isbn">ISBN</form:label>
                 <form:input path="isbn" readonly="true" />
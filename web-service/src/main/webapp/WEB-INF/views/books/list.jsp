@@ -1,6 +1,7 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
 <!DOCTYPE html>
 <html>
 <head>
@@ -21,23 +22,68 @@
         </c:if>
         
         <a href="<c:url value='/books/new'/>" class="btn btn-primary">Add New Book</a>
-        
+
+        <form method="get" action="<c:url value='/books'/>" class="filters">
+            <div class="form-group">
+                <label for="bookType">Book Type</label>
+                <select id="bookType" name="bookType">
+                    <option value="">Any</option>
+                    <c:forEach var="type" items="${bookTypes}">
+                        <option value="${type}" <c:if test="${query.bookType == type}">selected</c:if>>${type}</option>
+                    </c:forEach>
+                </select>
+            </div>
+            <div class="form-group">
+                <label for="minPrice">Min Price</label>
+                <input type="number" id="minPrice" name="minPrice" min="0" step="0.01" value="${query.minPrice}">
+            </div>
+            <div class="form-group">
+                <label for="maxPrice">Max Price</label>
+                <input type="number" id="maxPrice" name="maxPrice" min="0" step="0.01" value="${query.maxPrice}">
+            </div>
+            <div class="form-group">
+                <label for="minYear">From Year</label>
+                <input type="number" id="minYear" name="minYear" value="${query.minYear}">
+            </div>
+            <div class="form-group">
+                <label for="maxYear">To Year</label>
+                <input type="number" id="maxYear" name="maxYear" value="${query.maxYear}">
+            </div>
+            <c:if test="${not empty query.sort}">
+                <input type="hidden" name="sort" value="${fn:escapeXml(query.sort)}">
+            </c:if>
+            <input type="hidden" name="size" value="${query.size}">
+            <button type="submit" class="btn btn-secondary">Filter</button>
+            <a href="<c:url value='/books'/>" class="btn btn-secondary">Clear</a>
+        </form>
+
+        <div id="catalogue-notice" class="notice" hidden>
+            The catalogue has new books. <a href="">Reload</a> to see them.
+        </div>
+
         <c:choose>
             <c:when test="${not empty books}">
                 <table>
                     <thead>
                         <tr>
-                            <th>ISBN</th>
-                            <th>Name</th>
-                            <th>Publish Date</th>
-                            <th>Price</th>
-                            <th>Book Type</th>
+                            <c:forEach var="column" items="${fn:split('isbn:ISBN|name:Name|publishDate:Publish Date|price:Price|bookType:Book Type', '|')}">
+                                <c:set var="field" value="${fn:substringBefore(column, ':')}"/>
+                                <c:set var="ascending" value="${query.sort == field || query.sort == field.concat(',asc')}"/>
+                                <c:set var="descending" value="${query.sort == field.concat(',desc')}"/>
+                                <c:url var="sortUrl" value="/books">
+                                    <%@ include file="listFilters.jspf" %>
+                                    <c:param name="sort" value="${field}${ascending ? ',desc' : ',asc'}"/>
+                                </c:url>
+                                <th>
+                                    <a href="${sortUrl}">${fn:substringAfter(column, ':')}<c:if test="${ascending}"> &#9650;</c:if><c:if test="${descending}"> &#9660;</c:if></a>
+                                </th>
+                            </c:forEach>
                             <th>Actions</th>
                         </tr>
                     </thead>
                     <tbody>
                         <c:forEach var="book" items="${books}">
-                            <tr>
+                            <tr data-isbn="${book.isbn}">
                                 <td>${book.isbn}</td>
                                 <td>${book.name}</td>
                                 <td>
@@ -61,12 +107,113 @@
                         </c:forEach>
                     </tbody>
                 </table>
+
+                <div class="pager">
+                    <c:if test="${listing.page > 0}">
+                        <c:url var="previousUrl" value="/books">
+                            <%@ include file="listFilters.jspf" %>
+                            <c:if test="${not empty query.sort}"><c:param name="sort" value="${query.sort}"/></c:if>
+                            <c:param name="page" value="${listing.page - 1}"/>
+                        </c:url>
+                        <a href="${previousUrl}" class="btn btn-secondary">Previous</a>
+                    </c:if>
+                    <span>Page ${listing.page + 1} of ${listing.totalPages} (${listing.totalItems} books)</span>
+                    <c:if test="${listing.page + 1 < listing.totalPages}">
+                        <c:url var="nextUrl" value="/books">
+                            <%@ include file="listFilters.jspf" %>
+                            <c:if test="${not empty query.sort}"><c:param name="sort" value="${query.sort}"/></c:if>
+                            <c:param name="page" value="${listing.page + 1}"/>
+                        </c:url>
+                        <a href="${nextUrl}" class="btn btn-secondary">Next</a>
+                    </c:if>
+                </div>
             </c:when>
             <c:otherwise>
                 <p>No books found.</p>
             </c:otherwise>
         </c:choose>
     </div>
+    <script>
+        // Applies changes pushed by /books/events to the rows on this page; rows are keyed
+        // by ISBN, so a change that arrives twice leaves the table as it was after the first.
+        // Where a new book belongs depends on the filters and sort order, which only the
+        // management service applies, so new books are announced rather than inserted.
+        (function () {
+            if (!window.EventSource) {
+                return;
+            }
+            var base = '<c:url value="/books"/>';
+            var source = new EventSource(base + '/events');
+            source.addEventListener('change', function (event) {
+                apply(JSON.parse(event.data));
+            });
+            source.addEventListener('reload', function () {
+                source.close();
+                window.location.reload();
+            });
+
+            function apply(change) {
+                var body = document.querySelector('table tbody');
+                var row = body ? body.querySelector('tr[data-isbn="' + change.isbn + '"]') : null;
+                if (change.type === 'CREATED') {
+                    document.getElementById('catalogue-notice').hidden = false;
+                } else if (!row) {
+                    return; // not on this page
+                } else if (change.type === 'DELETED') {
+                    body.removeChild(row);
+                } else {
+                    body.replaceChild(render(change.book), row);
+                }
+            }
+
+            function render(book) {
+                var row = document.createElement('tr');
+                row.setAttribute('data-isbn', book.isbn);
+                cell(row, book.isbn);
+                cell(row, book.name);
+                cell(row, formatDate(book.publishDate));
+                cell(row, book.price == null ? '' : 'R' + Number(book.price).toFixed(2));
+                cell(row, book.bookType);
+
+                var actions = cell(row, '');
+                actions.className = 'actions';
+                var edit = document.createElement('a');
+                edit.href = base + '/' + encodeURIComponent(book.isbn) + '/edit';
+                edit.className = 'btn btn-edit';
+                edit.textContent = 'Edit';
+                var form = document.createElement('form');
+                form.method = 'post';
+                form.action = base + '/' + encodeURIComponent(book.isbn) + '/delete';
+                var remove = document.createElement('button');
+                remove.type = 'submit';
+                remove.className = 'btn btn-delete';
+                remove.textContent = 'Delete';
+                remove.onclick = function () {
+                    return confirm('Are you sure you want to delete this book?');
+                };
+                form.appendChild(remove);
+                actions.appendChild(edit);
+                actions.appendChild(form);
+                return row;
+            }
+
+            function cell(row, text) {
+                var td = document.createElement('td');
+                td.textContent = text == null ? '' : text;
+                row.appendChild(td);
+                return td;
+            }
+
+            // yyyy-MM-dd from the JSON payload, shown as dd/MM/yyyy like the server-rendered rows
+            function formatDate(iso) {
+                if (!iso) {
+                    return '';
+                }
+                var parts = iso.split('-');
+                return parts[2] + '/' + parts[1] + '/' + parts[0];
+            }
+        })();
+    </script>
 </body>
 </html>
 
@@ -0,0 +1,247 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.dto.BookChange;
+import com.catalogue.web.dto.BookChangePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Follows a scripted change feed: each poll takes the next queued answer, or finds
+ * nothing new after a short wait as an idle long poll would. Events are recorded by
+ * the emitters instead of being written to a response.
+ */
+@DisplayName("CatalogueChangeFeed Tests")
+class CatalogueChangeFeedTest {
+
+    /** Position of the change feed when the web service first asks. */
+    private static final long HEAD = 10;
+    private static final int REPLAY_SIZE = 5;
+    private static final int MAX_EVENTS = 3;
+
+    private ScriptedChangeFeed upstream;
+    private CatalogueChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new ScriptedChangeFeed();
+        feed = new CatalogueChangeFeed(upstream, "http://management/api/books", Duration.ofSeconds(1),
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMillis(20), REPLAY_SIZE, MAX_EVENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    @DisplayName("Should replay the changes after Last-Event-ID, or ask for a reload when they are no longer kept")
+    void should_replayMissedChanges_when_reconnectingWithLastEventId() throws Exception {
+        RecordingEmitter first = subscribe(null);
+        await(() -> upstream.sinces.contains(HEAD));
+        upstream.answer(page(13, false, 11, 12, 13));
+        await(() -> first.events().size() == 3);
+        assertEquals(Arrays.asList("change 11", "change 12", "change 13"), first.events());
+
+        assertEquals(Arrays.asList("change 12", "change 13"), subscribe("11").events());
+        assertEquals(Collections.emptyList(), subscribe("13").events());
+        assertEquals(Collections.singletonList("reload"), subscribe("5").events(), "older than the kept changes");
+        assertEquals(Collections.emptyList(), subscribe("not-a-number").events());
+
+        upstream.answer(page(15, false, 14, 15));
+        await(() -> first.events().size() == 5);
+        // 11 to 15 are all still kept, but five events are more than a page should patch in
+        assertEquals(Collections.singletonList("reload"), subscribe("10").events());
+        assertEquals(Arrays.asList("change 14", "change 15"), subscribe("13").events());
+    }
+
+    @Test
+    @DisplayName("Should ask pages to reload and start again from the head when the position has expired")
+    void should_broadcastReload_when_changeFeedAnswersGone() throws Exception {
+        RecordingEmitter emitter = subscribe(null);
+        await(() -> upstream.sinces.contains(HEAD));
+
+        upstream.answer(HttpClientErrorException.create(HttpStatus.GONE, "Gone", HttpHeaders.EMPTY, new byte[0], null));
+        await(() -> !emitter.events().isEmpty());
+        assertEquals(Collections.singletonList("reload"), emitter.events());
+
+        // the position was dropped, so the next poll asks for the head instead of resuming
+        await(() -> Collections.frequency(upstream.sinces, -1L) == 2);
+        await(() -> upstream.sinces.lastIndexOf(HEAD) > upstream.sinces.lastIndexOf(-1L));
+        assertEquals(Collections.singletonList("reload"), subscribe("5").events(), "nothing is kept after a reset");
+    }
+
+    @Test
+    @DisplayName("Should send one reload instead of too many changes, or of a backlog spread over several pages")
+    void should_broadcastReload_when_pollReturnsTooManyChanges() throws Exception {
+        RecordingEmitter emitter = subscribe(null);
+        await(() -> upstream.sinces.contains(HEAD));
+
+        upstream.answer(page(15, false, 11, 12, 13, 14, 15));
+        await(() -> emitter.events().size() == 1);
+        upstream.answer(page(16, false, 16));
+        await(() -> emitter.events().size() == 2);
+        upstream.answer(page(18, true, 17, 18));
+        upstream.answer(page(19, false, 19));
+        await(() -> emitter.events().size() == 3);
+
+        assertEquals(Arrays.asList("reload", "change 16", "reload"), emitter.events());
+        assertTrue(upstream.sinces.containsAll(Arrays.asList(15L, 16L, 18L)));
+    }
+
+    @Test
+    @DisplayName("Should stop polling when the last browser leaves and resume from the same position for the next")
+    void should_restartPolling_when_subscriberArrivesAfterLastLeft() throws Exception {
+        RecordingEmitter gone = subscribe(null);
+        await(() -> upstream.sinces.contains(HEAD));
+
+        gone.disconnect();
+        upstream.answer(page(11, false, 11));
+        await(() -> gone.attempts() > 0);
+        Thread.sleep(200);
+        int polls = upstream.sinces.size();
+        Thread.sleep(300);
+        assertEquals(polls, upstream.sinces.size(), "no browser left, so no more polls");
+
+        RecordingEmitter next = subscribe(null);
+        await(() -> upstream.sinces.size() > polls);
+        assertEquals(11L, upstream.sinces.get(polls).longValue());
+        upstream.answer(page(12, false, 12));
+        await(() -> !next.events().isEmpty());
+        assertEquals(Collections.singletonList("change 12"), next.events());
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    private static BookChangePage page(long last, boolean more, long... seqs) {
+        List<BookChange> items = new ArrayList<>();
+        for (long seq : seqs) {
+            BookChange change = new BookChange();
+            change.setSeq(seq);
+            change.setType("UPDATED");
+            change.setIsbn("97900000000" + seq);
+            change.setVersion(1);
+            items.add(change);
+        }
+        BookChangePage page = new BookChangePage();
+        page.setItems(items);
+        page.setLast(last);
+        page.setMore(more);
+        return page;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * The management service's {@code /changes}: answers are taken in order; with none
+     * queued a poll finds nothing new. The {@code since} of every poll is recorded, -1
+     * for a poll without one.
+     */
+    private static final class ScriptedChangeFeed extends RestTemplate {
+
+        final List<Long> sinces = new CopyOnWriteArrayList<>();
+        private final BlockingQueue<Object> answers = new LinkedBlockingQueue<>();
+
+        void answer(Object pageOrException) {
+            answers.add(pageOrException);
+        }
+
+        @Override
+        public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+            long since = uriVariables.length == 0 ? -1 : ((Number) uriVariables[0]).longValue();
+            sinces.add(since);
+            Object answer;
+            try {
+                answer = answers.poll(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("interrupted");
+            }
+            if (answer instanceof RuntimeException) {
+                throw (RuntimeException) answer;
+            }
+            return responseType.cast(answer != null ? answer : page(since < 0 ? HEAD : since, false));
+        }
+    }
+
+    /**
+     * An emitter that keeps what is sent to it as {@code change <seq>} or {@code reload};
+     * after {@link #disconnect()} sends fail as they do once the browser has gone.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("id:(\\d+)");
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean disconnected;
+        private volatile int attempts;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String) {
+                    text.append(part.getData());
+                }
+            }
+            Matcher id = ID.matcher(text);
+            if (text.indexOf("event:change") >= 0 && id.find()) {
+                events.add("change " + id.group(1));
+            } else if (text.indexOf("event:reload") >= 0) {
+                events.add("reload");
+            }
+        }
+
+        List<String> events() {
+            return events;
+        }
+
+        void disconnect() {
+            disconnected = true;
+        }
+
+        int attempts() {
+            return attempts;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.exception.ApiException;
+import com.catalogue.web.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ManagementCallGuard Unit Tests")
+class ManagementCallGuardTest {
+
+    private ManagementCallGuard guard;
+    private AtomicInteger attempts;
+
+    @BeforeEach
+    void setUp() {
+        guard = guard(10);
+        attempts = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.destroy();
+    }
+
+    private static ManagementCallGuard guard(int budgetReserve) {
+        return new ManagementCallGuard(10, 4, 0.5, Duration.ofMinutes(1), 2, 3, Duration.ZERO,
+                0.1, budgetReserve, Duration.ofMillis(100), Duration.ofSeconds(10), new SyncTaskExecutor());
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("Should retry an idempotent call that failed with a 5xx")
+    void should_retry_when_lookupFails() throws Exception {
+        CompletableFuture<String> result = guard.call(ManagementOperation.GET, timeout ->
+                attempts.incrementAndGet() == 1
+                        ? Futures.failed(new ApiException("Unavailable", 503))
+                        : CompletableFuture.completedFuture("book"));
+
+        assertEquals("book", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should never retry a write")
+    void should_notRetry_when_createFails() throws Exception {
+        CompletableFuture<String> result = guard.call(ManagementOperation.CREATE, timeout -> {
+            attempts.incrementAndGet();
+            return Futures.failed(new ServiceUnavailableException("down"));
+        });
+
+        assertInstanceOf(ServiceUnavailableException.class, failure(result));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry or count a 4xx as a failure")
+    void should_passThrough_when_clientError() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<String> result = guard.call(ManagementOperation.GET, timeout -> {
+                attempts.incrementAndGet();
+                return Futures.failed(new ApiException("Not found", 404));
+            });
+            assertEquals(404, ((ApiException) failure(result)).getStatusCode());
+        }
+
+        assertEquals(10, attempts.get());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    @Test
+    @DisplayName("Should open the breaker after repeated failures and then fail without calling")
+    void should_failFast_when_breakerOpen() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            guard.call(ManagementOperation.CREATE, timeout -> Futures.failed(new ServiceUnavailableException("down")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+
+        CompletableFuture<String> result = guard.call(ManagementOperation.QUERY, timeout -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("query");
+        });
+
+        assertInstanceOf(ServiceUnavailableException.class, failure(result));
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse calls beyond the bulkhead limit")
+    void should_reject_when_bulkheadFull() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        guard.call(ManagementOperation.QUERY, timeout -> pending);
+        guard.call(ManagementOperation.QUERY, timeout -> pending);
+
+        CompletableFuture<String> refused = guard.call(ManagementOperation.QUERY, timeout -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("query");
+        });
+        CompletableFuture<String> otherOperation = guard.call(ManagementOperation.GET,
+                timeout -> CompletableFuture.completedFuture("book"));
+
+        assertInstanceOf(ServiceUnavailableException.class, failure(refused));
+        assertEquals(0, attempts.get());
+        assertEquals("book", otherOperation.get(5, TimeUnit.SECONDS));
+        pending.complete("query");
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the retry budget is spent")
+    void should_stopRetrying_when_budgetExhausted() throws Exception {
+        guard.destroy();
+        guard = guard(1);
+
+        CompletableFuture<String> first = guard.call(ManagementOperation.GET, timeout -> {
+            attempts.incrementAndGet();
+            return Futures.failed(new ApiException("Unavailable", 503));
+        });
+        assertInstanceOf(ApiException.class, failure(first));
+        assertEquals(2, attempts.get()); // one retry from the reserve
+
+        attempts.set(0);
+        CompletableFuture<String> second = guard.call(ManagementOperation.GET, timeout -> {
+            attempts.incrementAndGet();
+            return Futures.failed(new ApiException("Unavailable", 503));
+        });
+        assertInstanceOf(ApiException.class, failure(second));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should narrow the timeout to observed latency and widen it after a timeout")
+    void should_adaptTimeout_when_latencyObserved() throws Exception {
+        assertEquals(Duration.ofSeconds(10), guard.currentTimeout(ManagementOperation.QUERY));
+
+        for (int i = 0; i < 5; i++) {
+            guard.call(ManagementOperation.QUERY, timeout -> CompletableFuture.completedFuture("query"))
+                    .get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(Duration.ofMillis(100), guard.currentTimeout(ManagementOperation.QUERY));
+
+        guard.call(ManagementOperation.QUERY, timeout -> Futures.failed(new ServiceUnavailableException(
+                "Read timed out", new SocketTimeoutException("Read timed out"))));
+
+        assertTrue(guard.currentTimeout(ManagementOperation.QUERY).compareTo(Duration.ofMillis(200)) >= 0);
+        assertEquals(Duration.ofSeconds(10), guard.currentTimeout(ManagementOperation.GET));
+    }
+}
@@ -0,0 +1,352 @@
+package com.catalogue.web.service;
+
+import com.catalogue.web.config.ManagementWireFormat;
+import com.catalogue.web.config.RestClientConfig;
+import com.catalogue.web.dto.BookQuery;
+import com.catalogue.web.dto.BookQueryPage;
+import com.catalogue.web.exception.ApiException;
+import com.catalogue.web.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URLDecoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives both management-service clients, with the {@link ManagementCallGuard} and the
+ * HTTP clients built by {@link RestClientConfig}, against a stub that answers slowly or
+ * with 5xx on demand. Unlike {@link ManagementCallGuardTest} the calls go over real
+ * sockets, so the read timeout chosen by the guard has to reach the HTTP client.
+ */
+@DisplayName("Management-service client fault injection Tests")
+class ManagementClientFaultTest {
+
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(200);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration OPEN_FOR = Duration.ofMillis(300);
+    private static final Duration REFRESH_AFTER = Duration.ofMillis(100);
+    private static final String ISBN = "9790000000001";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private FaultInjectingStub stub;
+    private ExecutorService pool;
+    private ManagementCallGuard guard;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new FaultInjectingStub(objectMapper);
+        pool = Executors.newFixedThreadPool(4);
+        // window of 4 calls, half of them failing opens the breaker; one retry per lookup
+        guard = new ManagementCallGuard(4, 4, 0.5, OPEN_FOR, 10, 2, Duration.ZERO,
+                0.1, 100, MIN_TIMEOUT, READ_TIMEOUT, new ConcurrentTaskExecutor(pool));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+        guard.destroy();
+        pool.shutdownNow();
+        stub.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "async"})
+    @DisplayName("Should retry a lookup that got a 5xx and return the retried answer")
+    void should_retry_when_lookupGets5xx(String client) {
+        BookService books = client(client);
+        stub.fail(503);
+
+        assertEquals(ISBN, books.getBookByIsbn(ISBN).getIsbn());
+        assertEquals(2, stub.requests());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "async"})
+    @DisplayName("Should time a slow lookup out at the adaptive timeout, not the client's read timeout")
+    void should_timeOutAtAdaptiveTimeout_when_managementServiceIsSlow(String client) {
+        BookService books = client(client);
+        for (int i = 0; i < 50 && guard.currentTimeout(ManagementOperation.GET).compareTo(MIN_TIMEOUT) > 0; i++) {
+            books.getBookByIsbn(ISBN);
+        }
+        assertEquals(MIN_TIMEOUT, guard.currentTimeout(ManagementOperation.GET));
+
+        stub.delay(Duration.ofSeconds(2));
+        stub.delay(Duration.ofSeconds(2));
+        long startedAt = System.nanoTime();
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> books.getBookByIsbn(ISBN));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertTrue(causedBy(e, SocketTimeoutException.class), "expected a socket timeout, got " + e);
+        // 200 ms, then 400 ms for the retry; the 5 s client default would have waited out both delays
+        assertTrue(elapsedMillis < 1_500, "timed out after " + elapsedMillis + " ms");
+        assertTrue(guard.currentTimeout(ManagementOperation.GET).compareTo(MIN_TIMEOUT) > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "async"})
+    @DisplayName("Should open the breaker on 5xx, fail fast, then close it after a successful trial call")
+    void should_openAndCloseBreaker_when_managementServiceRecovers(String client) throws Exception {
+        BookService books = client(client);
+        for (int i = 0; i < 4; i++) {
+            stub.fail(500);
+        }
+
+        for (int i = 0; i < 2; i++) {
+            ApiException e = assertThrows(ApiException.class, () -> books.getBookByIsbn(ISBN));
+            assertEquals(500, e.getStatusCode());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+
+        int requests = stub.requests();
+        assertThrows(ServiceUnavailableException.class, () -> books.getBookByIsbn(ISBN));
+        assertEquals(requests, stub.requests(), "an open breaker must not call the management service");
+
+        Thread.sleep(OPEN_FOR.toMillis() + 100);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, guard.circuitState());
+
+        assertEquals(ISBN, books.getBookByIsbn(ISBN).getIsbn());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "async"})
+    @DisplayName("Should keep serving a cached list page while its refresh gets 5xx")
+    void should_serveStalePage_when_refreshGets5xx(String client) throws Exception {
+        BookService books = client(client);
+        BookQuery query = new BookQuery();
+        query.setSort("name");
+        BookQueryPage page = books.queryBooks(query);
+        assertEquals(ISBN, page.getItems().get(0).getIsbn());
+        assertEquals(1, stub.requests());
+
+        for (int i = 0; i < 10; i++) {
+            stub.fail(500);
+        }
+        Thread.sleep(REFRESH_AFTER.toMillis() + 50);
+
+        assertEquals(page, books.queryBooks(query));
+        for (int i = 0; i < 50 && stub.requests() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(stub.requests() > 1, "the stale page should have been refreshed in the background");
+        assertEquals(page, books.queryBooks(query));
+
+        BookQuery uncached = new BookQuery();
+        uncached.setSort("price");
+        assertThrows(RuntimeException.class, () -> books.queryBooks(uncached),
+                "a page that was never loaded has nothing to fall back on");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "async"})
+    @DisplayName("Should revalidate a stale list page with its ETag and keep it on 304")
+    void should_keepPage_when_revalidationGets304(String client) throws Exception {
+        BookService books = client(client);
+        BookQuery query = new BookQuery();
+        BookQueryPage page = books.queryBooks(query);
+
+        Thread.sleep(REFRESH_AFTER.toMillis() + 50);
+        assertSame(page, books.queryBooks(query));
+        for (int i = 0; i < 50 && stub.notModified() < 1; i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(2, stub.requests());
+        assertEquals(1, stub.notModified(), "the refresh should have sent If-None-Match and got a 304");
+        assertSame(page, books.queryBooks(query));
+    }
+
+    private BookService client(String kind) {
+        RestClientConfig config = new RestClientConfig();
+        ManagementWireFormat wireFormat = new ManagementWireFormat("json", objectMapper, Jackson2ObjectMapperBuilder.json());
+        Duration connectTimeout = Duration.ofSeconds(1);
+        Duration connectionRequestTimeout = Duration.ofSeconds(1);
+        if (kind.equals("async")) {
+            CloseableHttpAsyncClient http = config.managementAsyncHttpClient(new SimpleMeterRegistry(), 10, 10, 1, Duration.ofMillis(50),
+                    connectTimeout, READ_TIMEOUT, connectionRequestTimeout, Duration.ofSeconds(30));
+            resources.add(http);
+            return new AsyncBookServiceImpl(http, objectMapper, wireFormat, new ConcurrentTaskExecutor(pool),
+                    stub.url(), "admin", "admin", REFRESH_AFTER, Duration.ofMinutes(1), 10,
+                    connectTimeout, connectionRequestTimeout, true, new SimpleMeterRegistry(), guard);
+        }
+        PoolingHttpClientConnectionManager connections = config.managementConnectionManager(10, 10, Duration.ofSeconds(2));
+        CloseableHttpClient http = config.managementHttpClient(connections, connectTimeout, READ_TIMEOUT,
+                connectionRequestTimeout, Duration.ofSeconds(30), Duration.ofSeconds(30), true);
+        resources.add(http);
+        RestTemplate restTemplate = config.restTemplate(new RestTemplateBuilder(), http, wireFormat, "admin", "admin");
+        return new BookServiceImpl(restTemplate, stub.url(), new ConcurrentTaskExecutor(pool),
+                REFRESH_AFTER, Duration.ofMinutes(1), 10, new SimpleMeterRegistry(), guard);
+    }
+
+    private static boolean causedBy(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Book lookups ({@code GET /api/books/?isbn=}) and listings ({@code GET /api/books/query})
+     * of the management service, answered from one fixed book; listings carry an ETag and
+     * a matching {@code If-None-Match} is answered with 304. Queued faults are applied to the next requests in order: a
+     * delay before the answer, or an error status instead of it.
+     */
+    private static final class FaultInjectingStub implements AutoCloseable {
+
+        private static final String BOOKS = "/api/books";
+        private static final String ETAG = "\"1\"";
+
+        private final ObjectMapper mapper;
+        private final HttpServer server;
+        private final ExecutorService workers;
+        private final Queue<Fault> faults = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger notModified = new AtomicInteger();
+
+        FaultInjectingStub(ObjectMapper mapper) throws IOException {
+            this.mapper = mapper;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            this.workers = Executors.newFixedThreadPool(16);
+            server.createContext(BOOKS, this::handle);
+            server.setExecutor(workers);
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort() + BOOKS;
+        }
+
+        void fail(int status) {
+            faults.add(new Fault(status, 0));
+        }
+
+        void delay(Duration delay) {
+            faults.add(new Fault(0, delay.toMillis()));
+        }
+
+        int requests() {
+            return requests.get();
+        }
+
+        int notModified() {
+            return notModified.get();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            workers.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            try {
+                Fault fault = faults.poll();
+                if (fault != null && fault.delayMillis > 0) {
+                    Thread.sleep(fault.delayMillis);
+                }
+                if (fault != null && fault.status > 0) {
+                    respond(exchange, fault.status, mapper.createObjectNode().put("status", fault.status));
+                } else if (exchange.getRequestMethod().equals("GET")
+                        && exchange.getRequestURI().getPath().equals(BOOKS + "/")) {
+                    respond(exchange, 200, mapper.createObjectNode()
+                            .put("isbn", param(exchange.getRequestURI().getRawQuery(), "isbn"))
+                            .put("name", "Stub Book")
+                            .put("version", 0));
+                } else if (exchange.getRequestMethod().equals("GET")
+                        && exchange.getRequestURI().getPath().equals(BOOKS + "/query")) {
+                    exchange.getResponseHeaders().add("ETag", ETAG);
+                    if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                    ObjectNode page = mapper.createObjectNode()
+                            .put("page", 0)
+                            .put("size", 20)
+                            .put("totalItems", 1)
+                            .put("totalPages", 1);
+                    page.putArray("items").addObject()
+                            .put("isbn", ISBN)
+                            .put("name", "Stub Book")
+                            .put("version", 0);
+                    respond(exchange, 200, page);
+                } else {
+                    respond(exchange, 404, mapper.createObjectNode().put("status", 404));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // the client gave up waiting and closed the connection
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+            byte[] bytes = mapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private static String param(String query, String name) throws IOException {
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                        return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+                    }
+                }
+            }
+            return "";
+        }
+
+        private static final class Fault {
+            final int status;
+            final long delayMillis;
+
+            Fault(int status, long delayMillis) {
+                this.status = status;
+                this.delayMillis = delayMillis;
+            }
+        }
+    }
+}